@@ -0,0 +1,72 @@
+package com.example.dinadocs.benchmarks;
+
+import com.example.dinadocs.models.PlaceholderSchema;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Genera datos sintéticos para una plantilla a partir de su {@link PlaceholderSchema},
+ * de modo que los benchmarks cubren las diez plantillas sin mantener JSON a mano.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Tamaño del conjunto de datos: filas por cada sección de primer nivel.
+     * Las secciones anidadas (p. ej. logros dentro de experiencia) se limitan a
+     * {@code nestedRows} para que el tamaño crezca con la tabla principal.
+     */
+    public enum Size {
+        SMALL(3, 2),
+        MEDIUM(100, 3),
+        LARGE(2000, 3);
+
+        private final int rows;
+        private final int nestedRows;
+
+        Size(int rows, int nestedRows) {
+            this.rows = rows;
+            this.nestedRows = nestedRows;
+        }
+    }
+
+    private static final String PIXEL_PNG = "data:image/png;base64,"
+            + "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8BQDwAEhQGAhKmMIQAAAABJRU5ErkJggg==";
+
+    private BenchmarkData() {
+    }
+
+    static Map<String, Object> generate(PlaceholderSchema schema, Size size) {
+        return fill(schema, size, size.rows, 0);
+    }
+
+    private static Map<String, Object> fill(PlaceholderSchema node, Size size, int rows, int index) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (String field : node.getFields()) {
+            data.put(field, valueFor(field, index));
+        }
+        node.getSections().forEach((name, child) -> {
+            List<Map<String, Object>> items = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                items.add(fill(child, size, size.nestedRows, i));
+            }
+            data.put(name, items);
+        });
+        return data;
+    }
+
+    private static Object valueFor(String field, int index) {
+        String name = field.toLowerCase(Locale.ROOT);
+        if (name.contains("url") || name.contains("logo") || name.contains("imagen") || name.contains("foto")) {
+            return PIXEL_PNG;
+        }
+        if (name.contains("precio") || name.contains("monto") || name.contains("total")
+                || name.contains("importe") || name.contains("cantidad") || name.contains("subtotal")) {
+            return String.format(Locale.ROOT, "%.2f", 100 + index * 1.5);
+        }
+        return "Valor de " + field.replace('_', ' ') + " " + (index + 1) + " con acentos: año, canción";
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.dinadocs.benchmarks;
+
+import com.example.dinadocs.models.Role;
+import com.example.dinadocs.models.User;
+import com.example.dinadocs.repositories.RevokedTokenRepository;
+import com.example.dinadocs.repositories.UserRepository;
+import com.example.dinadocs.security.AuthenticatedUser;
+import com.example.dinadocs.security.JwtFilter;
+import com.example.dinadocs.security.JwtUtils;
+import com.example.dinadocs.security.PrincipalCache;
+import com.example.dinadocs.services.EventLogService;
+import com.example.dinadocs.services.TokenBlacklistService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Key;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de la autenticación JWT.
+ *
+ * <p>{@code parserPerRequest} reproduce la validación anterior (un parser nuevo por
+ * petición, con decodificación, JSON y verificación de firma siempre); {@code validate}
+ * usa {@link JwtUtils} tal cual, con la caché de tokens verificados desactivada
+ * ({@code verifiedCacheEntries=0}, solo parser compartido) o activada; {@code filter}
+ * mide el {@link JwtFilter} completo con la versión de tokens del usuario ya en la {@link PrincipalCache}.
+ * Se ejecuta con {@code mvn -Pbenchmarks -DskipTests verify -Djmh.args="JwtFilter -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    /** Mismo secreto que {@link JwtUtils}, solo para reproducir la validación anterior. */
+    private static final Key LEGACY_KEY = Keys.hmacShaKeyFor(
+            "EstaEsUnaClaveSuperSecretaQueNadiePuedeAdivinar123456".getBytes());
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"0", "1000"})
+    public int verifiedCacheEntries;
+
+    private JwtUtils jwtUtils;
+    private JwtFilter filter;
+    private EventLogService eventLog;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtils = new JwtUtils(verifiedCacheEntries, 300_000);
+
+        User user = new User();
+        user.setId(1L);
+        user.setName("Bench");
+        user.setEmail("bench@dynadocs.com");
+        user.setRole(Role.USUARIO);
+        token = jwtUtils.generateToken(user);
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findPrincipalById(1L))
+                .thenReturn(Optional.of(new AuthenticatedUser(1L, "bench@dynadocs.com", Role.USUARIO, 0)));
+
+        eventLog = new EventLogService(1024, "INFO", "", "");
+        filter = new JwtFilter(jwtUtils, new TokenBlacklistService(Mockito.mock(RevokedTokenRepository.class), 1 << 20), userRepository,
+                new PrincipalCache(1000, 60_000), eventLog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public String parserPerRequest() {
+        return Jwts.parserBuilder()
+                .setSigningKey(LEGACY_KEY)
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    @Benchmark
+    public String validate() {
+        return jwtUtils.validateTokenAndGetUsername(token);
+    }
+
+    @Benchmark
+    public int filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/templates");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+}
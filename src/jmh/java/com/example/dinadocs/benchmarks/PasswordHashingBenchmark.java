@@ -0,0 +1,61 @@
+package com.example.dinadocs.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins por segundo y núcleo según el coste BCrypt ({@code dynadocs.auth.password.strength}).
+ *
+ * <p>Con un solo hilo, el throughput de {@code login} (verificar la contraseña) es
+ * directamente la capacidad de un núcleo; multiplicado por
+ * {@code dynadocs.auth.password.threads} da el techo de logins por segundo del servidor.
+ * {@code register} mide el cálculo de un hash nuevo (registro o rehash tras cambiar el coste).
+ * Se ejecuta con {@code mvn -Pbenchmarks -DskipTests verify -Djmh.args="PasswordHashing"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "user123";
+
+    @Param({"8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public String register() {
+        return encoder.encode(PASSWORD);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.dinadocs.benchmarks;
+
+import com.example.dinadocs.models.PlaceholderSchema;
+import com.example.dinadocs.models.Template;
+import com.example.dinadocs.services.AssetStore;
+import com.example.dinadocs.services.FontRegistry;
+import com.example.dinadocs.services.PdfRendererPool;
+import com.example.dinadocs.services.TemplateAnalyzer;
+import com.example.dinadocs.services.TemplateImageResolver;
+import com.example.dinadocs.services.TemplateProcessor;
+import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide por separado cada etapa de {@code PdfGenerationService.generatePdf}:
+ * fusión Mustache, normalización con Jsoup (HTML a DOM W3C), {@code layout} y
+ * {@code createPDF}, para las diez plantillas de {@code src/main/resources/templates}
+ * con datos pequeños, medianos y muy grandes.
+ *
+ * <p>Cada etapa recibe como entrada el resultado ya calculado de la anterior, así que
+ * una regresión aparece en la etapa que la causa. Se ejecuta con
+ * {@code mvn -Pbenchmarks -DskipTests verify}; el perfil activa {@code -prof gc}
+ * (asignación por operación) y deja los resultados en {@code target/jmh-result.json}.
+ * Para acotar la ejecución: {@code -Djmh.args="RenderPipeline -p template=certificado.html -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderPipelineBenchmark {
+
+    @Param({
+            "carta-recomendacion.html",
+            "certificado.html",
+            "contrato-de-servicios-simple.html",
+            "curriculum-vitae.html",
+            "factura-con-conceptos.html",
+            "factura-moderna.html",
+            "orden-de-compra.html",
+            "orden-de-servicio.html",
+            "portada-proyecto.html",
+            "presupuesto-obra.html"
+    })
+    public String template;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public BenchmarkData.Size size;
+
+    private TemplateProcessor templateProcessor;
+    private PdfRendererPool rendererPool;
+    private Template entity;
+    private Map<String, Object> data;
+    private String mergedHtml;
+    private Document xhtmlDocument;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String content = readTemplate(template);
+        PlaceholderSchema schema = new TemplateAnalyzer().analyze(content);
+
+        entity = new Template();
+        entity.setId(1L);
+        entity.setName(template);
+        entity.setContent(content);
+        entity.setPlaceholderSchema(schema);
+        data = BenchmarkData.generate(schema, size);
+
+        templateProcessor = new TemplateProcessor();
+        String assets = Files.createTempDirectory("dynadocs-bench-assets").toString();
+        TemplateImageResolver imageResolver = new TemplateImageResolver(new AssetStore(assets, 1024 * 1024, 64 * 1024 * 1024),
+                32 * 1024 * 1024, false, 0, 1000, 0, 0, 1);
+        rendererPool = new PdfRendererPool(1, 60_000, imageResolver, new FontRegistry("", ""));
+
+        mergedHtml = templateProcessor.processTemplate(entity, data);
+        xhtmlDocument = W3CDom.convert(Jsoup.parse(mergedHtml));
+    }
+
+    @Benchmark
+    public String processTemplate() {
+        return templateProcessor.processTemplate(entity, data);
+    }
+
+    @Benchmark
+    public Document normalizeHtml() {
+        return W3CDom.convert(Jsoup.parse(mergedHtml));
+    }
+
+    @Benchmark
+    public void layout(Blackhole blackhole) {
+        try (PdfRendererPool.Lease lease = rendererPool.acquire()) {
+            lease.renderer().setDocument(xhtmlDocument, null);
+            lease.renderer().layout();
+            blackhole.consume(lease.renderer().getRootBox());
+        }
+    }
+
+    @Benchmark
+    public long createPdf(LaidOutDocument laidOut) {
+        CountingOutputStream out = new CountingOutputStream();
+        laidOut.lease.renderer().createPDF(out);
+        return out.count;
+    }
+
+    /**
+     * Documento ya maquetado antes de cada invocación, para medir solo {@code createPDF}.
+     * Un renderizador no puede generar dos veces el mismo PDF, de ahí el nivel Invocation
+     * (aceptable porque cada operación dura milisegundos).
+     */
+    @State(Scope.Thread)
+    public static class LaidOutDocument {
+
+        private PdfRendererPool.Lease lease;
+
+        @Setup(Level.Invocation)
+        public void layout(RenderPipelineBenchmark benchmark) {
+            lease = benchmark.rendererPool.acquire();
+            lease.renderer().setDocument(benchmark.xhtmlDocument, null);
+            lease.renderer().layout();
+        }
+
+        @TearDown(Level.Invocation)
+        public void release() {
+            lease.close();
+        }
+    }
+
+    private static String readTemplate(String name) throws IOException {
+        try (InputStream in = RenderPipelineBenchmark.class.getResourceAsStream("/templates/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("No se encontró la plantilla " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Descarta el PDF contando los bytes, para no medir la copia a memoria.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
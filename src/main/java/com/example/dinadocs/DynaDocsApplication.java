@@ -3,6 +3,7 @@ package com.example.dinadocs;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación DynaDocs.
@@ -21,6 +22,7 @@ import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfi
  * @since 2025-12-03
  */
 @SpringBootApplication
+@EnableScheduling
 public class DynaDocsApplication {
 
 	/**
@@ -29,6 +29,8 @@ public class CorsConfig {
      *   <li>AllowedOriginPattern: * - Acepta peticiones desde cualquier dominio</li>
      *   <li>AllowedHeaders: * - Acepta cualquier header HTTP</li>
      *   <li>AllowedMethods: OPTIONS, GET, POST, PUT, DELETE - Métodos HTTP permitidos</li>
+     *   <li>ExposedHeaders: Server-Timing - Desglose de tiempos legible desde el cliente</li>
+     *   <li>ExposedHeaders: ETag - Para repetir las lecturas de plantillas con If-None-Match</li>
      * </ul>
      * 
      * @return CorsFilter configurado para toda la aplicación
@@ -49,6 +51,11 @@ public class CorsConfig {
         config.addAllowedMethod("POST");
         config.addAllowedMethod("PUT");
         config.addAllowedMethod("DELETE");
+
+        // Para que el cliente web pueda leer el desglose de tiempos de la respuesta.
+        config.addExposedHeader("Server-Timing");
+        // Para que el cliente web pueda guardar el ETag y enviarlo en If-None-Match.
+        config.addExposedHeader("ETag");
         
         source.registerCorsConfiguration("/**", config);
         
@@ -1,10 +1,12 @@
 package com.example.dinadocs.config;
 
+import com.example.dinadocs.models.PlaceholderSchema;
 import com.example.dinadocs.models.Template;
 import com.example.dinadocs.repositories.TemplateRepository;
 import com.example.dinadocs.models.User;
 import com.example.dinadocs.repositories.UserRepository;
 import com.example.dinadocs.models.Role;
+import com.example.dinadocs.services.TemplateAnalyzer;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -12,10 +14,6 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * "Seeder" de la Base de Datos.
@@ -29,6 +27,7 @@ public class DataInitializer implements CommandLineRunner {
     private final TemplateRepository templateRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TemplateAnalyzer templateAnalyzer;
 
     /**
      * Constructor para inyección de dependencias.
@@ -36,11 +35,14 @@ public class DataInitializer implements CommandLineRunner {
      * @param templateRepository repositorio de plantillas
      * @param userRepository repositorio de usuarios
      * @param passwordEncoder encoder de contraseñas BCrypt
+     * @param templateAnalyzer analizador de la estructura de placeholders
      */
-    public DataInitializer(TemplateRepository templateRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public DataInitializer(TemplateRepository templateRepository, UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           TemplateAnalyzer templateAnalyzer) {
         this.templateRepository = templateRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.templateAnalyzer = templateAnalyzer;
     }
 
     /**
@@ -67,8 +69,9 @@ public class DataInitializer implements CommandLineRunner {
                 User owner = userRepository.findById(2L).orElseThrow(() -> new RuntimeException("Usuario creador no encontrado"));
                 newTemplate.setOwner(owner);
 
-                List<String> placeholders = extractPlaceholders(content);
-                newTemplate.setPlaceholders(placeholders);
+                PlaceholderSchema schema = templateAnalyzer.analyze(content);
+                newTemplate.setPlaceholderSchema(schema);
+                newTemplate.setPlaceholders(schema.flatten());
 
                 templateRepository.save(newTemplate);
                 System.out.println("SEEDER: Creada plantilla '" + name + "' desde archivo '" + filename + "'");
@@ -78,20 +81,6 @@ public class DataInitializer implements CommandLineRunner {
         }
     }
 
-    /**
-     * Método privado que usa Regex para encontrar todos los placeholders.
-     */
-    private List<String> extractPlaceholders(String htmlContent) {
-        List<String> matches = new ArrayList<>();
-        Pattern pattern = Pattern.compile("\\{\\{([^\\}]+)\\}\\}");
-        Matcher matcher = pattern.matcher(htmlContent);
-
-        while (matcher.find()) {
-            matches.add(matcher.group(1));
-        }
-        return matches;
-    }
-
     /**
      * Método para crear usuarios de prueba si no existen.
      */
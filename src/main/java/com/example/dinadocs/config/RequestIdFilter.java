@@ -0,0 +1,56 @@
+package com.example.dinadocs.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Asigna un id a cada petición y lo deja en el MDC ({@code requestId}) para que los
+ * eventos de {@link com.example.dinadocs.services.EventLogService} y los logs de la
+ * petición se puedan correlacionar.
+ *
+ * <p>Si el cliente o la pasarela ya envían {@code X-Request-Id} (un valor corto y
+ * sin caracteres de control) se reutiliza; el id se devuelve en la misma cabecera.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "X-Request-Id";
+    static final String MDC_KEY = "requestId";
+
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER);
+        if (!isValid(requestId)) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(MDC_KEY, requestId);
+        response.setHeader(HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    private static boolean isValid(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_LENGTH) {
+            return false;
+        }
+        return requestId.chars().allMatch(c -> c > 0x20 && c < 0x7f);
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.dinadocs.config;
 
+import com.example.dinadocs.models.Role;
+import com.example.dinadocs.security.BoundedPasswordEncoder;
 import com.example.dinadocs.security.JwtFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,8 +11,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // <--- NUEVO IMPORT
-import org.springframework.security.crypto.password.PasswordEncoder;     // <--- NUEVO IMPORT
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -57,7 +58,8 @@ public class SecurityConfiguration {
      *   <li>CORS habilitado con configuración por defecto</li>
      *   <li>CSRF deshabilitado (no necesario en APIs REST stateless)</li>
      *   <li>Sesiones STATELESS (sin manejo de sesiones en servidor)</li>
-     *   <li>Endpoints públicos: /api/auth/*, /error, /actuator/*, /swagger-ui/**</li>
+     *   <li>Endpoints públicos: /api/auth/*, /error, /actuator/health, /swagger-ui/**</li>
+     *   <li>El resto de /actuator/* (métricas) solo para ADMIN: incluye nombres de plantillas</li>
      *   <li>Todos los demás endpoints requieren autenticación</li>
      *   <li>Headers X-Frame-Options deshabilitados</li>
      * </ul>
@@ -76,7 +78,8 @@ public class SecurityConfiguration {
                 .requestMatchers("/api/auth/register").permitAll()
                 .requestMatchers("/api/auth/login").permitAll()
                 .requestMatchers("/error").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasRole(Role.ADMIN.name())
                 .requestMatchers("/swagger-/**").permitAll()
                 .requestMatchers("/javadoc/**").permitAll()
                 .anyRequest().authenticated() 
@@ -104,11 +107,19 @@ public class SecurityConfiguration {
      * Configura el encoder de contraseñas usando BCrypt.
      * BCrypt es un algoritmo de hashing robusto con salt automático,
      * recomendado para almacenar contraseñas de forma segura.
+     * Los hashes se calculan en un pool acotado, fuera de los hilos de Tomcat.
      * 
+     * @param strength Coste BCrypt; los hashes con otro coste se recalculan en el login.
+     * @param threads Hilos dedicados al cálculo de hashes.
+     * @param queueCapacity Cálculos que pueden esperar antes de rechazar con 429.
+     * @param maxWaitMillis Espera máxima de una petición con su hash en cola.
      * @return PasswordEncoder configurado con BCrypt
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${dynadocs.auth.password.strength:10}") int strength,
+                                                  @Value("${dynadocs.auth.password.threads:2}") int threads,
+                                                  @Value("${dynadocs.auth.password.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${dynadocs.auth.password.max-wait-ms:3000}") long maxWaitMillis) {
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, maxWaitMillis);
     }
 }
\ No newline at end of file
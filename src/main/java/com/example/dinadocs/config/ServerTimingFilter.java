@@ -0,0 +1,152 @@
+package com.example.dinadocs.config;
+
+import com.example.dinadocs.models.Role;
+import com.example.dinadocs.security.UserPrincipal;
+import com.example.dinadocs.services.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Añade la cabecera {@code Server-Timing} a las respuestas de generación de PDF
+ * ({@code /api/generatePDF*}) y de plantillas ({@code /api/templates*}).
+ *
+ * <p>Se ejecuta antes que la cadena de Spring Security, así que la autenticación JWT
+ * también queda medida. Las etapas las anotan los servicios en el {@link ServerTiming}
+ * de la petición; la cabecera se escribe justo antes de que la respuesta se confirme
+ * (al pedir el cuerpo), con el total transcurrido hasta ese momento.
+ *
+ * <p>Solo se emite para usuarios ADMIN ({@code dynadocs.server-timing.admins}) o para
+ * una fracción de las peticiones ({@code dynadocs.server-timing.sample-rate}); con
+ * {@code dynadocs.server-timing.enabled=false} el filtro no hace nada.
+ *
+ * @see ServerTiming
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    static final String HEADER = "Server-Timing";
+
+    private final boolean enabled;
+    private final boolean admins;
+    private final double sampleRate;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param enabled Si el filtro está activo.
+     * @param admins Si se emite siempre para usuarios ADMIN.
+     * @param sampleRate Fracción (0 a 1) de peticiones para las que se emite a cualquier usuario.
+     */
+    public ServerTimingFilter(@Value("${dynadocs.server-timing.enabled:true}") boolean enabled,
+                              @Value("${dynadocs.server-timing.admins:true}") boolean admins,
+                              @Value("${dynadocs.server-timing.sample-rate:0.0}") double sampleRate) {
+        this.enabled = enabled;
+        this.admins = admins;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || (!admins && sampleRate <= 0)) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return !(path.startsWith("/api/generatePDF") || path.startsWith("/api/templates"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        TimingResponse timingResponse = new TimingResponse(response, ServerTiming.open(), sampled);
+        try {
+            filterChain.doFilter(request, timingResponse);
+            // Respuestas sin cuerpo (204, errores vacíos) no llegan a pedir el flujo de salida.
+            timingResponse.writeHeader();
+        } finally {
+            ServerTiming.close();
+        }
+    }
+
+    private boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null
+                && authentication.getPrincipal() instanceof UserPrincipal user
+                && user.getRole() == Role.ADMIN;
+    }
+
+    /**
+     * Respuesta que escribe la cabecera la primera vez que se accede al cuerpo.
+     * Se decide en ese momento porque el usuario autenticado aún está en el contexto.
+     */
+    private final class TimingResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+        private final boolean sampled;
+        private final long start = System.nanoTime();
+        private boolean written;
+
+        private TimingResponse(HttpServletResponse response, ServerTiming timing, boolean sampled) {
+            super(response);
+            this.timing = timing;
+            this.sampled = sampled;
+        }
+
+        private void writeHeader() {
+            if (written) {
+                return;
+            }
+            written = true;
+            if (!isCommitted() && (sampled || (admins && isAdmin()))) {
+                setHeader(HEADER, timing.toHeaderValue(System.nanoTime() - start));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeader();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.dinadocs.controllers;
+
+import com.example.dinadocs.services.AssetStore;
+import com.example.dinadocs.services.StorageQuotaExceededException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Controlador para subir imágenes (logos, fotos) que luego se referencian desde los
+ * datos de una plantilla como {@code asset:<id>}, en lugar de enviarlas en Base64
+ * en cada generación.
+ *
+ * @see AssetStore
+ */
+@RestController
+@RequestMapping("/api/assets")
+public class AssetController {
+
+    private final AssetStore assetStore;
+
+    public AssetController(AssetStore assetStore) {
+        this.assetStore = assetStore;
+    }
+
+    /**
+     * Endpoint para subir una imagen.
+     * POST /api/assets (multipart, campo "file")
+     *
+     * @param file La imagen (PNG, JPEG, GIF o BMP).
+     * @return 201 con el id y la referencia a usar en los datos de la plantilla, o 507 si el almacén está lleno.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadAsset(@RequestParam("file") MultipartFile file) {
+        try {
+            String id = assetStore.store(file.getBytes());
+            return new ResponseEntity<>(Map.of(
+                    "id", id,
+                    "reference", AssetStore.SCHEME + id,
+                    "size", file.getSize()), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (StorageQuotaExceededException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.INSUFFICIENT_STORAGE);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Endpoint para descargar una imagen subida.
+     * GET /api/assets/{id}
+     *
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getAsset(@PathVariable String id) {
+        try {
+            Optional<byte[]> content = assetStore.read(id);
+            if (content.isEmpty()) {
+                return new ResponseEntity<>("Recurso no encontrado", HttpStatus.NOT_FOUND);
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(AssetStore.detectContentType(content.get())))
+                    .body(content.get());
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
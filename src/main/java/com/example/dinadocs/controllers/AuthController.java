@@ -2,7 +2,10 @@ package com.example.dinadocs.controllers;
 
 import com.example.dinadocs.models.User;
 import com.example.dinadocs.services.AuthService;
+import com.example.dinadocs.services.CapacityExceededException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -55,6 +58,8 @@ public class AuthController {
     public Map<String, Object> authenticateUser(@RequestBody Map<String, String> request) {
         try {
             return authService.login(request.get("email"), request.get("password"));
+        } catch (CapacityExceededException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error de autenticación: " + e.getMessage());
         }
@@ -78,4 +83,18 @@ public class AuthController {
         
         return ResponseEntity.ok("Sesión cerrada correctamente");
     }
-}
\ No newline at end of file
+
+    /**
+     * Responde 429 con {@code Retry-After} cuando no hay capacidad para calcular hashes
+     * de contraseña (avalancha de logins o registros).
+     *
+     * @param e La excepción con los segundos sugeridos de espera.
+     * @return ResponseEntity 429 con el mensaje de error.
+     */
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<String> tooManyRequests(CapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.dinadocs.controllers;
+
+import com.example.dinadocs.models.GenerationJobStatus;
+import com.example.dinadocs.models.GenerationRequest;
+import com.example.dinadocs.models.JobStatus;
+import com.example.dinadocs.security.UserPrincipal;
+import com.example.dinadocs.services.CapacityExceededException;
+import com.example.dinadocs.services.GenerationJobService;
+import com.example.dinadocs.services.GenerationJobService.JobResult;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.net.URI;
+import java.util.Optional;
+
+/**
+ * Controlador para la generación asíncrona de PDFs.
+ * Permite enviar un trabajo, consultar su estado y descargar el resultado,
+ * sin mantener ocupado un hilo de la petición durante el renderizado.
+ *
+ * @see GenerationJobService
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class GenerationJobController {
+
+    private final GenerationJobService jobService;
+
+    public GenerationJobController(GenerationJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Endpoint para enviar un trabajo de generación.
+     * POST /api/jobs
+     *
+     * @param request El DTO (GenerationRequest) mapeado desde el JSON del body.
+     * @param authUser Usuario autenticado, dueño del trabajo.
+     * @return 202 con el estado inicial y la cabecera Location, o un ResponseEntity de error.
+     */
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody GenerationRequest request,
+                                       @AuthenticationPrincipal UserPrincipal authUser) {
+        try {
+            GenerationJobStatus status = jobService.submit(request, ownerId(authUser));
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/jobs/" + status.getId()))
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (CapacityExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Endpoint para consultar el estado de un trabajo.
+     * GET /api/jobs/{id}
+     *
+     * @param id Id del trabajo devuelto al encolarlo.
+     * @param authUser Usuario autenticado; solo ve sus propios trabajos.
+     * @return 200 con el estado del trabajo, 404 si no existe, expiró o es de otro usuario.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJobStatus(@PathVariable String id,
+                                          @AuthenticationPrincipal UserPrincipal authUser) {
+        Optional<GenerationJobStatus> status = jobService.getStatus(id, ownerId(authUser));
+        if (status.isEmpty()) {
+            return new ResponseEntity<>("Trabajo no encontrado", HttpStatus.NOT_FOUND);
+        }
+        return ResponseEntity.ok(status.get());
+    }
+
+    /**
+     * Endpoint para descargar el PDF de un trabajo terminado.
+     * GET /api/jobs/{id}/result
+     *
+     * @param id Id del trabajo devuelto al encolarlo.
+     * @param authUser Usuario autenticado; solo descarga sus propios trabajos.
+     * @return 200 con el PDF, 409 con el estado si aún no está listo o falló, 404 si no existe.
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> getJobResult(@PathVariable String id,
+                                          @AuthenticationPrincipal UserPrincipal authUser) {
+        Long ownerId = ownerId(authUser);
+        Optional<GenerationJobStatus> status = jobService.getStatus(id, ownerId);
+        if (status.isEmpty()) {
+            return new ResponseEntity<>("Trabajo no encontrado", HttpStatus.NOT_FOUND);
+        }
+        if (status.get().getStatus() != JobStatus.DONE) {
+            return new ResponseEntity<>(status.get(), HttpStatus.CONFLICT);
+        }
+
+        // Se fija el resultado antes de enviar las cabeceras: si expira o se desaloja
+        // durante la descarga, su buffer no se libera hasta terminar de escribirlo.
+        Optional<JobResult> pinned = jobService.openResult(id, ownerId);
+        if (pinned.isEmpty()) {
+            return new ResponseEntity<>("Trabajo no encontrado", HttpStatus.NOT_FOUND);
+        }
+        JobResult result = pinned.get();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentLength(result.getSize());
+        headers.setContentDispositionFormData("attachment", result.getTemplateType() + "_generado.pdf");
+
+        StreamingResponseBody body = outputStream -> {
+            try (result) {
+                result.writeTo(outputStream);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private static Long ownerId(UserPrincipal authUser) {
+        return authUser != null ? authUser.getId() : null;
+    }
+}
@@ -10,11 +10,26 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 // import org.xhtmlrenderer.pdf.ITextRenderer;
 
+import com.example.dinadocs.services.BatchGenerationService;
+import com.example.dinadocs.services.CapacityExceededException;
 import com.example.dinadocs.services.PdfGenerationService;
+import com.example.dinadocs.services.PdfMergeService;
+import com.example.dinadocs.services.SpillBuffer;
+import com.example.dinadocs.services.SpillBufferFactory;
+import com.example.dinadocs.models.BatchGenerationRequest;
 import com.example.dinadocs.models.GenerationRequest;
+import com.example.dinadocs.models.Template;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para manejar peticiones de generación de PDF.
@@ -26,9 +41,16 @@ import com.example.dinadocs.models.GenerationRequest;
 public class PdfController {
 
     private final PdfGenerationService pdfService;
+    private final SpillBufferFactory spillBufferFactory;
+    private final BatchGenerationService batchService;
+    private final PdfMergeService mergeService;
 
-    public PdfController(PdfGenerationService pdfService) {
+    public PdfController(PdfGenerationService pdfService, SpillBufferFactory spillBufferFactory,
+                         BatchGenerationService batchService, PdfMergeService mergeService) {
         this.pdfService = pdfService;
+        this.spillBufferFactory = spillBufferFactory;
+        this.batchService = batchService;
+        this.mergeService = mergeService;
     }
 
     /**
@@ -55,9 +77,158 @@ public class PdfController {
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage().getBytes(), HttpStatus.BAD_REQUEST);
 
+        } catch (CapacityExceededException e) {
+            return tooManyRequests(e);
+
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Endpoint para generar el PDF en modo streaming.
+     * El PDF se genera completo en un buffer (memoria hasta un umbral y archivo temporal
+     * a partir de él) y luego se copia a la respuesta, de modo que un error de generación
+     * produce un 500 limpio en lugar de una descarga truncada.
+     *
+     * @param request El DTO (GenerationRequest) mapeado desde el JSON del body.
+     * @return ResponseEntity con el cuerpo en streaming o un ResponseEntity de error.
+     */
+    @PostMapping("/generatePDF/stream")
+    public ResponseEntity<?> streamDocument(@RequestBody GenerationRequest request) {
+        SpillBuffer buffer = spillBufferFactory.create();
+        try {
+            pdfService.generatePdf(request, buffer.outputStream());
+        } catch (IllegalArgumentException e) {
+            closeQuietly(buffer);
+            return new ResponseEntity<>(e.getMessage().getBytes(), HttpStatus.BAD_REQUEST);
+        } catch (CapacityExceededException e) {
+            closeQuietly(buffer);
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            closeQuietly(buffer);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentLength(buffer.size());
+        headers.setContentDispositionFormData("attachment", request.getTemplateType() + "_generado.pdf");
+
+        StreamingResponseBody body = outputStream -> {
+            try (buffer) {
+                buffer.writeTo(outputStream);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Endpoint para combinar un lote de registros de una misma plantilla en un único PDF.
+     * Igual que en {@link #streamDocument}, el documento se genera completo en un buffer
+     * antes de responder. Cada registro pasa por el bulkhead de renders: si está saturado
+     * se responde 429 con {@code Retry-After}.
+     *
+     * @param request El DTO con la plantilla y la lista de registros.
+     * @return ResponseEntity con el PDF combinado en streaming o un ResponseEntity de error.
+     */
+    @PostMapping("/generatePDF/merge")
+    public ResponseEntity<?> mergeDocuments(@RequestBody BatchGenerationRequest request) {
+        List<Map<String, Object>> records = request.getData() != null ? request.getData() : List.of();
+        SpillBuffer buffer = spillBufferFactory.create();
+        try {
+            mergeService.mergeTo(request.getTemplateType(), records.iterator(), buffer.outputStream());
+        } catch (IllegalArgumentException e) {
+            closeQuietly(buffer);
+            return new ResponseEntity<>(e.getMessage().getBytes(), HttpStatus.BAD_REQUEST);
+        } catch (CapacityExceededException e) {
+            closeQuietly(buffer);
+            return tooManyRequests(e);
+        } catch (Exception e) {
+            closeQuietly(buffer);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentLength(buffer.size());
+        headers.setContentDispositionFormData("attachment", request.getTemplateType() + "_combinado.pdf");
+
+        StreamingResponseBody body = outputStream -> {
+            try (buffer) {
+                buffer.writeTo(outputStream);
+            }
+        };
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Endpoint para generar un lote de PDFs de una misma plantilla.
+     * Devuelve un ZIP en streaming con un PDF por registro, en el orden en que terminan.
+     *
+     * @param request El DTO con la plantilla y la lista de registros.
+     * @return ResponseEntity con el ZIP en streaming o un ResponseEntity de error.
+     */
+    @PostMapping(value = "/generatePDF/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> generateBatch(@RequestBody BatchGenerationRequest request) {
+        List<Map<String, Object>> records = request.getData();
+        if (records == null || records.isEmpty()) {
+            return new ResponseEntity<>("La lista de registros (data) no puede estar vacía.".getBytes(), HttpStatus.BAD_REQUEST);
+        }
+        return batchResponse(request.getTemplateType(), () -> records.iterator());
+    }
+
+    /**
+     * Variante NDJSON del endpoint por lotes: un registro JSON por línea en el body.
+     * Los registros se leen a medida que se procesan, por lo que el tamaño del lote no
+     * está limitado por la memoria.
+     *
+     * @param templateType Nombre de la plantilla.
+     * @param httpRequest Petición cuyo body contiene los registros.
+     * @return ResponseEntity con el ZIP en streaming o un ResponseEntity de error.
+     */
+    @PostMapping(value = "/generatePDF/batch", consumes = "application/x-ndjson")
+    public ResponseEntity<?> generateBatchNdjson(@RequestParam String templateType, HttpServletRequest httpRequest) {
+        return batchResponse(templateType, () -> batchService.readRecords(httpRequest.getInputStream()));
+    }
+
+    private ResponseEntity<?> batchResponse(String templateType, RecordSource records) {
+        Template template;
+        try {
+            template = batchService.prepare(templateType);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage().getBytes(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", templateType + "_lote.zip");
+
+        StreamingResponseBody body = outputStream -> batchService.writeZip(template, records.open(), outputStream);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Origen perezoso de los registros de un lote.
+     */
+    @FunctionalInterface
+    private interface RecordSource {
+        Iterator<Map<String, Object>> open() throws IOException;
+    }
+
+    private static ResponseEntity<?> tooManyRequests(CapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage().getBytes());
+    }
+
+    private static void closeQuietly(SpillBuffer buffer) {
+        try {
+            buffer.close();
+        } catch (IOException ignored) {
+            // La respuesta de error ya está decidida; no hay nada más que liberar.
+        }
     }
-    
 }
@@ -1,25 +1,41 @@
 package com.example.dinadocs.controllers;
 
 import com.example.dinadocs.models.Template;
-import com.example.dinadocs.models.User;
+import com.example.dinadocs.models.TemplateSummary;
+import com.example.dinadocs.models.TemplateSummaryPage;
+import com.example.dinadocs.security.UserPrincipal;
 import com.example.dinadocs.services.TemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.nio.file.AccessDeniedException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Controlador (API REST Endpoints) para el CRUD de Plantillas.
  * Actúa como interfaz HTTP y delega toda la lógica al TemplateService.
  *
+ * <p>Las lecturas (listado, resúmenes y plantilla por id) devuelven un {@code ETag}. Con
+ * {@code If-None-Match} se compara primero el ETag, calculado solo con las versiones, y si
+ * coincide se responde 304 sin cargar las plantillas ni serializarlas.
+ *
  */
 @RestController
 @RequestMapping("/api/templates")
 public class TemplateController {
 
+    /** El cliente puede guardar la respuesta, pero debe revalidarla con el ETag antes de usarla. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private TemplateService templateService;
 
@@ -29,10 +45,14 @@ public class TemplateController {
      *
      */
     @PostMapping
-    public ResponseEntity<Template> createTemplate(@RequestBody Template template,
-                                                   @AuthenticationPrincipal User authUser) {
-        Template newTemplate = templateService.save(template, authUser);
-        return new ResponseEntity<>(newTemplate, HttpStatus.CREATED);
+    public ResponseEntity<?> createTemplate(@RequestBody Template template,
+                                            @AuthenticationPrincipal UserPrincipal authUser) {
+        try {
+            Template newTemplate = templateService.save(template, authUser);
+            return new ResponseEntity<>(newTemplate, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
     }
 
     /**
@@ -41,9 +61,77 @@ public class TemplateController {
      *
      */
     @GetMapping
-    public ResponseEntity<List<Template>> getAllTemplates(@AuthenticationPrincipal User authUser) {
+    public ResponseEntity<List<Template>> getAllTemplates(@AuthenticationPrincipal UserPrincipal authUser,
+                                                          WebRequest request) {
+        String etag = templateService.listETag(authUser);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
         List<Template> templates = templateService.findAllByRole(authUser);
-        return ResponseEntity.ok(templates);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(templates);
+    }
+
+    /**
+     * Endpoint para listar resúmenes de plantillas (filtradas por rol), paginados por cursor.
+     * GET /api/templates/summaries?after={id}&limit={n}&fields=id,name
+     * El contenido completo solo se obtiene con GET /api/templates/{id}.
+     *
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<?> getTemplateSummaries(@RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String fields,
+                                                  @AuthenticationPrincipal UserPrincipal authUser,
+                                                  WebRequest request) {
+        try {
+            Set<String> selected = parseFields(fields);
+            int pageSize = TemplateService.pageSize(limit);
+            String etag = summariesETag(templateService.listETag(authUser), after, pageSize, selected);
+            if (request.checkNotModified(etag)) {
+                return notModified(etag);
+            }
+            TemplateSummaryPage page = templateService.findSummaries(authUser, after, limit);
+            if (selected != null) {
+                page.setItems(page.getItems().stream()
+                        .map(item -> ((TemplateSummary) item).select(selected))
+                        .toList());
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(page);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * ETag de una página de resúmenes: el del listado más el cursor, el tamaño de página y
+     * los campos, normalizados para que peticiones equivalentes compartan ETag y páginas o
+     * selecciones distintas no.
+     */
+    private static String summariesETag(String listETag, Long after, int pageSize, Set<String> selected) {
+        String selection = selected == null ? "all" : TemplateSummary.FIELDS.stream()
+                .filter(selected::contains)
+                .collect(Collectors.joining("."));
+        return listETag + "-a" + (after != null ? after : 0L) + "-n" + pageSize + "-f" + selection;
+    }
+
+    /**
+     * Campos pedidos en {@code ?fields=} (null si no se indica, para devolver todos).
+     */
+    private static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String field : selected) {
+            if (!TemplateSummary.FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Campo desconocido: " + field + ". Campos válidos: "
+                        + String.join(",", TemplateSummary.FIELDS));
+            }
+        }
+        return selected;
     }
 
     /**
@@ -53,10 +141,18 @@ public class TemplateController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<?> getTemplateById(@PathVariable Long id,
-                                             @AuthenticationPrincipal User authUser) {
+                                             @AuthenticationPrincipal UserPrincipal authUser,
+                                             WebRequest request) {
         try {
+            Optional<String> etag = templateService.findETag(id, authUser);
+            if (etag.isPresent() && request.checkNotModified(etag.get())) {
+                return notModified(etag.get());
+            }
             Template template = templateService.findById(id, authUser);
-            return ResponseEntity.ok(template);
+            return ResponseEntity.ok()
+                    .eTag(TemplateService.etagOf(template.getId(), template.getVersion()))
+                    .cacheControl(REVALIDATE)
+                    .body(template);
         } catch (AccessDeniedException e) {
             return new ResponseEntity<>("Acceso denegado", HttpStatus.FORBIDDEN);
         } catch (RuntimeException e) {
@@ -64,6 +160,13 @@ public class TemplateController {
         }
     }
 
+    /**
+     * Respuesta 304 sin cuerpo para un GET condicional cuyo ETag sigue vigente.
+     */
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
     /**
      * Endpoint para actualizar una plantilla existente.
      * PUT /api/templates/{id}
@@ -72,12 +175,14 @@ public class TemplateController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateTemplate(@PathVariable Long id,
                                             @RequestBody Template templateDetails,
-                                            @AuthenticationPrincipal User authUser) {
+                                            @AuthenticationPrincipal UserPrincipal authUser) {
         try {
             Template updatedTemplate = templateService.update(id, templateDetails, authUser);
             return ResponseEntity.ok(updatedTemplate);
         } catch (AccessDeniedException e) {
             return new ResponseEntity<>("Acceso denegado", HttpStatus.FORBIDDEN);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
         }
@@ -90,8 +195,7 @@ public class TemplateController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteTemplate(@PathVariable Long id,
-                                            @AuthenticationPrincipal User authUser) {
-        System.out.println("Usuario autenticado: " + authUser);
+                                            @AuthenticationPrincipal UserPrincipal authUser) {
         try {
             templateService.delete(id, authUser);
             return ResponseEntity.noContent().build();
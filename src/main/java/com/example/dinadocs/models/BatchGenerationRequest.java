@@ -0,0 +1,30 @@
+package com.example.dinadocs.models;
+
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para la generación por lotes: una plantilla y varios registros de datos.
+ * Cada elemento de 'data' produce un PDF independiente.
+ *
+ * @see com.example.dinadocs.services.BatchGenerationService
+ */
+@Data
+@NoArgsConstructor
+public class BatchGenerationRequest {
+
+    /**
+     * El nombre de la plantilla a utilizar para todos los registros.
+     * @see com.example.dinadocs.models.Template#name
+     */
+    private String templateType;
+
+    /**
+     * Lista de registros; cada uno tiene la misma forma que
+     * {@link GenerationRequest#getData()}.
+     */
+    private List<Map<String, Object>> data;
+
+}
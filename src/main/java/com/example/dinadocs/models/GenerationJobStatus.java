@@ -0,0 +1,49 @@
+package com.example.dinadocs.models;
+
+import java.time.Instant;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el estado de un trabajo de generación asíncrona, tal como se devuelve
+ * al consultar {@code /api/jobs/{id}}.
+ *
+ * @see com.example.dinadocs.services.GenerationJobService
+ */
+@Data
+@NoArgsConstructor
+public class GenerationJobStatus {
+
+    private String id;
+
+    private String templateType;
+
+    private JobStatus status;
+
+    private Instant submittedAt;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    /**
+     * Milisegundos que el trabajo pasó en la cola (null si aún no empieza).
+     */
+    private Long queuedMillis;
+
+    /**
+     * Milisegundos de renderizado (null si aún no termina).
+     */
+    private Long renderMillis;
+
+    /**
+     * Tamaño del PDF generado en bytes (solo en estado DONE).
+     */
+    private Long sizeBytes;
+
+    /**
+     * Mensaje de error (solo en estado FAILED).
+     */
+    private String error;
+
+}
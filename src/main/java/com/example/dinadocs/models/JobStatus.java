@@ -0,0 +1,13 @@
+package com.example.dinadocs.models;
+
+/**
+ * Estados de un trabajo de generación asíncrona.
+ *
+ * @see com.example.dinadocs.services.GenerationJobService
+ */
+public enum JobStatus {
+    QUEUED,   // En la cola, esperando un hilo libre
+    RUNNING,  // Renderizándose
+    DONE,     // PDF disponible para descarga
+    FAILED    // Terminó con error (ver 'error')
+}
@@ -0,0 +1,145 @@
+package com.example.dinadocs.models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estructura de los placeholders de una plantilla, calculada una vez al guardarla.
+ *
+ * <p>Cada nodo tiene las variables que se leen en su ámbito ({@code {{nombre}}}), las
+ * secciones que abren un ámbito nuevo ({@code {{#conceptos}}...{{/conceptos}}}, con sus
+ * propias variables anidadas), las secciones invertidas ({@code {{^conceptos}}}), que
+ * no exigen datos, y los parciales incluidos. Se persiste como JSON junto a la
+ * {@link Template} y se devuelve en las respuestas de plantillas, de modo que la
+ * validación y los clientes la leen sin volver a analizar el contenido.
+ *
+ * @see com.example.dinadocs.services.TemplateAnalyzer
+ * @see PlaceholderSchemaConverter
+ */
+@Data
+@NoArgsConstructor
+public class PlaceholderSchema {
+
+    /** Variables leídas en este ámbito. */
+    private Set<String> fields = new LinkedHashSet<>();
+
+    /** Secciones que abren un ámbito nuevo, con su propia estructura. */
+    private Map<String, PlaceholderSchema> sections = new LinkedHashMap<>();
+
+    /** Secciones invertidas; su contenido se evalúa en este mismo ámbito. */
+    private Set<String> invertedSections = new LinkedHashSet<>();
+
+    /** Parciales ({@code {{> nombre}}}) que incluye la plantilla. */
+    private Set<String> partials = new LinkedHashSet<>();
+
+    /**
+     * Lista plana de los datos que admite la plantilla: variables, secciones y, con la
+     * notación {@code seccion.campo}, las variables de cada sección.
+     *
+     * @return Nombres en el orden en que aparecen en la estructura.
+     */
+    public List<String> flatten() {
+        Set<String> names = new LinkedHashSet<>();
+        flattenInto("", names);
+        return new ArrayList<>(names);
+    }
+
+    private void flattenInto(String prefix, Set<String> names) {
+        fields.forEach(field -> names.add(prefix + field));
+        invertedSections.forEach(section -> names.add(prefix + section));
+        sections.forEach((name, child) -> {
+            names.add(prefix + name);
+            child.flattenInto(prefix + name + ".", names);
+        });
+    }
+
+    /**
+     * Recorre los datos una sola vez y devuelve los placeholders sin valor.
+     * Igual que Mustache, una variable que no está en el ámbito de la sección se busca
+     * en los ámbitos exteriores. Los elementos de una lista se indican con {@code []}
+     * (p. ej. {@code conceptos[].precio}) y cada ruta aparece una sola vez aunque falte
+     * en varias filas.
+     *
+     * @param data Los datos proporcionados por el usuario.
+     * @return Rutas de los placeholders ausentes o nulos, en orden de aparición.
+     */
+    public Set<String> findMissing(Map<String, Object> data) {
+        Set<String> missing = new LinkedHashSet<>();
+        Deque<Map<?, ?>> scopes = new ArrayDeque<>();
+        scopes.push(data);
+        collectMissing(scopes, "", missing);
+        return missing;
+    }
+
+    private void collectMissing(Deque<Map<?, ?>> scopes, String prefix, Set<String> missing) {
+        for (String field : fields) {
+            if (resolve(scopes, field) == null) {
+                missing.add(prefix + field);
+            }
+        }
+        for (Map.Entry<String, PlaceholderSchema> section : sections.entrySet()) {
+            String name = section.getKey();
+            PlaceholderSchema child = section.getValue();
+            Object value = resolve(scopes, name);
+            if (value == null) {
+                missing.add(prefix + name);
+            } else if (value instanceof Collection<?> items) {
+                String itemPrefix = prefix + name + "[].";
+                for (Object item : items) {
+                    child.collectIn(scopes, item, itemPrefix, missing);
+                }
+            } else if (!Boolean.FALSE.equals(value)) {
+                child.collectIn(scopes, value, prefix + name + ".", missing);
+            }
+        }
+    }
+
+    private void collectIn(Deque<Map<?, ?>> scopes, Object context, String prefix, Set<String> missing) {
+        if (context instanceof Map<?, ?> map) {
+            scopes.push(map);
+            try {
+                collectMissing(scopes, prefix, missing);
+            } finally {
+                scopes.pop();
+            }
+        } else {
+            collectMissing(scopes, prefix, missing);
+        }
+    }
+
+    /**
+     * Busca un nombre (con puntos si es compuesto) desde el ámbito más interno hacia fuera.
+     */
+    private static Object resolve(Deque<Map<?, ?>> scopes, String name) {
+        int dot = name.indexOf('.');
+        String head = dot < 0 ? name : name.substring(0, dot);
+        for (Map<?, ?> scope : scopes) {
+            Object value = scope.get(head);
+            if (value != null) {
+                return dot < 0 ? value : navigate(value, name.substring(dot + 1));
+            }
+        }
+        return null;
+    }
+
+    private static Object navigate(Object value, String path) {
+        Object current = value;
+        for (String key : path.split("\\.")) {
+            if (!(current instanceof Map<?, ?> map)) {
+                return null;
+            }
+            current = map.get(key);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.dinadocs.models;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte el {@link PlaceholderSchema} de una plantilla a JSON para guardarlo en una
+ * sola columna, sin tablas adicionales ni consultas extra al cargar la plantilla.
+ */
+@Converter
+public class PlaceholderSchemaConverter implements AttributeConverter<PlaceholderSchema, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public String convertToDatabaseColumn(PlaceholderSchema schema) {
+        if (schema == null) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(schema);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la estructura de placeholders", e);
+        }
+    }
+
+    @Override
+    public PlaceholderSchema convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, PlaceholderSchema.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la estructura de placeholders", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.dinadocs.models;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entidad JPA de un token JWT revocado (logout).
+ * Se guarda en base de datos para que todos los nodos conozcan la revocación; deja de
+ * tener sentido, y se elimina, cuando el token caduca.
+ *
+ */
+@Entity
+@Table(name = "tokens_revocados", indexes = {
+        @Index(name = "idx_tokens_revocados_revoked_at", columnList = "revokedAt"),
+        @Index(name = "idx_tokens_revocados_expires_at", columnList = "expiresAt")
+})
+public class RevokedToken {
+
+    /** Identificador del token ({@code jti}, o hash del token si no tiene). */
+    @Id
+    @Column(length = 64)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false)
+    private Instant revokedAt;
+
+    public RevokedToken() {
+
+    }
+
+    public RevokedToken(String tokenId, Instant expiresAt, Instant revokedAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.dinadocs.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.util.List;
 
 /**
@@ -33,14 +34,35 @@ public class Template {
 
     /**
      * Lista de identificadores (placeholders) que la plantilla requiere
-     * para ser completada (ej. "nombre_cliente", "fecha").
+     * para ser completada (ej. "nombre_cliente", "fecha", "conceptos.precio").
+     * Se deriva de {@link #placeholderSchema}.
+     * Las consultas del repositorio la cargan con un entity graph; si se accede a ella
+     * desde otra lista, se inicializa por lotes en lugar de una consulta por plantilla.
      *
      */
     @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "template_placeholders", joinColumns = @JoinColumn(name = "template_id"))
     @Column(name = "placeholder")
     private List<String> placeholders;
 
+    /**
+     * Estructura de los placeholders (variables, secciones y secciones invertidas),
+     * calculada al guardar la plantilla y persistida como JSON.
+     *
+     */
+    @Convert(converter = PlaceholderSchemaConverter.class)
+    @Column(name = "placeholder_schema", columnDefinition = "TEXT")
+    private PlaceholderSchema placeholderSchema;
+
+    /**
+     * Versión de la plantilla (bloqueo optimista). Hibernate la incrementa con cada
+     * modificación, también de los placeholders; de ella sale el ETag de la plantilla.
+     */
+    @JsonIgnore
+    @Version
+    private Long version;
+
     public Template() {
 
     }
@@ -81,4 +103,16 @@ public class Template {
     public void setPlaceholders(List<String> placeholders) {
         this.placeholders = placeholders;
     }
+    public PlaceholderSchema getPlaceholderSchema() {
+        return placeholderSchema;
+    }
+    public void setPlaceholderSchema(PlaceholderSchema placeholderSchema) {
+        this.placeholderSchema = placeholderSchema;
+    }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.dinadocs.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DTO con el resumen de una plantilla para el listado ({@code /api/templates/summaries}):
+ * sin el contenido HTML, la lista de placeholders ni el propietario completo.
+ * Se obtiene directamente con una proyección JPQL.
+ *
+ * @see com.example.dinadocs.repositories.TemplateRepository#findSummaries
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateSummary {
+
+    /** Campos que admite {@code ?fields=}, con el nombre con que se serializan. */
+    public static final List<String> FIELDS = List.of("id", "name", "public", "ownerId", "placeholderCount");
+
+    private Long id;
+
+    private String name;
+
+    private boolean isPublic;
+
+    /**
+     * Id del propietario (null en plantillas sin propietario).
+     */
+    private Long ownerId;
+
+    private int placeholderCount;
+
+    /**
+     * Solo los campos pedidos, en el orden de {@link #FIELDS}.
+     *
+     * @param fields Campos a incluir (nombres de {@link #FIELDS}).
+     * @return Mapa campo → valor, listo para serializar.
+     */
+    public Map<String, Object> select(Set<String> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        if (fields.contains("id")) selected.put("id", id);
+        if (fields.contains("name")) selected.put("name", name);
+        if (fields.contains("public")) selected.put("public", isPublic);
+        if (fields.contains("ownerId")) selected.put("ownerId", ownerId);
+        if (fields.contains("placeholderCount")) selected.put("placeholderCount", placeholderCount);
+        return selected;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.dinadocs.models;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con una página del listado de plantillas.
+ *
+ * <p>La paginación es por cursor (keyset): {@code nextCursor} es el id de la última
+ * plantilla de la página y se pasa como {@code ?after=} para pedir la siguiente; es null
+ * en la última página. A diferencia de un offset, el coste de cada página no crece con
+ * su posición y las altas o bajas entre páginas no repiten ni saltan plantillas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateSummaryPage {
+
+    /**
+     * {@link TemplateSummary} completos o, con {@code ?fields=}, mapas con los campos pedidos.
+     */
+    private List<?> items;
+
+    private Long nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.example.dinadocs.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con lo mínimo de una plantilla para resolver un GET condicional: versión y datos
+ * de acceso, sin contenido ni placeholders.
+ *
+ * @see com.example.dinadocs.services.TemplateService#findETag
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateVersion {
+
+    private Long id;
+
+    private Long version;
+
+    private boolean isPublic;
+
+    private Long ownerId;
+}
@@ -1,5 +1,7 @@
 package com.example.dinadocs.models;
 
+import com.example.dinadocs.security.UserCacheListener;
+import com.example.dinadocs.security.UserPrincipal;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.util.List;
@@ -8,10 +10,14 @@ import java.util.List;
  * Entidad JPA que representa a un usuario del sistema.
  * Se identifica principalmente por su correo electrónico.
  *
+ * <p>Cambiar el rol o la contraseña incrementa {@code tokenVersion}, con lo que los
+ * tokens emitidos antes del cambio dejan de aceptarse.
+ *
  */
 @Entity
 @Table(name = "usuarios")
-public class User {
+@EntityListeners(UserCacheListener.class)
+public class User implements UserPrincipal {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +36,10 @@ public class User {
     @Column(nullable = false)
     private Role role;
 
+    @JsonIgnore
+    @Column(nullable = false)
+    private int tokenVersion;
+
     @JsonIgnore
     @OneToMany(mappedBy = "owner", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Template> templates;
@@ -56,14 +66,36 @@ public class User {
         return password;
     }
     public void setPassword(String password) {
+        if (this.password != null && !this.password.equals(password)) {
+            tokenVersion++;
+        }
         this.password = password;
     }
+    /**
+     * Sustituye el hash de la contraseña por otro de la misma contraseña (p. ej. con otro
+     * coste BCrypt). A diferencia de {@link #setPassword(String)}, no cambia la versión de
+     * tokens: las sesiones abiertas siguen siendo válidas.
+     *
+     * @param encodedPassword Nuevo hash de la contraseña actual.
+     */
+    public void rehashPassword(String encodedPassword) {
+        this.password = encodedPassword;
+    }
     public Role getRole() {
         return role;
     }
     public void setRole(Role role) {
+        if (this.role != null && this.role != role) {
+            tokenVersion++;
+        }
         this.role = role;
     }
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
     public List<Template> getTemplates() {
         return templates;
     }
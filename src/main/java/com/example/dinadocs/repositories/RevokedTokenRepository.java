@@ -0,0 +1,35 @@
+package com.example.dinadocs.repositories;
+
+import com.example.dinadocs.models.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repositorio de acceso a datos para la entidad RevokedToken.
+ * Cada nodo lo consulta periódicamente para conocer las revocaciones de los demás.
+ *
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    /**
+     * Revocaciones registradas después de un instante y aún vigentes.
+     *
+     */
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Instant revokedAfter, Instant now);
+
+    /**
+     * Elimina las revocaciones de tokens ya caducados.
+     *
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,8 +1,14 @@
 package com.example.dinadocs.repositories;
 
 import com.example.dinadocs.models.Template;
+import com.example.dinadocs.models.TemplateSummary;
+import com.example.dinadocs.models.TemplateVersion;
 import com.example.dinadocs.models.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +17,11 @@ import java.util.Optional;
  * Repositorio (Capa de Acceso a Datos) para la entidad Template.
  * Provee métodos CRUD y consultas personalizadas definidas en la especificación.
  *
+ * <p>Las lecturas de entidades cargan los placeholders en la misma consulta (entity graph
+ * {@code placeholders}), de modo que una lista de N plantillas cuesta una sola consulta en
+ * lugar de 1 + N. El propietario no se carga: solo se usa su id, que está en la propia fila.
+ * Los presupuestos de consultas se comprueban en {@code TemplateQueryBudgetTest}.
+ *
  */
 @Repository
 public interface TemplateRepository extends JpaRepository<Template, Long> {
@@ -19,18 +30,66 @@ public interface TemplateRepository extends JpaRepository<Template, Long> {
      * Método Custom: Busca una plantilla por su nombre.
      *
      */
+    @EntityGraph(attributePaths = "placeholders")
     Optional<Template> findByName(String name);
 
+    @Override
+    @EntityGraph(attributePaths = "placeholders")
+    Optional<Template> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "placeholders")
+    List<Template> findAll();
+
     /**
      * Método Custom: Lista las plantillas públicas O las que pertenecen al usuario.
      * Esta es la consulta clave para la lógica de Nivel 2.
      *
      */
+    @EntityGraph(attributePaths = "placeholders")
     List<Template> findByIsPublicTrueOrOwner(User user);
 
     /**
      * Busca solo las plantillas que son públicas.
      * (metodo TEMPORAL para probar plantillas sin iniciar sesion con un usuario valido)
      */
+    @EntityGraph(attributePaths = "placeholders")
     List<Template> findByIsPublicTrue();
+
+    /**
+     * Página de resúmenes de plantillas con id mayor que {@code afterId}, ordenada por id,
+     * en una sola consulta (el número de placeholders es una subconsulta, sin cargar la
+     * colección ni el contenido).
+     * Con {@code includeAll} devuelve todas; si no, las públicas y las de {@code ownerId}.
+     *
+     */
+    @Query("select new com.example.dinadocs.models.TemplateSummary("
+            + "t.id, t.name, t.isPublic, o.id, size(t.placeholders)) "
+            + "from Template t left join t.owner o "
+            + "where t.id > :afterId "
+            + "and (:includeAll = true or t.isPublic = true or o.id = :ownerId) "
+            + "order by t.id")
+    List<TemplateSummary> findSummaries(@Param("afterId") long afterId,
+                                        @Param("includeAll") boolean includeAll,
+                                        @Param("ownerId") Long ownerId,
+                                        Limit limit);
+
+    /**
+     * Versión y datos de acceso de una plantilla, sin cargar la entidad.
+     * Utilizado para responder GET condicionales (If-None-Match).
+     */
+    @Query("select new com.example.dinadocs.models.TemplateVersion(t.id, t.version, t.isPublic, o.id) "
+            + "from Template t left join t.owner o where t.id = :id")
+    Optional<TemplateVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Huella del conjunto de plantillas visibles (con los mismos filtros que
+     * {@link #findSummaries}): número, id máximo, suma de ids y suma de versiones.
+     * Cambia al crear, modificar o eliminar cualquiera de ellas.
+     */
+    @Query("select concat(str(count(t)), ':', str(coalesce(max(t.id), 0)), ':', "
+            + "str(coalesce(sum(t.id), 0)), ':', str(coalesce(sum(t.version), 0))) "
+            + "from Template t left join t.owner o "
+            + "where (:includeAll = true or t.isPublic = true or o.id = :ownerId)")
+    String findListVersion(@Param("includeAll") boolean includeAll, @Param("ownerId") Long ownerId);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.example.dinadocs.repositories;
 
 import com.example.dinadocs.models.User;
+import com.example.dinadocs.security.AuthenticatedUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
@@ -19,4 +22,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      *
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Lee solo los datos del principal (id, email, rol y versión de tokens), sin cargar
+     * la entidad ni el hash de la contraseña.
+     * Utilizado por JwtFilter para comprobar la versión de los tokens del usuario.
+     *
+     */
+    @Query("select new com.example.dinadocs.security.AuthenticatedUser(u.id, u.email, u.role, u.tokenVersion) "
+            + "from User u where u.id = :id")
+    Optional<AuthenticatedUser> findPrincipalById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.dinadocs.security;
+
+import com.example.dinadocs.models.Role;
+
+/**
+ * Principal ligero de las peticiones autenticadas con JWT. Es inmutable, así que se puede
+ * compartir entre peticiones y guardar en cachés sin copiarlo.
+ *
+ * @param id Id del usuario (claim {@code uid}).
+ * @param email Email del usuario (claim {@code sub}).
+ * @param role Rol del usuario (claim {@code role}).
+ * @param tokenVersion Versión de los tokens del usuario (claim {@code ver}).
+ */
+public record AuthenticatedUser(Long id, String email, Role role, int tokenVersion) implements UserPrincipal {
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getEmail() {
+        return email;
+    }
+
+    @Override
+    public Role getRole() {
+        return role;
+    }
+
+    @Override
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
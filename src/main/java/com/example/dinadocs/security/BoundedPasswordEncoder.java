@@ -0,0 +1,200 @@
+package com.example.dinadocs.security;
+
+import com.example.dinadocs.services.CapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link PasswordEncoder} BCrypt que ejecuta el cálculo de los hashes en un pool propio.
+ *
+ * <p>Cada hash cuesta decenas de milisegundos de CPU; ejecutado en los hilos de Tomcat,
+ * una avalancha de logins ocupa todos los núcleos y deja sin CPU a la generación de PDF.
+ * Aquí el trabajo pasa a {@code threads} hilos dedicados con una cola acotada: si la cola
+ * está llena, o el hash sigue en cola pasados {@code maxWaitMillis}, la petición se rechaza
+ * con {@link CapacityExceededException} (HTTP 429 con {@code Retry-After}) y el hash se
+ * descarta sin llegar a calcularse.
+ *
+ * <p>La espera máxima solo se aplica mientras el hash está en cola: BCrypt no atiende
+ * interrupciones, así que un hash que ya ha empezado se termina y la petición lo espera.
+ * Rechazarla entonces dejaría el hilo ocupado en un trabajo que nadie va a usar.
+ *
+ * <p>El coste (strength) es configurable. {@link #upgradeEncoding(String)} indica si un hash
+ * se calculó con un coste distinto del actual (mayor o menor), para que el login lo
+ * recalcule con la contraseña ya verificada.
+ *
+ * @see com.example.dinadocs.config.SecurityConfiguration#passwordEncoder
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final int threads;
+    private final long maxWaitMillis;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong completedHashes = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+
+    private Counter rejections;
+    private Timer hashTimer;
+
+    /**
+     * @param strength Coste BCrypt (log2 de las rondas, entre 4 y 31).
+     * @param threads Hilos dedicados al cálculo de hashes.
+     * @param queueCapacity Cálculos que pueden esperar en cola antes de rechazar nuevos.
+     * @param maxWaitMillis Espera máxima de una petición con su hash en cola.
+     */
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long maxWaitMillis) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.threads = threads;
+        this.maxWaitMillis = maxWaitMillis;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * @param encodedPassword Hash guardado.
+     * @return true si el hash es BCrypt con un coste distinto del configurado.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> T execute(Callable<T> hashing) {
+        // Lo reclama el primero: el hilo del pool al empezar el hash o la petición al rendirse.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                long start = System.nanoTime();
+                try {
+                    return hashing.call();
+                } finally {
+                    long nanos = System.nanoTime() - start;
+                    completedHashes.incrementAndGet();
+                    totalHashNanos.addAndGet(nanos);
+                    if (hashTimer != null) {
+                        hashTimer.record(nanos, TimeUnit.NANOSECONDS);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw reject();
+        }
+
+        try {
+            try {
+                return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    // Seguía en cola: se retira y no llega a calcularse.
+                    future.cancel(false);
+                    executor.remove((Runnable) future);
+                    throw reject();
+                }
+                // Ya se está calculando: se espera a que termine.
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw reject();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error al calcular el hash de la contraseña", e.getCause());
+        }
+    }
+
+    private CapacityExceededException reject() {
+        if (rejections != null) {
+            rejections.increment();
+        }
+        return new CapacityExceededException("Hay demasiados inicios de sesión en curso, intente de nuevo más tarde.",
+                estimateRetryAfterSeconds());
+    }
+
+    private long estimateRetryAfterSeconds() {
+        long completed = completedHashes.get();
+        long averageNanos = completed == 0 ? TimeUnit.MILLISECONDS.toNanos(100) : totalHashNanos.get() / completed;
+        long pending = executor.getQueue().size() + executor.getActiveCount();
+        return (TimeUnit.NANOSECONDS.toMillis(pending * averageNanos / threads) + 999) / 1000;
+    }
+
+    /**
+     * @return Coste BCrypt configurado.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dynadocs.auth.password.queued", this, BoundedPasswordEncoder::getQueuedCount)
+                .description("Hashes de contraseña esperando en cola")
+                .register(registry);
+        hashTimer = Timer.builder("dynadocs.auth.password.hash")
+                .tag("strength", String.valueOf(strength))
+                .description("Tiempo de CPU de cada hash o verificación BCrypt")
+                .register(registry);
+        rejections = Counter.builder("dynadocs.auth.password.rejections")
+                .description("Logins y registros rechazados por cola de hashes llena")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,18 +1,20 @@
 package com.example.dinadocs.security;
 
-import com.example.dinadocs.models.User;
 import com.example.dinadocs.repositories.UserRepository;
+import com.example.dinadocs.services.EventLogService;
+import com.example.dinadocs.services.ServerTiming;
 import com.example.dinadocs.services.TokenBlacklistService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Filtro de autenticación JWT que intercepta todas las peticiones HTTP.
@@ -21,8 +23,9 @@ import java.util.ArrayList;
  * <p>Proceso de validación:
  * <ol>
  *   <li>Extrae el token del header Authorization</li>
- *   <li>Verifica que no esté en la lista negra</li>
- *   <li>Valida la firma y extrae el usuario</li>
+ *   <li>Valida la firma y verifica que su identificador ({@code jti}) no esté revocado</li>
+ *   <li>Obtiene el usuario de los claims del token y comprueba su versión de tokens
+ *       (en la {@link PrincipalCache} o, si no está, en la BD)</li>
  *   <li>Establece la autenticación en el SecurityContext</li>
  * </ol>
  * 
@@ -38,6 +41,8 @@ public class JwtFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final TokenBlacklistService tokenBlacklistService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final EventLogService eventLog;
 
     /**
      * Constructor para inyección de dependencias.
@@ -45,11 +50,16 @@ public class JwtFilter extends OncePerRequestFilter {
      * @param jwtUtils Utilidad para validar tokens JWT.
      * @param tokenBlacklistService Servicio para verificar tokens invalidados.
      * @param userRepository Repositorio para buscar usuarios.
+     * @param principalCache Caché de la versión de tokens de cada usuario, para no consultar la BD en cada petición.
+     * @param eventLog Registro de eventos de autenticación.
      */
-    public JwtFilter(JwtUtils jwtUtils, TokenBlacklistService tokenBlacklistService, UserRepository userRepository) {
+    public JwtFilter(JwtUtils jwtUtils, TokenBlacklistService tokenBlacklistService, UserRepository userRepository,
+                     PrincipalCache principalCache, EventLogService eventLog) {
         this.jwtUtils = jwtUtils;
         this.tokenBlacklistService = tokenBlacklistService;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.eventLog = eventLog;
     }
 
     /**
@@ -70,38 +80,68 @@ public class JwtFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
+            long start = System.nanoTime();
+
+            VerifiedToken verified = jwtUtils.verify(token);
 
             // Verificar si el token está invalidado
-            if (tokenBlacklistService.isTokenInvalidated(token)) {
+            if (verified != null && tokenBlacklistService.isRevoked(verified.tokenId())) {
+                ServerTiming.record("auth", System.nanoTime() - start);
+                eventLog.info("auth.revoked-token", null, "Token invalidado");
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter().write("Token inválido o expirado");
                 return;
             }
 
-            try {
-                String username = jwtUtils.validateTokenAndGetUsername(token);
-
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    User user = userRepository.findByEmail(username).orElse(null);
-                    if (user != null) {
-                        UsernamePasswordAuthenticationToken authToken = 
-                            new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                        System.out.println("Usuario autenticado establecido en el contexto: " + user.getEmail());
-                    } else {
-                        System.out.println("Usuario no encontrado en la base de datos: " + username);
-                    }
+            if (verified == null) {
+                eventLog.warn("auth.invalid-token", null, "Token con firma inválida, mal formado o caducado");
+            } else if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserPrincipal principal = resolvePrincipal(verified);
+                if (principal != null) {
+                    UsernamePasswordAuthenticationToken authToken = 
+                        new UsernamePasswordAuthenticationToken(principal, null,
+                                List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().name())));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    eventLog.debug("auth.success", null, "Usuario autenticado establecido en el contexto");
                 }
-            } catch (Exception e) {
-                System.err.println("Error al validar el token: " + e.getMessage());
             }
+            // Validación de firma y comprobación de la versión de tokens del usuario.
+            ServerTiming.record("auth", System.nanoTime() - start);
         } else {
-            System.out.println("Solicitud sin encabezado de autorización");
+            eventLog.debug("auth.missing-header", null, "Solicitud sin encabezado de autorización");
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Obtiene el principal de los claims del token, comprobando que la versión de tokens
+     * coincide con la actual del usuario. La versión actual sale de la {@link PrincipalCache}
+     * y solo se lee de la BD (sin cargar la entidad) si no está en caché.
+     *
+     * @param verified Token ya verificado.
+     * @return El principal, o null si el token no tiene datos de usuario, el usuario ya no
+     *         existe o el token es de una versión anterior (cambio de rol o contraseña).
+     */
+    private UserPrincipal resolvePrincipal(VerifiedToken verified) {
+        AuthenticatedUser claimed = verified.user();
+        if (claimed == null) {
+            eventLog.info("auth.legacy-token", null, "Token sin datos de usuario; se requiere iniciar sesión de nuevo");
+            return null;
+        }
+        AuthenticatedUser current = principalCache.get(claimed.id(),
+                () -> userRepository.findPrincipalById(claimed.id()).orElse(null));
+        if (current == null) {
+            eventLog.warn("auth.user-not-found", null, "Usuario del token no encontrado en la base de datos");
+            return null;
+        }
+        if (current.tokenVersion() != claimed.tokenVersion()) {
+            eventLog.info("auth.stale-token", null, "Token emitido antes de un cambio de rol o contraseña");
+            return null;
+        }
+        return claimed;
+    }
+
     /**
      * Determina si este filtro debe omitirse para ciertas rutas.
      * Las rutas públicas como /login y /register no requieren autenticación.
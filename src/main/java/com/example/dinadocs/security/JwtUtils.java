@@ -1,10 +1,26 @@
 package com.example.dinadocs.security;
 
+import com.example.dinadocs.models.Role;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utilidad para la generación y validación de tokens JWT (JSON Web Tokens).
@@ -14,15 +30,31 @@ import java.util.Date;
  * <ul>
  *   <li>Tokens con firma HMAC-SHA256</li>
  *   <li>Duración de 24 horas por defecto</li>
- *   <li>Generación basada en el email del usuario</li>
+ *   <li>Generación basada en el email del usuario, con un {@code jti} único por token</li>
+ *   <li>Id, rol y versión de tokens del usuario como claims firmados ({@code uid},
+ *       {@code role}, {@code ver}), para autenticar sin leer la entidad</li>
+ *   <li>Un único parser reutilizado (es inmutable y seguro entre hilos)</li>
+ *   <li>Caché de tokens ya verificados, por hash SHA-256 del token</li>
  * </ul>
+ *
+ * <p>Un token que ya pasó la verificación de firma no vuelve a decodificarse ni a
+ * verificarse mientras siga en la caché. Cada entrada caduca como muy tarde en el
+ * {@code exp} del token (y nunca después de {@code dynadocs.jwt.verified-cache.ttl-ms}),
+ * así que un token caducado se rechaza igual que sin caché. Los tokens inválidos no se
+ * guardan. Métricas: {@code cache.gets}, {@code cache.size} con {@code cache=verifiedTokens}.
  * 
  * @author DynaDocs Team
  * @version 1.0
  * @since 2025-12-03
  */
 @Component
-public class JwtUtils {
+public class JwtUtils implements MeterBinder {
+
+    private static final String CACHE_NAME = "verifiedTokens";
+
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
 
     /** Clave secreta para firmar los tokens JWT. Debe ser suficientemente larga y compleja. */
     private static final String SECRET = "EstaEsUnaClaveSuperSecretaQueNadiePuedeAdivinar123456";
@@ -33,19 +65,74 @@ public class JwtUtils {
     /** Clave criptográfica generada a partir del secreto. */
     private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
 
+    /** Parser construido una sola vez. */
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    private final int maxCachedTokens;
+    private final long maxCacheTtlMillis;
+    private final Map<String, CachedVerification> verifiedTokens;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor con la caché de tokens verificados por defecto (1000 tokens, 5 minutos).
+     */
+    public JwtUtils() {
+        this(1000, 300_000);
+    }
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param maxCachedTokens Número máximo de tokens verificados en caché (0 la desactiva).
+     * @param maxCacheTtlMillis Tiempo máximo que se reutiliza una verificación, aunque el token dure más.
+     */
+    @Autowired
+    public JwtUtils(@Value("${dynadocs.jwt.verified-cache.max-entries:1000}") int maxCachedTokens,
+                    @Value("${dynadocs.jwt.verified-cache.ttl-ms:300000}") long maxCacheTtlMillis) {
+        this.maxCachedTokens = maxCachedTokens;
+        this.maxCacheTtlMillis = maxCacheTtlMillis;
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedVerification> eldest) {
+                return size() > JwtUtils.this.maxCachedTokens;
+            }
+        };
+    }
+
     /**
-     * Genera un nuevo token JWT para el usuario especificado.
+     * Genera un nuevo token JWT para el usuario especificado, solo con su email.
+     * {@link JwtFilter} no acepta estos tokens para autenticar: usar {@link #generateToken(UserPrincipal)}.
      * 
      * @param username Email del usuario para el cual se genera el token.
      * @return Token JWT firmado como String.
      */
     public String generateToken(String username) {
+        return builder(username).compact();
+    }
+
+    /**
+     * Genera un nuevo token JWT con los datos del usuario necesarios para autenticarlo.
+     *
+     * @param user Usuario para el cual se genera el token.
+     * @return Token JWT firmado como String.
+     */
+    public String generateToken(UserPrincipal user) {
+        return builder(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
+                .compact();
+    }
+
+    private JwtBuilder builder(String username) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(key, SignatureAlgorithm.HS256);
     }
 
     /**
@@ -55,15 +142,133 @@ public class JwtUtils {
      * @return El email del usuario si el token es válido, null si es inválido o ha expirado.
      */
     public String validateTokenAndGetUsername(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.subject() : null;
+    }
+
+    /**
+     * Verifica firma y caducidad de un token, reutilizando una verificación anterior
+     * del mismo token si sigue en la caché.
+     *
+     * @param token El token JWT a validar.
+     * @return Sujeto, id, caducidad y usuario del token; null si es inválido o ha expirado.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        if (maxCachedTokens <= 0) {
+            return parse(token, null);
+        }
+
+        long now = System.currentTimeMillis();
+        String cacheKey = hash(token);
+        CachedVerification cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(cacheKey);
+        }
+        if (cached != null) {
+            if (now < cached.reuseUntil()) {
+                hits.incrementAndGet();
+                return cached.token();
+            }
+            synchronized (verifiedTokens) {
+                verifiedTokens.remove(cacheKey);
+            }
+        }
+
+        misses.incrementAndGet();
+        VerifiedToken verified = parse(token, cacheKey);
+        if (verified == null) {
+            return null;
+        }
+        // Sin exp el token no caduca; la verificación se reutiliza como mucho el TTL máximo.
+        long reuseUntil = Math.min(now + maxCacheTtlMillis, verified.expiresAt());
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(cacheKey, new CachedVerification(verified, reuseUntil));
+        }
+        return verified;
+    }
+
+    private VerifiedToken parse(String token, String tokenHash) {
+        Claims claims;
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-        } catch (JwtException e) {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
             return null;
         }
+        String tokenId = claims.getId();
+        if (tokenId == null) {
+            // Tokens emitidos antes de incluir jti: se identifican por su hash.
+            tokenId = tokenHash != null ? tokenHash : hash(token);
+        }
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        return new VerifiedToken(claims.getSubject(), tokenId, expiresAt, user(claims));
+    }
+
+    private static AuthenticatedUser user(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        if (userId == null || role == null || tokenVersion == null) {
+            return null;
+        }
+        try {
+            return new AuthenticatedUser(userId, claims.getSubject(), Role.valueOf(role), tokenVersion);
+        } catch (IllegalArgumentException e) {
+            // Rol que ya no existe: el token no sirve para autenticar.
+            return null;
+        }
+    }
+
+    /**
+     * @return Número de tokens verificados en caché.
+     */
+    public int getCachedTokenCount() {
+        synchronized (verifiedTokens) {
+            return verifiedTokens.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Tokens JWT ya verificados servidos desde la caché")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Tokens JWT que tuvieron que verificarse")
+                .register(registry);
+        Gauge.builder("cache.size", this, JwtUtils::getCachedTokenCount)
+                .tag("cache", CACHE_NAME)
+                .description("Tokens JWT verificados en caché")
+                .register(registry);
+    }
+
+    /**
+     * Hash SHA-256 del token: la caché no retiene los tokens en claro.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Verificación en caché y momento hasta el que puede reutilizarse.
+     */
+    private record CachedVerification(VerifiedToken token, long reuseUntil) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.example.dinadocs.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché LRU con caducidad del estado actual de los usuarios autenticados, por id.
+ *
+ * <p>{@link JwtFilter} construye el principal a partir de los claims del token y la
+ * consulta solo para comprobar que la versión de tokens del usuario no ha cambiado, sin ir
+ * a la base de datos cuando el mismo usuario hace muchas peticiones seguidas. Se guarda un
+ * {@link AuthenticatedUser} (inmutable, sin contraseña ni relaciones).
+ *
+ * <p>Las entradas caducan a los {@code dynadocs.auth.principal-cache.ttl-ms} y se
+ * eliminan en cuanto el usuario se modifica o se borra ({@link UserCacheListener}), de
+ * modo que en este nodo un cambio de rol o de contraseña invalida los tokens anteriores en
+ * la siguiente petición (en otros nodos, al caducar la entrada). Expone
+ * las métricas {@code cache.gets}, {@code cache.evictions} y {@code cache.size} con
+ * {@code cache=principals}.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "principals";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param maxEntries Número máximo de usuarios en caché (0 la desactiva).
+     * @param ttlMillis Tiempo máximo que se reutiliza un usuario sin volver a leerlo.
+     */
+    public PrincipalCache(@Value("${dynadocs.auth.principal-cache.max-entries:1000}") int maxEntries,
+                          @Value("${dynadocs.auth.principal-cache.ttl-ms:60000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > PrincipalCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el estado actual del usuario con ese id, leyéndolo con {@code loader} solo
+     * si no está en caché o ha caducado. Los usuarios inexistentes no se guardan.
+     *
+     * @param userId Id del usuario (claim {@code uid} del token).
+     * @param loader Lectura del usuario en la base de datos; puede devolver null.
+     * @return El usuario, o null si no existe.
+     */
+    public AuthenticatedUser get(Long userId, Supplier<AuthenticatedUser> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+        }
+        if (entry != null && now - entry.loadedAt() < ttlNanos) {
+            hits.incrementAndGet();
+            return entry.user();
+        }
+
+        misses.incrementAndGet();
+        AuthenticatedUser user = loader.get();
+        if (user == null) {
+            return null;
+        }
+        synchronized (entries) {
+            entries.put(userId, new Entry(user, now));
+        }
+        return user;
+    }
+
+    /**
+     * Elimina de la caché un usuario.
+     *
+     * @param userId Id del usuario modificado o eliminado.
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    /**
+     * Vacía la caché.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return Número de usuarios en caché (incluidos los ya caducados aún no reemplazados).
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Usuarios autenticados servidos desde la caché")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Usuarios autenticados leídos de la base de datos")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .description("Usuarios descartados por LRU")
+                .register(registry);
+        Gauge.builder("cache.size", this, PrincipalCache::size)
+                .tag("cache", CACHE_NAME)
+                .description("Usuarios en caché")
+                .register(registry);
+    }
+
+    private record Entry(AuthenticatedUser user, long loadedAt) {
+    }
+}
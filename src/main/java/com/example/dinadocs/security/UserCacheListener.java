@@ -0,0 +1,44 @@
+package com.example.dinadocs.security;
+
+import com.example.dinadocs.models.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA de {@link User} que invalida la {@link PrincipalCache} cuando un usuario
+ * se modifica (rol, contraseña, versión de tokens) o se elimina, sea cual sea el código que lo haga.
+ *
+ * <p>Dentro de una transacción se invalida también al confirmarla, para descartar una
+ * lectura concurrente que haya vuelto a cachear el estado anterior entre el flush y el commit.
+ */
+@Component
+public class UserCacheListener {
+
+    private final PrincipalCache principalCache;
+
+    /**
+     * Constructor para inyección de dependencias (Hibernate obtiene el listener de Spring).
+     *
+     * @param principalCache Caché de usuarios autenticados.
+     */
+    public UserCacheListener(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void userChanged(User user) {
+        principalCache.invalidate(user.getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.invalidate(user.getId());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.dinadocs.security;
+
+import com.example.dinadocs.models.Role;
+
+/**
+ * Usuario autenticado tal como lo usan controladores y servicios: identidad, rol y
+ * versión de sus tokens, sin contraseña ni relaciones.
+ *
+ * <p>En las peticiones con token el principal es un {@link AuthenticatedUser} construido
+ * a partir de los claims firmados; la entidad {@link com.example.dinadocs.models.User}
+ * también lo implementa para poder usarla donde ya se tiene cargada.
+ */
+public interface UserPrincipal {
+
+    Long getId();
+
+    String getEmail();
+
+    Role getRole();
+
+    /**
+     * @return Versión de los tokens del usuario; los emitidos con otra versión no se aceptan.
+     */
+    int getTokenVersion();
+}
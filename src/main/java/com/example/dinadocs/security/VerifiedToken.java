@@ -0,0 +1,16 @@
+package com.example.dinadocs.security;
+
+/**
+ * Resultado de verificar la firma y la vigencia de un token JWT.
+ *
+ * @param subject Email del usuario (sujeto del token).
+ * @param tokenId Identificador único del token ({@code jti}); para tokens emitidos sin
+ *                {@code jti}, el hash SHA-256 del propio token.
+ * @param expiresAt Instante de caducidad ({@code exp}) en milisegundos desde epoch, o
+ *                  {@link Long#MAX_VALUE} si el token no caduca.
+ * @param user Usuario según los claims firmados ({@code uid}, {@code role}, {@code ver});
+ *             null en tokens emitidos sin ellos.
+ * @see JwtUtils#verify(String)
+ */
+public record VerifiedToken(String subject, String tokenId, long expiresAt, AuthenticatedUser user) {
+}
@@ -0,0 +1,212 @@
+package com.example.dinadocs.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Almacén local de imágenes direccionado por contenido.
+ *
+ * <p>Cada imagen se guarda una sola vez en disco con el SHA-256 de sus bytes como nombre,
+ * y las plantillas la referencian como {@code asset:<id>} (p. ej. en {@code url_logo_empresa}).
+ * Subir dos veces el mismo logo devuelve el mismo id.
+ *
+ * <p>El almacén es permanente: por defecto vive en {@code ~/.dynadocs/assets} y no en el
+ * directorio temporal, que los limpiadores del sistema o un reinicio del contenedor pueden
+ * vaciar dejando las plantillas con imágenes rotas. En producción conviene apuntarlo a un
+ * volumen persistente con {@code DYNADOCS_ASSETS_DIR}. El directorio se crea al arrancar y
+ * la aplicación no arranca si no se puede crear.
+ *
+ * <p>Además del tamaño máximo por imagen, el total de bytes guardados está acotado por
+ * {@code max-total-bytes}; superado ese total las subidas se rechazan con
+ * {@link StorageQuotaExceededException}.
+ *
+ * @see TemplateImageResolver
+ * @see com.example.dinadocs.controllers.AssetController
+ */
+@Component
+public class AssetStore {
+
+    /** Prefijo con el que las plantillas referencian un recurso del almacén. */
+    public static final String SCHEME = "asset:";
+
+    private static final Logger log = LoggerFactory.getLogger(AssetStore.class);
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxTotalBytes;
+
+    /** Bytes de las imágenes guardadas; protegido por el monitor del almacén. */
+    private long storedBytes;
+
+    /**
+     * Constructor para inyección de dependencias. Crea el directorio si no existe y
+     * cuenta lo que ya hay guardado.
+     *
+     * @param directory Directorio donde se guardan las imágenes.
+     * @param maxBytes Tamaño máximo de una imagen.
+     * @param maxTotalBytes Tamaño máximo de todas las imágenes guardadas.
+     * @throws UncheckedIOException Si el directorio no se puede crear o leer.
+     */
+    public AssetStore(@Value("${dynadocs.assets.directory:${user.home}/.dynadocs/assets}") String directory,
+                      @Value("${dynadocs.assets.max-bytes:5242880}") long maxBytes,
+                      @Value("${dynadocs.assets.max-total-bytes:1073741824}") long maxTotalBytes) {
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.maxBytes = maxBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        try {
+            Files.createDirectories(this.directory);
+            this.storedBytes = sizeOfStoredAssets(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo preparar el almacén de imágenes en '" + directory + "'", e);
+        }
+        if (this.directory.startsWith(Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath())) {
+            log.warn("El almacén de imágenes '{}' está en el directorio temporal; las imágenes pueden borrarse.",
+                    this.directory);
+        }
+    }
+
+    /**
+     * Guarda una imagen si no existía ya.
+     *
+     * @param content Bytes de la imagen (PNG, JPEG, GIF o BMP).
+     * @return Id del recurso (hash SHA-256 en hexadecimal).
+     * @throws IllegalArgumentException Si el contenido está vacío, es demasiado grande o no es una imagen soportada.
+     * @throws StorageQuotaExceededException Si guardarla superaría el total permitido.
+     * @throws IOException Si no se puede escribir en el directorio.
+     */
+    public String store(byte[] content) throws IOException {
+        if (content == null || content.length == 0) {
+            throw new IllegalArgumentException("El archivo está vacío.");
+        }
+        if (content.length > maxBytes) {
+            throw new IllegalArgumentException("La imagen supera el tamaño máximo de " + maxBytes + " bytes.");
+        }
+        if (!isSupportedImage(content)) {
+            throw new IllegalArgumentException("El archivo no es una imagen soportada (PNG, JPEG, GIF o BMP).");
+        }
+
+        String id = hash(content);
+        Path target = directory.resolve(id);
+        if (Files.exists(target)) {
+            return id;
+        }
+        // Se escribe fuera del lock; solo la comprobación de la cuota y el movimiento van dentro.
+        Path temp = Files.createTempFile(directory, id, ".tmp");
+        try {
+            Files.write(temp, content);
+            synchronized (this) {
+                if (Files.exists(target)) {
+                    return id;
+                }
+                if (storedBytes + content.length > maxTotalBytes) {
+                    throw new StorageQuotaExceededException("El almacén de imágenes está lleno ("
+                            + maxTotalBytes + " bytes).");
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                storedBytes += content.length;
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return id;
+    }
+
+    /**
+     * @return Bytes de todas las imágenes guardadas.
+     */
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    private static long sizeOfStoredAssets(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            long total = 0;
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (ID_PATTERN.matcher(file.getFileName().toString()).matches()) {
+                    total += Files.size(file);
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Lee una imagen del almacén.
+     *
+     * @param id Id devuelto por {@link #store(byte[])}.
+     * @return Los bytes de la imagen, o vacío si el id no es válido o no existe.
+     * @throws IOException Si el archivo existe pero no se puede leer.
+     */
+    public Optional<byte[]> read(String id) throws IOException {
+        if (id == null || !ID_PATTERN.matcher(id).matches()) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(id);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(Files.readAllBytes(file));
+    }
+
+    /**
+     * Detecta el tipo de imagen por sus primeros bytes.
+     *
+     * @param content Bytes de la imagen.
+     * @return El tipo MIME, o {@code application/octet-stream} si no se reconoce.
+     */
+    public static String detectContentType(byte[] content) {
+        if (startsWith(content, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(content, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(content, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(content, 'B', 'M')) {
+            return "image/bmp";
+        }
+        return "application/octet-stream";
+    }
+
+    private static boolean isSupportedImage(byte[] content) {
+        return detectContentType(content).startsWith("image/");
+    }
+
+    private static boolean startsWith(byte[] content, int... prefix) {
+        if (content.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((content[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
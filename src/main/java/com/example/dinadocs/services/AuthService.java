@@ -4,6 +4,7 @@ import com.example.dinadocs.models.Role;
 import com.example.dinadocs.models.User;
 import com.example.dinadocs.repositories.UserRepository;
 import com.example.dinadocs.security.JwtUtils;
+import com.example.dinadocs.security.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -41,6 +42,7 @@ public class AuthService {
      * @param user El usuario a registrar con sus datos básicos.
      * @return El usuario registrado con contraseña encriptada.
      * @throws RuntimeException Si el email ya está registrado.
+     * @throws CapacityExceededException Si hay demasiados hashes en curso para cifrar la contraseña.
      */
     public User register(User user) {
         if (userRepository.findByEmail(user.getEmail()).isPresent()) {
@@ -58,13 +60,15 @@ public class AuthService {
      * @param password Contraseña en texto plano.
      * @return Mapa con el token JWT y el rol del usuario.
      * @throws RuntimeException Si el usuario no existe o la contraseña es incorrecta.
+     * @throws CapacityExceededException Si hay demasiados logins en curso para verificar la contraseña.
      */
     public Map<String, Object> login(String email, String password) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
         if (passwordEncoder.matches(password, user.getPassword())) {
-            String token = jwtUtils.generateToken(email);
+            rehashIfNeeded(user, password);
+            String token = jwtUtils.generateToken(user);
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
             response.put("role", user.getRole());
@@ -75,26 +79,50 @@ public class AuthService {
     }
 
     /**
-     * Invalida un token JWT agregándolo a la lista negra.
+     * Recalcula el hash de la contraseña si se guardó con un coste BCrypt distinto del
+     * configurado. Si no hay capacidad para calcularlo, se deja para el siguiente login.
+     *
+     * @param user Usuario ya autenticado.
+     * @param password Contraseña en texto plano, ya verificada.
+     */
+    private void rehashIfNeeded(User user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.rehashPassword(passwordEncoder.encode(password));
+            userRepository.save(user);
+        } catch (CapacityExceededException e) {
+            // El login ya es válido; el hash se actualizará en otro momento.
+        }
+    }
+
+    /**
+     * Invalida un token JWT agregándolo a la lista negra hasta su caducidad.
+     * Un token que ya no es válido (firma incorrecta o caducado) no necesita revocarse.
      * 
      * @param token El token JWT a invalidar (con o sin prefijo "Bearer ").
      * @return Mensaje de confirmación.
      */
     public String logout(String token) {
         String jwt = token.replace("Bearer ", "");
-        tokenBlacklistService.invalidateToken(jwt);
+        VerifiedToken verified = jwtUtils.verify(jwt);
+        if (verified != null) {
+            tokenBlacklistService.revoke(verified.tokenId(), verified.expiresAt());
+        }
         return "Sesión cerrada correctamente";
     }
 
     /**
-     * Verifica si un token JWT es válido (no está en la lista negra).
+     * Verifica si un token JWT es válido (firma correcta, no caducado y no revocado).
      * 
      * @param token El token JWT a verificar (con o sin prefijo "Bearer ").
-     * @return true si el token es válido, false si está invalidado.
+     * @return true si el token es válido, false si no lo es o está invalidado.
      */
     public boolean isTokenValid(String token) {
         String jwt = token.replace("Bearer ", "");
-        return !tokenBlacklistService.isTokenInvalidated(jwt);
+        VerifiedToken verified = jwtUtils.verify(jwt);
+        return verified != null && !tokenBlacklistService.isRevoked(verified.tokenId());
     }
 
 }
\ No newline at end of file
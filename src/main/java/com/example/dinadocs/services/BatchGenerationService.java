@@ -0,0 +1,220 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.Template;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Servicio para generar muchos PDFs de una misma plantilla y devolverlos en un ZIP.
+ *
+ * <p>La plantilla se carga y valida una sola vez por lote (su compilación queda en
+ * {@link CompiledTemplateCache}). Los registros se renderizan en paralelo en un pool
+ * acotado y cada PDF se añade al ZIP en cuanto termina. Como mucho hay
+ * {@code 2 × hilos} registros en vuelo por lote, cada uno en un {@link SpillBuffer},
+ * por lo que la memoria no crece con el número de registros cuando éstos llegan
+ * en streaming (NDJSON).
+ *
+ * @see PdfGenerationService#renderPdfQueued
+ */
+@Service
+public class BatchGenerationService {
+
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+
+    private final PdfGenerationService pdfGenerationService;
+    private final SpillBufferFactory spillBufferFactory;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param pdfGenerationService Servicio que renderiza cada registro.
+     * @param spillBufferFactory Fábrica de buffers para los PDFs en vuelo.
+     * @param objectMapper Mapper para leer registros NDJSON.
+     * @param threads Número de hilos dedicados a la generación por lotes.
+     */
+    public BatchGenerationService(PdfGenerationService pdfGenerationService,
+                                  SpillBufferFactory spillBufferFactory,
+                                  ObjectMapper objectMapper,
+                                  @Value("${dynadocs.pdf.batch.threads:2}") int threads) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.spillBufferFactory = spillBufferFactory;
+        this.objectMapper = objectMapper;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pdf-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxInFlight = threads * 2;
+    }
+
+    /**
+     * Carga la plantilla del lote. Se llama antes de empezar a responder para que
+     * los errores de plantilla se devuelvan como un código HTTP normal.
+     *
+     * @param templateType Nombre de la plantilla.
+     * @return La plantilla cargada, lista para usarse desde los hilos del lote.
+     */
+    public Template prepare(String templateType) {
+        return pdfGenerationService.loadTemplateByType(templateType);
+    }
+
+    /**
+     * Lee registros NDJSON (un objeto JSON por línea) de forma incremental.
+     *
+     * @param ndjson Flujo de entrada con los registros.
+     * @return Iterador perezoso sobre los registros.
+     * @throws IOException Si el flujo no puede leerse.
+     */
+    public Iterator<Map<String, Object>> readRecords(InputStream ndjson) throws IOException {
+        return objectMapper.readerFor(RECORD_TYPE).readValues(ndjson);
+    }
+
+    /**
+     * Renderiza todos los registros y escribe el ZIP resultante en el flujo indicado.
+     * Los registros que fallan se reemplazan por una entrada de texto con el error.
+     *
+     * @param template Plantilla ya cargada con {@link #prepare(String)}.
+     * @param records Registros a renderizar (se consumen de forma perezosa).
+     * @param outputStream Flujo donde se escribe el ZIP.
+     * @throws IOException Si falla la escritura del ZIP.
+     */
+    public void writeZip(Template template, Iterator<Map<String, Object>> records, OutputStream outputStream)
+            throws IOException {
+        CompletionService<RecordResult> completion = new ExecutorCompletionService<>(executor);
+        String baseName = entryBaseName(template.getName());
+        int submitted = 0;
+        int inFlight = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        // Los PDFs ya vienen comprimidos; recomprimirlos solo gasta CPU.
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        try {
+            while (records.hasNext()) {
+                if (inFlight == maxInFlight) {
+                    writeEntry(zip, baseName, take(completion));
+                    inFlight--;
+                }
+                int index = ++submitted;
+                Map<String, Object> data = records.next();
+                completion.submit(() -> render(template, index, data));
+                inFlight++;
+
+                Future<RecordResult> done;
+                while ((done = completion.poll()) != null) {
+                    writeEntry(zip, baseName, get(done));
+                    inFlight--;
+                }
+            }
+            while (inFlight > 0) {
+                writeEntry(zip, baseName, take(completion));
+                inFlight--;
+            }
+            zip.finish();
+        } finally {
+            // Si el cliente se desconecta, se liberan los buffers de los registros pendientes.
+            while (inFlight > 0) {
+                try {
+                    take(completion).close();
+                } catch (IOException ignored) {
+                    // Nada más que liberar.
+                }
+                inFlight--;
+            }
+        }
+    }
+
+    private RecordResult render(Template template, int index, Map<String, Object> data) {
+        SpillBuffer buffer = spillBufferFactory.create();
+        try {
+            pdfGenerationService.renderPdfQueued(template, data, buffer.outputStream());
+            return new RecordResult(index, buffer, null);
+        } catch (RuntimeException e) {
+            try {
+                buffer.close();
+            } catch (IOException ignored) {
+                // El error original es el relevante.
+            }
+            return new RecordResult(index, null, e.getMessage());
+        }
+    }
+
+    private void writeEntry(ZipOutputStream zip, String baseName, RecordResult result) throws IOException {
+        try (result) {
+            String number = String.format("%05d", result.index());
+            if (result.buffer() != null) {
+                zip.putNextEntry(new ZipEntry(baseName + "_" + number + ".pdf"));
+                result.buffer().writeTo(zip);
+            } else {
+                zip.putNextEntry(new ZipEntry(baseName + "_" + number + "_error.txt"));
+                String message = result.error() != null ? result.error() : "Error desconocido";
+                zip.write(message.getBytes(StandardCharsets.UTF_8));
+            }
+            zip.closeEntry();
+        }
+    }
+
+    private static RecordResult take(CompletionService<RecordResult> completion) throws IOException {
+        try {
+            return get(completion.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Generación por lotes interrumpida", e);
+        }
+    }
+
+    private static RecordResult get(Future<RecordResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Generación por lotes interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error inesperado en la generación por lotes", e.getCause());
+        }
+    }
+
+    private static String entryBaseName(String templateName) {
+        return templateName.replaceAll("[^\\p{L}\\p{N}_-]+", "_");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Resultado de un registro: el PDF generado o el mensaje de error.
+     */
+    private record RecordResult(int index, SpillBuffer buffer, String error) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            if (buffer != null) {
+                buffer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dinadocs.services;
+
+/**
+ * Se lanza cuando el servidor no puede aceptar más trabajo en este momento.
+ * Los controladores la traducen a {@code 429 Too Many Requests} con la cabecera
+ * {@code Retry-After}.
+ */
+public class CapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * @param message Mensaje para el cliente.
+     * @param retryAfterSeconds Segundos sugeridos antes de reintentar.
+     */
+    public CapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
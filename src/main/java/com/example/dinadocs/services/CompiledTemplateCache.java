@@ -0,0 +1,171 @@
+package com.example.dinadocs.services;
+
+import com.github.mustachejava.Mustache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché LRU acotada de plantillas Mustache ya compiladas.
+ * La clave combina el id de la plantilla con un hash de su contenido, de modo que
+ * cada versión de una plantilla se compila una sola vez.
+ *
+ * <p>Expone a través de Actuator las métricas {@code cache.gets} (con tag
+ * {@code result=hit|miss}), {@code cache.evictions} y {@code cache.size}.
+ *
+ * @see TemplateProcessor
+ */
+@Component
+public class CompiledTemplateCache implements MeterBinder {
+
+    /** Número máximo de plantillas compiladas por defecto. */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private static final String CACHE_NAME = "compiledTemplates";
+
+    private final int maxEntries;
+    private final Map<Key, Mustache> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param maxEntries Número máximo de plantillas compiladas que se mantienen en memoria.
+     */
+    public CompiledTemplateCache(@Value("${dynadocs.template-cache.max-entries:" + DEFAULT_MAX_ENTRIES + "}") int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("El tamaño de la caché de plantillas debe ser mayor que cero.");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Mustache> eldest) {
+                if (size() > CompiledTemplateCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve la plantilla compilada para el par (id, contenido), compilándola
+     * únicamente si no está en caché.
+     *
+     * @param templateId Id de la plantilla (puede ser null para contenido ad-hoc).
+     * @param content Contenido de la plantilla.
+     * @param compiler Función que compila el contenido en caso de fallo de caché.
+     * @return La plantilla compilada.
+     */
+    public Mustache get(Long templateId, String content, Supplier<Mustache> compiler) {
+        Key key = new Key(templateId, hash(content));
+
+        Mustache mustache;
+        synchronized (entries) {
+            mustache = entries.get(key);
+        }
+        if (mustache != null) {
+            hits.incrementAndGet();
+            return mustache;
+        }
+
+        misses.incrementAndGet();
+        mustache = compiler.get();
+        synchronized (entries) {
+            entries.put(key, mustache);
+        }
+        return mustache;
+    }
+
+    /**
+     * Elimina todas las versiones compiladas de una plantilla.
+     * Se invoca cuando la plantilla se crea, actualiza o elimina.
+     *
+     * @param templateId Id de la plantilla a invalidar.
+     */
+    public void invalidate(Long templateId) {
+        if (templateId == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> templateId.equals(key.templateId()));
+        }
+    }
+
+    /**
+     * @return Número de plantillas compiladas actualmente en caché.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Plantillas servidas desde la caché de compilación")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Plantillas que tuvieron que compilarse")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .description("Plantillas compiladas descartadas por LRU")
+                .register(registry);
+        Gauge.builder("cache.size", this, CompiledTemplateCache::size)
+                .tag("cache", CACHE_NAME)
+                .description("Plantillas compiladas en caché")
+                .register(registry);
+    }
+
+    /**
+     * Calcula el hash SHA-256 del contenido de la plantilla.
+     */
+    private static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(Objects.requireNonNullElse(content, "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Clave de la caché: id de la plantilla más hash de su contenido.
+     */
+    private record Key(Long templateId, String contentHash) {
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.security.UserPrincipal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Registro de eventos estructurado (una línea JSON por evento) que sustituye a los
+ * {@code System.out.println} de las rutas calientes.
+ *
+ * <p>Los hilos de las peticiones solo dejan el evento en un buffer circular sin bloqueos
+ * y vuelven; un hilo propio lo serializa y lo escribe en el logger {@code dynadocs.events}.
+ * Si el buffer está lleno el evento se descarta y se cuenta en
+ * {@code dynadocs.events.dropped}: una petición nunca espera por E/S del log. Con el buffer
+ * vacío el escritor queda aparcado sin temporizador y el productor que publica lo despierta,
+ * así que un servidor inactivo no paga despertares periódicos.
+ *
+ * <p>Cada tipo de evento ({@code auth.success}, {@code template.delete}...) puede tener
+ * su propio nivel mínimo ({@code dynadocs.events.levels}) y su fracción de muestreo
+ * ({@code dynadocs.events.sample-rates}). Cada registro lleva el id de la petición
+ * (MDC {@code requestId}), el usuario autenticado, la plantilla y los tiempos por etapa
+ * anotados hasta ese momento en el {@link ServerTiming} de la petición.
+ */
+@Component
+public class EventLogService implements MeterBinder {
+
+    private final Level defaultLevel;
+    private final Map<String, Level> levels;
+    private final Map<String, Double> sampleRates;
+    private final RingBuffer buffer;
+    private final Consumer<String> sink;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Thread writer;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition drained = drainLock.newCondition();
+
+    private volatile boolean running = true;
+    private volatile boolean idle;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param capacity Eventos que caben en el buffer (se redondea a potencia de dos).
+     * @param defaultLevel Nivel mínimo de los tipos sin nivel propio.
+     * @param levels Niveles por tipo, como {@code auth.success:DEBUG,template.delete:INFO}.
+     * @param sampleRates Fracciones por tipo, como {@code auth.success:0.01}.
+     * @throws IllegalArgumentException Si algún nivel o fracción no es válido.
+     */
+    @Autowired
+    public EventLogService(@Value("${dynadocs.events.buffer-capacity:8192}") int capacity,
+                           @Value("${dynadocs.events.level:INFO}") String defaultLevel,
+                           @Value("${dynadocs.events.levels:}") String levels,
+                           @Value("${dynadocs.events.sample-rates:}") String sampleRates) {
+        this(capacity, defaultLevel, levels, sampleRates, LoggerFactory.getLogger("dynadocs.events")::info);
+    }
+
+    EventLogService(int capacity, String defaultLevel, String levels, String sampleRates, Consumer<String> sink) {
+        this.defaultLevel = parseLevel(defaultLevel);
+        this.levels = parse(levels, EventLogService::parseLevel);
+        this.sampleRates = parse(sampleRates, EventLogService::parseRate);
+        this.buffer = new RingBuffer(capacity);
+        this.sink = sink;
+        this.writer = new Thread(this::drainLoop, "dynadocs-event-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void debug(String type, String template, String message) {
+        log(Level.DEBUG, type, template, message);
+    }
+
+    public void info(String type, String template, String message) {
+        log(Level.INFO, type, template, message);
+    }
+
+    public void warn(String type, String template, String message) {
+        log(Level.WARN, type, template, message);
+    }
+
+    /**
+     * Indica si un evento de ese nivel y tipo se registraría (sin contar el muestreo).
+     * Sirve para no construir mensajes costosos que se van a descartar.
+     */
+    public boolean isEnabled(Level level, String type) {
+        return level.toInt() >= levels.getOrDefault(type, defaultLevel).toInt();
+    }
+
+    /**
+     * Encola un evento. No bloquea: si el buffer está lleno, el evento se descarta.
+     *
+     * @param level Nivel del evento.
+     * @param type Tipo del evento, que determina su nivel mínimo y su muestreo.
+     * @param template Plantilla implicada, o {@code null}.
+     * @param message Descripción breve.
+     */
+    public void log(Level level, String type, String template, String message) {
+        if (!isEnabled(level, type)) {
+            return;
+        }
+        Double rate = sampleRates.get(type);
+        if (rate != null && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return;
+        }
+        Event event = new Event(System.currentTimeMillis(), level, type, MDC.get("requestId"),
+                currentUserId(), template, message, ServerTiming.snapshot());
+        if (buffer.offer(event)) {
+            accepted.incrementAndGet();
+            if (idle) {
+                LockSupport.unpark(writer);
+            }
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal user ? user.getId() : null;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            Event event = buffer.poll();
+            if (event == null) {
+                if (!running) {
+                    return;
+                }
+                event = awaitEvent();
+                if (event == null) {
+                    continue;
+                }
+            }
+            try {
+                sink.accept(toJson(event));
+            } catch (RuntimeException e) {
+                // Un fallo del destino no debe parar el hilo escritor.
+            }
+            written.incrementAndGet();
+        }
+    }
+
+    /**
+     * Avisa a quien espera en {@link #flush} y aparca el escritor hasta que un productor
+     * publique. Tras marcarse inactivo vuelve a mirar el buffer: un evento publicado antes
+     * de que el productor viera la marca no traería su {@code unpark}.
+     *
+     * @return El evento encontrado en la segunda mirada, o {@code null} tras despertar.
+     */
+    private Event awaitEvent() {
+        drainLock.lock();
+        try {
+            drained.signalAll();
+        } finally {
+            drainLock.unlock();
+        }
+        idle = true;
+        Event event = buffer.poll();
+        if (event == null && running) {
+            LockSupport.park(this);
+        }
+        idle = false;
+        return event;
+    }
+
+    private String toJson(Event event) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("ts", Instant.ofEpochMilli(event.timestamp()).toString());
+        record.put("level", event.level().name());
+        record.put("type", event.type());
+        putIfPresent(record, "requestId", event.requestId());
+        putIfPresent(record, "userId", event.userId());
+        putIfPresent(record, "template", event.template());
+        putIfPresent(record, "message", event.message());
+        if (!event.timings().isEmpty()) {
+            Map<String, Double> millis = new LinkedHashMap<>();
+            event.timings().forEach((stage, nanos) -> millis.put(stage, Math.round(nanos / 100_000.0) / 10.0));
+            record.put("timingsMs", millis);
+        }
+        try {
+            return objectMapper.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            return "{\"type\":\"" + event.type() + "\",\"error\":\"serialization\"}";
+        }
+    }
+
+    private static void putIfPresent(Map<String, Object> record, String key, Object value) {
+        if (value != null) {
+            record.put(key, value);
+        }
+    }
+
+    /**
+     * Espera hasta que el hilo escritor haya procesado los eventos encolados.
+     *
+     * @param timeoutMillis Espera máxima.
+     * @return true si no quedan eventos pendientes.
+     */
+    public boolean flush(long timeoutMillis) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        drainLock.lock();
+        try {
+            while (written.get() < accepted.get()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    Thread.State getWriterState() {
+        return writer.getState();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("dynadocs.events.written", written, AtomicLong::get)
+                .description("Eventos escritos en el log")
+                .register(registry);
+        FunctionCounter.builder("dynadocs.events.dropped", dropped, AtomicLong::get)
+                .description("Eventos descartados por buffer lleno")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    private static <T> Map<String, T> parse(String spec, Function<String, T> valueParser) {
+        Map<String, T> values = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return values;
+        }
+        for (String entry : spec.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Configuración de eventos no válida: '" + entry.trim() + "'");
+            }
+            values.put(entry.substring(0, colon).trim(), valueParser.apply(entry.substring(colon + 1).trim()));
+        }
+        return values;
+    }
+
+    private static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nivel de evento no válido: '" + value + "'", e);
+        }
+    }
+
+    private static Double parseRate(String value) {
+        double rate = Double.parseDouble(value);
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("La fracción de muestreo debe estar entre 0 y 1: " + value);
+        }
+        return rate;
+    }
+
+    private record Event(long timestamp, Level level, String type, String requestId, Long userId,
+                         String template, String message, Map<String, Long> timings) {
+    }
+
+    /**
+     * Cola circular acotada de varios productores y un consumidor, sin bloqueos: cada
+     * celda lleva un número de secuencia que indica si está libre para la vuelta actual
+     * del productor o ya publicada para el consumidor.
+     */
+    private static final class RingBuffer {
+
+        private final int mask;
+        private final AtomicReferenceArray<Event> events;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private long head;
+
+        private RingBuffer(int capacity) {
+            int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+            this.mask = size - 1;
+            this.events = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        private boolean offer(Event event) {
+            long position = tail.get();
+            while (true) {
+                int index = (int) (position & mask);
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        events.set(index, event);
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                } else if (difference < 0) {
+                    return false;
+                } else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        /** Solo lo llama el hilo escritor. */
+        private Event poll() {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                return null;
+            }
+            Event event = events.get(index);
+            events.set(index, null);
+            sequences.set(index, head + mask + 1);
+            head++;
+            return event;
+        }
+    }
+}
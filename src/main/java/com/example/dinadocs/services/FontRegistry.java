@@ -0,0 +1,191 @@
+package com.example.dinadocs.services;
+
+import com.lowagie.text.pdf.BaseFont;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xhtmlrenderer.pdf.FontDescription;
+import org.xhtmlrenderer.pdf.FontFamily;
+import org.xhtmlrenderer.pdf.ITextFontResolver;
+import org.xhtmlrenderer.pdf.TrueTypeUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Registro de fuentes de la aplicación, compartido por todos los renderizadores.
+ *
+ * <p>Las fuentes TrueType/OpenType ({@code .ttf}, {@code .otf}, {@code .ttc}) del directorio
+ * {@code dynadocs.pdf.fonts.directory} se leen y analizan una sola vez al arrancar; las
+ * {@link BaseFont} quedan en la caché de OpenPDF y cada renderizador del
+ * {@link PdfRendererPool} las registra al crearse, así que ningún render vuelve a analizar
+ * fuentes. Un archivo que no se puede leer se descarta con una advertencia.
+ *
+ * <p>Las fuentes se cargan con codificación {@code Identity-H} y embebidas; OpenPDF escribe
+ * en cada PDF solo un subconjunto con los glifos que usa el documento, con lo que los
+ * caracteres acentuados salen bien sin inflar el tamaño del archivo. Para los PDFs que se
+ * van a combinar ({@link PdfMergeService}) hay además una copia de cada fuente que se
+ * embebe completa: el programa de la fuente es idéntico en todos los registros y el
+ * documento combinado lo guarda una sola vez. Las colecciones {@code .ttc} se embeben
+ * siempre como subconjunto.
+ *
+ * <p>{@code dynadocs.pdf.fonts.aliases} asigna familias que piden las plantillas pero no
+ * existen (p. ej. {@code Helvetica Neue}) a otra familia registrada o de las 14 básicas
+ * de PDF, en lugar de dejar que cada plantilla caiga en el siguiente nombre de su lista.
+ * Un alias nunca oculta una familia que sí se haya cargado del directorio.
+ *
+ * @see PdfRendererPool
+ */
+@Component
+public class FontRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(FontRegistry.class);
+
+    private final List<String> fontPaths = new ArrayList<>();
+    /** Copia sin subconjunto de cada fuente cargada, indexada por la instancia compartida. */
+    private final Map<BaseFont, BaseFont> fullFonts = new IdentityHashMap<>();
+    private final Set<String> familyNames = new LinkedHashSet<>();
+    private final Map<String, String> aliases;
+
+    /**
+     * Constructor para inyección de dependencias. Carga las fuentes del directorio.
+     *
+     * @param directory Directorio con las fuentes; vacío o inexistente deja solo las básicas.
+     * @param aliases Lista {@code Alias:Familia} separada por comas.
+     */
+    public FontRegistry(@Value("${dynadocs.pdf.fonts.directory:}") String directory,
+                        @Value("${dynadocs.pdf.fonts.aliases:}") String aliases) {
+        loadDirectory(directory);
+        this.aliases = Collections.unmodifiableMap(parseAliases(aliases));
+    }
+
+    /**
+     * Añade las fuentes registradas y los alias a un resolver de Flying Saucer.
+     * Cada resolver tiene sus propias {@link FontFamily} (las {@code @font-face} de un
+     * documento se añaden a ellas), pero todos comparten las {@link BaseFont} ya analizadas.
+     *
+     * @param fontResolver Resolver recién creado por el pool.
+     */
+    public void registerWith(ITextFontResolver fontResolver) {
+        registerWith(fontResolver, true);
+    }
+
+    /**
+     * Como {@link #registerWith(ITextFontResolver)}, eligiendo si las fuentes del directorio
+     * se embeben como subconjunto o completas.
+     *
+     * @param fontResolver Resolver recién creado por el pool.
+     * @param subset false para embeber las fuentes completas (PDFs que se van a combinar).
+     */
+    public void registerWith(ITextFontResolver fontResolver, boolean subset) {
+        for (String path : fontPaths) {
+            try {
+                fontResolver.addFont(path, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+            } catch (IOException e) {
+                // Ya se cargó al arrancar, así que solo puede fallar si el archivo desapareció.
+                throw new IllegalStateException("No se pudo registrar la fuente '" + path + "'", e);
+            }
+        }
+        Map<String, FontFamily> fonts = fontResolver.getFonts();
+        if (!subset) {
+            for (FontFamily family : fonts.values()) {
+                for (FontDescription description : family.getFontDescriptions()) {
+                    BaseFont full = fullFonts.get(description.getFont());
+                    if (full != null) {
+                        description.setFont(full);
+                    }
+                }
+            }
+        }
+        aliases.forEach((alias, target) -> {
+            FontFamily family = fonts.get(target);
+            if (family != null) {
+                fonts.putIfAbsent(alias, family);
+            }
+        });
+    }
+
+    /**
+     * @return Nombres de las familias cargadas del directorio.
+     */
+    public Set<String> getFamilyNames() {
+        return Collections.unmodifiableSet(familyNames);
+    }
+
+    private void loadDirectory(String directory) {
+        if (directory == null || directory.isBlank()) {
+            return;
+        }
+        Path path = Path.of(directory);
+        if (!Files.isDirectory(path)) {
+            log.warn("El directorio de fuentes '{}' no existe.", directory);
+            return;
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            files.filter(FontRegistry::isFontFile).sorted().forEach(file -> {
+                try {
+                    loadFile(file.toAbsolutePath().toString());
+                } catch (IOException | RuntimeException e) {
+                    log.warn("No se pudo cargar la fuente '{}': {}", file.getFileName(), e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("No se pudo leer el directorio de fuentes '{}': {}", directory, e.getMessage());
+        }
+    }
+
+    private static boolean isFontFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return Files.isRegularFile(file) && (name.endsWith(".ttf") || name.endsWith(".otf") || name.endsWith(".ttc"));
+    }
+
+    private void loadFile(String path) throws IOException {
+        if (path.toLowerCase(Locale.ROOT).endsWith(".ttc")) {
+            String[] names = BaseFont.enumerateTTCNames(path);
+            for (int i = 0; i < names.length; i++) {
+                loadFont(path + "," + i);
+            }
+        } else {
+            loadFont(path);
+        }
+    }
+
+    private void loadFont(String path) throws IOException {
+        // createFont con caché: el resolver de cada renderizador recibirá esta misma instancia.
+        BaseFont font = BaseFont.createFont(path, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+        // Instancia propia, fuera de la caché, para no cambiar la que usan los demás renders.
+        BaseFont full = BaseFont.createFont(path, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false, null, null);
+        full.setSubset(false);
+        familyNames.addAll(TrueTypeUtil.getFamilyNames(font));
+        fontPaths.add(path);
+        fullFonts.put(font, full);
+    }
+
+    private static Map<String, String> parseAliases(String aliases) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (aliases == null || aliases.isBlank()) {
+            return result;
+        }
+        for (String entry : aliases.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0 || separator == entry.length() - 1) {
+                throw new IllegalArgumentException("Alias de fuente inválido: '" + entry.trim()
+                        + "'. Formato esperado: Alias:Familia");
+            }
+            result.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,462 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.GenerationJobStatus;
+import com.example.dinadocs.models.GenerationRequest;
+import com.example.dinadocs.models.JobStatus;
+import com.example.dinadocs.models.Template;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio de generación asíncrona de PDFs.
+ *
+ * <p>Cada solicitud se convierte en un trabajo con id propio que se ejecuta en un pool
+ * dedicado de tamaño fijo con una cola acotada, de modo que los hilos de Tomcat quedan
+ * libres en cuanto se acepta el trabajo. Si la cola está llena se rechaza con
+ * {@link CapacityExceededException} en lugar de acumular trabajo sin límite.
+ *
+ * <p>El PDF resultante se guarda en un {@link SpillBuffer} (memoria o archivo temporal)
+ * y se conserva durante {@code dynadocs.jobs.result-ttl-ms} después de terminar; pasado
+ * ese tiempo el trabajo y su resultado se eliminan. Además se conservan como mucho
+ * {@code dynadocs.jobs.max-results} trabajos terminados y {@code dynadocs.jobs.max-result-bytes}
+ * bytes de resultados: al superarse se eliminan los más antiguos, aunque no hayan expirado.
+ *
+ * <p>Una descarga fija el resultado ({@link #openResult}) hasta terminar de enviarlo: si
+ * el trabajo expira o se desaloja mientras tanto, el buffer se cierra al acabar la descarga.
+ *
+ * @see com.example.dinadocs.controllers.GenerationJobController
+ */
+@Service
+public class GenerationJobService implements MeterBinder {
+
+    private final PdfGenerationService pdfGenerationService;
+    private final SpillBufferFactory spillBufferFactory;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final long resultTtlMillis;
+    private final int maxResults;
+    private final long maxResultBytes;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /** Trabajos terminados por orden de finalización; protegido por su propio monitor. */
+    private final Deque<Job> finished = new ArrayDeque<>();
+    private long retainedBytes;
+
+    private final AtomicLong completedJobs = new AtomicLong();
+    private final AtomicLong totalRenderMillis = new AtomicLong();
+
+    private Counter rejections;
+    private Counter evictions;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param pdfGenerationService Servicio que renderiza los PDFs.
+     * @param spillBufferFactory Fábrica de buffers para los resultados.
+     * @param threads Número de hilos dedicados a trabajos asíncronos.
+     * @param queueCapacity Trabajos que pueden esperar en cola antes de rechazar nuevos.
+     * @param resultTtlMillis Tiempo que se conserva un trabajo terminado.
+     * @param maxResults Trabajos terminados que se conservan como mucho.
+     * @param maxResultBytes Bytes de resultados que se conservan como mucho (el último
+     *                       resultado se conserva aunque por sí solo los supere).
+     */
+    public GenerationJobService(PdfGenerationService pdfGenerationService,
+                                SpillBufferFactory spillBufferFactory,
+                                @Value("${dynadocs.jobs.threads:2}") int threads,
+                                @Value("${dynadocs.jobs.queue-capacity:50}") int queueCapacity,
+                                @Value("${dynadocs.jobs.result-ttl-ms:600000}") long resultTtlMillis,
+                                @Value("${dynadocs.jobs.max-results:100}") int maxResults,
+                                @Value("${dynadocs.jobs.max-result-bytes:67108864}") long maxResultBytes) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.spillBufferFactory = spillBufferFactory;
+        this.threads = threads;
+        this.resultTtlMillis = resultTtlMillis;
+        this.maxResults = Math.max(1, maxResults);
+        this.maxResultBytes = maxResultBytes;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Valida la solicitud, carga la plantilla y encola el trabajo.
+     *
+     * @param request El DTO con el tipo de plantilla y los datos.
+     * @param ownerId Id del usuario que envía el trabajo; solo él puede consultarlo.
+     * @return Estado inicial del trabajo (QUEUED).
+     * @throws IllegalArgumentException Si la validación de datos falla.
+     * @throws NoSuchElementException Si la plantilla no existe.
+     * @throws CapacityExceededException Si la cola de trabajos está llena.
+     */
+    public GenerationJobStatus submit(GenerationRequest request, Long ownerId) {
+        pdfGenerationService.validateData(request);
+        Template template = pdfGenerationService.loadTemplateByType(request.getTemplateType());
+
+        Job job = new Job(UUID.randomUUID().toString(), ownerId, request.getTemplateType());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, template, request.getData()));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            if (rejections != null) {
+                rejections.increment();
+            }
+            throw new CapacityExceededException("La cola de generación está llena, intente de nuevo más tarde.",
+                    estimateRetryAfterSeconds());
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * Consulta el estado de un trabajo.
+     *
+     * @param id Id del trabajo.
+     * @param ownerId Id del usuario que consulta.
+     * @return El estado, o vacío si no existe, expiró o pertenece a otro usuario.
+     */
+    public Optional<GenerationJobStatus> getStatus(String id, Long ownerId) {
+        return findJob(id, ownerId).map(Job::toStatus);
+    }
+
+    /**
+     * Fija el PDF de un trabajo terminado para descargarlo. Mientras el resultado no se
+     * cierre, ni la expiración ni el desalojo pueden liberar su buffer.
+     *
+     * @param id Id del trabajo.
+     * @param ownerId Id del usuario que descarga.
+     * @return El resultado fijado, o vacío si el trabajo no existe, pertenece a otro
+     *         usuario, no ha terminado correctamente o su resultado ya se eliminó.
+     */
+    public Optional<JobResult> openResult(String id, Long ownerId) {
+        return findJob(id, ownerId)
+                .filter(job -> job.status == JobStatus.DONE)
+                .flatMap(job -> Optional.ofNullable(job.pin())
+                        .map(buffer -> new JobResult(job, buffer)));
+    }
+
+    /**
+     * Elimina los trabajos terminados cuyo resultado ya expiró.
+     */
+    @Scheduled(fixedDelayString = "${dynadocs.jobs.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        Instant limit = Instant.now().minusMillis(resultTtlMillis);
+        List<Job> expired = new ArrayList<>();
+        synchronized (finished) {
+            while (!finished.isEmpty() && !finished.peekFirst().finishedAt.isAfter(limit)) {
+                expired.add(removeOldest());
+            }
+        }
+        expired.forEach(this::remove);
+    }
+
+    /**
+     * Registra un trabajo recién terminado y desaloja los más antiguos si se supera el
+     * número o los bytes de resultados conservados.
+     */
+    private void retain(Job job) {
+        List<Job> evicted = new ArrayList<>();
+        synchronized (finished) {
+            finished.addLast(job);
+            retainedBytes += job.resultSize;
+            while (finished.size() > 1 && (finished.size() > maxResults || retainedBytes > maxResultBytes)) {
+                evicted.add(removeOldest());
+            }
+        }
+        evicted.forEach(this::remove);
+        if (evictions != null) {
+            evictions.increment(evicted.size());
+        }
+    }
+
+    private Job removeOldest() {
+        Job oldest = finished.removeFirst();
+        retainedBytes -= oldest.resultSize;
+        return oldest;
+    }
+
+    private void remove(Job job) {
+        jobs.remove(job.id, job);
+        job.discardResult();
+    }
+
+    /**
+     * @return Bytes de los resultados conservados.
+     */
+    public long getRetainedBytes() {
+        synchronized (finished) {
+            return retainedBytes;
+        }
+    }
+
+    private Optional<Job> findJob(String id, Long ownerId) {
+        Job job = jobs.get(id);
+        if (job == null || !Objects.equals(job.ownerId, ownerId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job);
+    }
+
+    private void run(Job job, Template template, Map<String, Object> data) {
+        job.startedAt = Instant.now();
+        job.status = JobStatus.RUNNING;
+        SpillBuffer buffer = null;
+        try {
+            buffer = spillBufferFactory.create();
+            pdfGenerationService.renderPdfQueued(template, data, buffer.outputStream());
+            job.complete(buffer);
+        } catch (Throwable e) {
+            // También los Error (StackOverflowError con plantillas muy anidadas, OutOfMemoryError):
+            // el trabajo termina FAILED y libera su buffer antes de que el Error siga su curso.
+            if (buffer != null) {
+                closeQuietly(buffer);
+            }
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.finish(JobStatus.FAILED);
+            if (e instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            retain(job);
+            completedJobs.incrementAndGet();
+            totalRenderMillis.addAndGet(Duration.between(job.startedAt, job.finishedAt).toMillis());
+        }
+    }
+
+    /**
+     * Estima cuánto tardará en liberarse la cola con el tiempo medio de los trabajos anteriores.
+     */
+    private long estimateRetryAfterSeconds() {
+        long completed = completedJobs.get();
+        long averageMillis = completed == 0 ? 1000 : totalRenderMillis.get() / completed;
+        long pending = executor.getQueue().size() + executor.getActiveCount();
+        return (pending * averageMillis / threads + 999) / 1000;
+    }
+
+    private static void closeQuietly(SpillBuffer buffer) {
+        try {
+            buffer.close();
+        } catch (IOException ignored) {
+            // No hay nada más que liberar.
+        }
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public int getRunningCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dynadocs.jobs.queued", this, GenerationJobService::getQueuedCount)
+                .description("Trabajos de generación esperando en cola")
+                .register(registry);
+        Gauge.builder("dynadocs.jobs.running", this, GenerationJobService::getRunningCount)
+                .description("Trabajos de generación en ejecución")
+                .register(registry);
+        Gauge.builder("dynadocs.jobs.retained", jobs, Map::size)
+                .description("Trabajos registrados, incluidos los terminados aún no expirados")
+                .register(registry);
+        Gauge.builder("dynadocs.jobs.retained-bytes", this, GenerationJobService::getRetainedBytes)
+                .description("Bytes de los resultados conservados")
+                .register(registry);
+        evictions = Counter.builder("dynadocs.jobs.evictions")
+                .description("Trabajos terminados eliminados antes de expirar por límite de resultados")
+                .register(registry);
+        rejections = Counter.builder("dynadocs.jobs.rejections")
+                .description("Trabajos rechazados por cola llena")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(Job::discardResult);
+        jobs.clear();
+        synchronized (finished) {
+            finished.clear();
+            retainedBytes = 0;
+        }
+    }
+
+    /**
+     * PDF de un trabajo terminado, fijado hasta que se cierre. Se cierra una sola vez,
+     * normalmente al terminar de escribir la respuesta.
+     */
+    public static final class JobResult implements Closeable {
+
+        private final Job job;
+        private final SpillBuffer buffer;
+        private boolean closed;
+
+        private JobResult(Job job, SpillBuffer buffer) {
+            this.job = job;
+            this.buffer = buffer;
+        }
+
+        public String getTemplateType() {
+            return job.templateType;
+        }
+
+        public long getSize() {
+            return buffer.size();
+        }
+
+        /**
+         * Copia el PDF al flujo indicado.
+         *
+         * @param outputStream Flujo de destino (la respuesta HTTP).
+         * @throws IOException Si falla la copia.
+         */
+        public void writeTo(OutputStream outputStream) throws IOException {
+            buffer.writeTo(outputStream);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                job.unpin();
+            }
+        }
+    }
+
+    /**
+     * Estado interno de un trabajo. Lo escribe el hilo del pool y lo leen los hilos
+     * de las peticiones, de ahí los campos volátiles. El resultado y sus descargas en
+     * curso se protegen con el monitor del propio trabajo.
+     */
+    private static final class Job {
+
+        private final String id;
+        private final Long ownerId;
+        private final String templateType;
+        private final Instant submittedAt = Instant.now();
+
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile long resultSize;
+
+        private SpillBuffer result;
+        private int pins;
+        private boolean discarded;
+
+        private Job(String id, Long ownerId, String templateType) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.templateType = templateType;
+        }
+
+        private void finish(JobStatus finalStatus) {
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+
+        private void complete(SpillBuffer buffer) {
+            synchronized (this) {
+                result = buffer;
+            }
+            resultSize = buffer.size();
+            finish(JobStatus.DONE);
+        }
+
+        private synchronized SpillBuffer pin() {
+            if (result == null || discarded) {
+                return null;
+            }
+            pins++;
+            return result;
+        }
+
+        private void unpin() {
+            SpillBuffer toClose = null;
+            synchronized (this) {
+                pins--;
+                if (pins == 0 && discarded) {
+                    toClose = result;
+                    result = null;
+                }
+            }
+            if (toClose != null) {
+                closeQuietly(toClose);
+            }
+        }
+
+        /**
+         * Libera el resultado, o lo deja marcado para liberarlo cuando acabe la última
+         * descarga en curso.
+         */
+        private void discardResult() {
+            SpillBuffer toClose = null;
+            synchronized (this) {
+                discarded = true;
+                if (pins == 0) {
+                    toClose = result;
+                    result = null;
+                }
+            }
+            if (toClose != null) {
+                closeQuietly(toClose);
+            }
+        }
+
+        private GenerationJobStatus toStatus() {
+            GenerationJobStatus view = new GenerationJobStatus();
+            view.setId(id);
+            view.setTemplateType(templateType);
+            view.setStatus(status);
+            view.setSubmittedAt(submittedAt);
+            Instant started = startedAt;
+            Instant finished = finishedAt;
+            view.setStartedAt(started);
+            view.setFinishedAt(finished);
+            if (started != null) {
+                view.setQueuedMillis(Duration.between(submittedAt, started).toMillis());
+            }
+            if (started != null && finished != null) {
+                view.setRenderMillis(Duration.between(started, finished).toMillis());
+            }
+            if (status == JobStatus.DONE) {
+                view.setSizeBytes(resultSize);
+            }
+            view.setError(error);
+            return view;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.dinadocs.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas por etapa de la generación de PDFs, etiquetadas por plantilla.
+ *
+ * <p>{@code dynadocs.pdf.generation.stage} mide cada etapa de
+ * {@link PdfGenerationService#generatePdf} (etiqueta {@code stage}: validación de la
+ * solicitud, carga de la plantilla, validación de placeholders, fusión Mustache,
+ * normalización con Jsoup, layout y escritura del PDF) por plantilla.
+ * {@code dynadocs.pdf.generation.size} y {@code dynadocs.pdf.generation.pages}
+ * registran el tamaño y las páginas de cada PDF renderizado (no los servidos desde caché).
+ *
+ * <p>El histograma de percentiles solo se publica en los agregados sin etiqueta de
+ * plantilla ({@code dynadocs.pdf.generation.stage.all}, {@code size.all} y
+ * {@code pages.all}): con un histograma por etapa y plantilla serían miles de series.
+ * {@code dynadocs.metrics.template-histograms} lo activa también por plantilla.
+ * Los medidores se crean una vez y se guardan en mapas, sin consultar el registro
+ * en cada etapa.
+ *
+ * <p>Los nombres de plantilla los crean los usuarios, así que el número de valores de la
+ * etiqueta {@code template} se limita a {@code dynadocs.metrics.max-templates}; a partir
+ * de ahí las plantillas nuevas se agrupan bajo {@code otras}.
+ *
+ * <p>Cada etapa se anota además en el {@link ServerTiming} de la petición, si lo hay.
+ *
+ * @see PdfGenerationService
+ */
+@Component
+public class PdfGenerationMetrics implements MeterBinder {
+
+    public static final String STAGE_VALIDATE = "validate_request";
+    public static final String STAGE_TEMPLATE_LOAD = "template_load";
+    public static final String STAGE_PLACEHOLDERS = "placeholder_validation";
+    public static final String STAGE_MUSTACHE = "mustache_render";
+    public static final String STAGE_NORMALIZE = "jsoup_normalize";
+    public static final String STAGE_LAYOUT = "layout";
+    public static final String STAGE_WRITE = "pdf_write";
+
+    private static final String PREFIX = "dynadocs.pdf.generation";
+    private static final String UNKNOWN_TEMPLATE = "desconocida";
+    private static final String OTHER_TEMPLATES = "otras";
+
+    private final int maxTemplates;
+    private final boolean templateHistograms;
+    private final Set<String> knownTemplates = ConcurrentHashMap.newKeySet();
+
+    private final Map<StageKey, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> aggregateStageTimers = new ConcurrentHashMap<>();
+    private final Map<String, OutputMeters> outputMeters = new ConcurrentHashMap<>();
+    private volatile OutputMeters aggregateOutput;
+
+    private volatile MeterRegistry registry;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param maxTemplates Número máximo de plantillas distintas con métricas propias.
+     * @param templateHistograms Si también se publica histograma por plantilla.
+     */
+    public PdfGenerationMetrics(@Value("${dynadocs.metrics.max-templates:200}") int maxTemplates,
+                                @Value("${dynadocs.metrics.template-histograms:false}") boolean templateHistograms) {
+        this.maxTemplates = maxTemplates;
+        this.templateHistograms = templateHistograms;
+    }
+
+    /**
+     * Ejecuta una etapa midiendo su duración, también si termina con excepción.
+     *
+     * @param stage Nombre de la etapa (una de las constantes {@code STAGE_*}).
+     * @param template Nombre de la plantilla.
+     * @param step La etapa.
+     * @return El resultado de la etapa.
+     */
+    public <T> T time(String stage, String template, Supplier<T> step) {
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            record(stage, template, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Variante de {@link #time(String, String, Supplier)} para etapas sin resultado.
+     */
+    public void time(String stage, String template, Runnable step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            record(stage, template, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Registra la duración de una etapa medida por el llamador. Se usa para las etapas
+     * previas a cargar la plantilla, que solo se etiquetan cuando se sabe que existe.
+     *
+     * @param stage Nombre de la etapa.
+     * @param template Nombre de la plantilla, o {@code null} si la solicitud falló antes.
+     * @param nanos Duración en nanosegundos.
+     */
+    public void record(String stage, String template, long nanos) {
+        ServerTiming.record(stage, nanos);
+        MeterRegistry current = registry;
+        if (current != null) {
+            String tag = tagValue(template);
+            stageTimers.computeIfAbsent(new StageKey(stage, tag), key -> stageTimer(current, key, templateHistograms))
+                    .record(nanos, TimeUnit.NANOSECONDS);
+            aggregateStageTimers.computeIfAbsent(stage, key -> stageTimer(current, new StageKey(key, null), true))
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Registra el tamaño y el número de páginas de un PDF renderizado.
+     *
+     * @param template Nombre de la plantilla.
+     * @param bytes Bytes escritos.
+     * @param pages Páginas del documento.
+     */
+    public void recordOutput(String template, long bytes, int pages) {
+        MeterRegistry current = registry;
+        if (current == null) {
+            return;
+        }
+        outputMeters.computeIfAbsent(tagValue(template), tag -> outputMeters(current, tag, templateHistograms))
+                .record(bytes, pages);
+        OutputMeters aggregate = aggregateOutput;
+        if (aggregate == null) {
+            aggregate = outputMeters(current, null, true);
+            aggregateOutput = aggregate;
+        }
+        aggregate.record(bytes, pages);
+    }
+
+    /**
+     * Temporizador de una etapa; sin plantilla en la clave es el agregado ({@code .all}).
+     */
+    private static Timer stageTimer(MeterRegistry current, StageKey key, boolean histogram) {
+        Timer.Builder builder = Timer.builder(PREFIX + ".stage" + (key.template() == null ? ".all" : ""))
+                .tag("stage", key.stage())
+                .description("Duración de cada etapa de la generación de PDF");
+        if (key.template() != null) {
+            builder.tag("template", key.template());
+        }
+        if (histogram) {
+            builder.publishPercentileHistogram();
+        }
+        return builder.register(current);
+    }
+
+    /**
+     * Tamaño y páginas de los PDFs de una plantilla, o agregados si {@code template} es null.
+     */
+    private static OutputMeters outputMeters(MeterRegistry current, String template, boolean histogram) {
+        return new OutputMeters(
+                summary(current, ".size", template, "bytes", "Tamaño de los PDFs generados", histogram),
+                summary(current, ".pages", template, "pages", "Páginas de los PDFs generados", histogram));
+    }
+
+    private static DistributionSummary summary(MeterRegistry current, String name, String template,
+                                               String baseUnit, String description, boolean histogram) {
+        DistributionSummary.Builder builder = DistributionSummary.builder(PREFIX + name + (template == null ? ".all" : ""))
+                .baseUnit(baseUnit)
+                .description(description);
+        if (template != null) {
+            builder.tag("template", template);
+        }
+        if (histogram) {
+            builder.publishPercentileHistogram();
+        }
+        return builder.register(current);
+    }
+
+    private String tagValue(String template) {
+        if (template == null || template.isBlank()) {
+            return UNKNOWN_TEMPLATE;
+        }
+        if (knownTemplates.contains(template)) {
+            return template;
+        }
+        // El límite es aproximado con hilos concurrentes; basta para acotar la cardinalidad.
+        if (knownTemplates.size() < maxTemplates) {
+            knownTemplates.add(template);
+            return template;
+        }
+        return OTHER_TEMPLATES;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        stageTimers.clear();
+        aggregateStageTimers.clear();
+        outputMeters.clear();
+        aggregateOutput = null;
+        this.registry = registry;
+    }
+
+    private record StageKey(String stage, String template) {
+    }
+
+    private record OutputMeters(DistributionSummary size, DistributionSummary pages) {
+
+        void record(long bytes, int pages) {
+            size.record(bytes);
+            this.pages.record(pages);
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package com.example.dinadocs.services;
 
 import com.example.dinadocs.models.GenerationRequest;
+import com.example.dinadocs.models.PlaceholderSchema;
 import com.example.dinadocs.models.Template;
 import com.example.dinadocs.repositories.TemplateRepository;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import org.jsoup.nodes.Document;
 import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
 import org.xhtmlrenderer.pdf.ITextRenderer;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.List;
+import java.util.Set;
 
 /**
  * Servicio (capa de lógica de negocio) para el módulo de generación de PDFs.
@@ -25,15 +30,32 @@ public class PdfGenerationService {
 
     private final TemplateRepository templateRepository;
     private final TemplateProcessor templateProcessor;
+    private final PdfRendererPool rendererPool;
+    private final RenderBulkhead bulkhead;
+    private final RenderedPdfCache pdfCache;
+    private final PdfGenerationMetrics metrics;
+    private final EventLogService eventLog;
 
     /**
      * Constructor para inyección de dependencias.
      * @param templateRepository Repositorio para acceder a las plantillas en la BD.
      * @param templateProcessor Procesador de plantillas para la fusión de datos.
+     * @param rendererPool Pool de renderizadores de Flying Saucer reutilizables.
+     * @param bulkhead Límite adaptativo de renders simultáneos, compartido por todos los flujos.
+     * @param pdfCache Caché de PDFs ya generados.
+     * @param metrics Métricas por etapa de la generación.
+     * @param eventLog Registro de eventos de la generación.
      */
-    public PdfGenerationService(TemplateRepository templateRepository, TemplateProcessor templateProcessor) {
+    public PdfGenerationService(TemplateRepository templateRepository, TemplateProcessor templateProcessor,
+                                PdfRendererPool rendererPool, RenderBulkhead bulkhead, RenderedPdfCache pdfCache,
+                                PdfGenerationMetrics metrics, EventLogService eventLog) {
         this.templateRepository = templateRepository;
         this.templateProcessor = templateProcessor;
+        this.rendererPool = rendererPool;
+        this.bulkhead = bulkhead;
+        this.pdfCache = pdfCache;
+        this.metrics = metrics;
+        this.eventLog = eventLog;
     }
    
     /**
@@ -43,24 +65,131 @@ public class PdfGenerationService {
      * @return Un array de bytes (byte[]) que representa el archivo PDF generado.
      * @throws IllegalArgumentException Si la validación de datos falla.
      * @throws NoSuchElementException Si el 'templateType' no se encuentra en la BD.
+     * @throws CapacityExceededException Si hay demasiadas generaciones en curso.
      * @throws RuntimeException Si la conversión de PDF falla.
      */
     public byte[] generatePdf(GenerationRequest request) {
-        
-        validateData(request);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        generatePdf(request, outputStream);
+        return outputStream.toByteArray();
+    }
 
-        String templateType = request.getTemplateType();
-        Template template = loadTemplateByType(templateType);
-        Map<String, Object> data = request.getData();
+    /**
+     * Genera el PDF escribiéndolo directamente en el flujo indicado,
+     * sin materializarlo como byte[].
+     *
+     * @param request El DTO (GenerationRequest) con el tipo de plantilla y los datos.
+     * @param outputStream Flujo donde se escribe el PDF (p. ej. un {@link SpillBuffer}).
+     * @throws IllegalArgumentException Si la validación de datos falla.
+     * @throws NoSuchElementException Si el 'templateType' no se encuentra en la BD.
+     * @throws CapacityExceededException Si hay demasiadas generaciones en curso.
+     * @throws RuntimeException Si la conversión de PDF falla.
+     */
+    public void generatePdf(GenerationRequest request, OutputStream outputStream) {
+
+        // Estas dos etapas se etiquetan con la plantilla solo si existe, para no crear
+        // una serie de métricas por cada nombre inválido que llegue en una solicitud.
+        long start = System.nanoTime();
+        long loadStart = 0;
+        Template template = null;
+        try {
+            validateData(request);
+            loadStart = System.nanoTime();
+            template = loadTemplateByType(request.getTemplateType());
+        } finally {
+            String templateName = template != null ? template.getName() : null;
+            long end = System.nanoTime();
+            if (loadStart == 0) {
+                metrics.record(PdfGenerationMetrics.STAGE_VALIDATE, templateName, end - start);
+            } else {
+                metrics.record(PdfGenerationMetrics.STAGE_VALIDATE, templateName, loadStart - start);
+                metrics.record(PdfGenerationMetrics.STAGE_TEMPLATE_LOAD, templateName, end - loadStart);
+            }
+        }
+
+        // Un PDF idéntico ya generado se sirve sin pasar por Mustache ni Flying Saucer.
+        String cacheKey = pdfCache.isEnabled() ? pdfCache.key(template, request.getData()) : null;
+        if (cacheKey != null && copyFromCache(cacheKey, outputStream)) {
+            eventLog.info("pdf.generated", template.getName(), "Servido desde caché");
+            return;
+        }
+
+        if (cacheKey == null) {
+            render(template, request.getData(), outputStream, false, false);
+        } else {
+            RenderedPdfCache.Recorder recorder = pdfCache.record(cacheKey, outputStream);
+            // Si faltó alguna imagen remota aún en descarga, el PDF no se guarda en caché.
+            if (render(template, request.getData(), recorder, false, false)) {
+                recorder.commit();
+            }
+        }
+        eventLog.info("pdf.generated", template.getName(), "Generado");
+    }
+
+    private boolean copyFromCache(String cacheKey, OutputStream outputStream) {
+        try {
+            return pdfCache.copyTo(cacheKey, outputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al copiar el PDF desde la caché: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Genera el PDF de un registro que se va a combinar con otros ({@link PdfMergeService}).
+     * Las fuentes de {@link FontRegistry} se embeben completas en lugar de como subconjunto,
+     * para que el documento combinado las guarde una sola vez. Como {@link #generatePdf},
+     * pasa por el {@link RenderBulkhead} y se rechaza si está saturado.
+     *
+     * @param template La plantilla ya cargada.
+     * @param data Los datos del registro.
+     * @param outputStream Flujo donde se escribe el PDF.
+     * @throws IllegalArgumentException Si los datos están vacíos.
+     * @throws CapacityExceededException Si hay demasiados renders en curso.
+     * @throws RuntimeException Si la conversión de PDF falla.
+     */
+    public void renderPdfForMerge(Template template, Map<String, Object> data, OutputStream outputStream) {
+        render(template, data, outputStream, false, true);
+    }
+
+    /**
+     * Genera el PDF de un registro para los lotes y trabajos asíncronos. Pasa por el mismo
+     * {@link RenderBulkhead}, pero espera su turno sin límite en lugar de rechazarse.
+     *
+     * @param template La plantilla ya cargada.
+     * @param data Los datos del registro.
+     * @param outputStream Flujo donde se escribe el PDF.
+     * @throws IllegalArgumentException Si los datos están vacíos.
+     * @throws RuntimeException Si la conversión de PDF falla.
+     */
+    public void renderPdfQueued(Template template, Map<String, Object> data, OutputStream outputStream) {
+        render(template, data, outputStream, true, false);
+    }
+
+    /**
+     * @param queued true para esperar un permiso sin límite (lotes y trabajos).
+     * @param fullFonts true para embeber las fuentes completas (PDFs que se van a combinar).
+     * @return true si el PDF quedó completo (sin imágenes remotas pendientes).
+     */
+    private boolean render(Template template, Map<String, Object> data, OutputStream outputStream,
+                           boolean queued, boolean fullFonts) {
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("Los datos (data) para la generación del documento no pueden estar vacíos.");
+        }
 
-        validatePlaceholders(template, data);
+        String templateName = template.getName();
+        metrics.time(PdfGenerationMetrics.STAGE_PLACEHOLDERS, templateName, () -> validatePlaceholders(template, data));
 
         // Procesar la plantilla dinámicamente usando TemplateProcessor
-        String processedTemplate = templateProcessor.processTemplate(template.getContent(), data);
+        String processedTemplate = metrics.time(PdfGenerationMetrics.STAGE_MUSTACHE, templateName,
+                () -> templateProcessor.processTemplate(template, data));
 
-        byte[] pdfBytes = convertHtmlToPdf(processedTemplate);
-        
-        return pdfBytes;
+        // El permiso cubre solo el uso del renderizador, que es lo que limita el pool.
+        try (RenderBulkhead.Permit permit = queued ? bulkhead.acquireQueued()
+                : ServerTiming.time("bulkhead_wait", bulkhead::acquire)) {
+            boolean complete = convertHtmlToPdf(templateName, processedTemplate, outputStream, fullFonts);
+            permit.success();
+            return complete;
+        }
     }
 
     /**
@@ -68,7 +197,7 @@ public class PdfGenerationService {
      * @param request El DTO de la solicitud.
      * @throws IllegalArgumentException Si 'data' o 'templateType' son nulos o vacíos.
      */
-    private void validateData(GenerationRequest request) {
+    public void validateData(GenerationRequest request) {
         Map<String, Object> data = request.getData();
 
         if (data == null || data.isEmpty()) {
@@ -81,85 +210,103 @@ public class PdfGenerationService {
 
     /**
      * Carga la entidad Template desde la base de datos usando el 'templateType'.
+     * La consulta trae también los placeholders, así que la plantilla puede usarse
+     * fuera del hilo de la petición (lotes, trabajos asíncronos), sin sesión JPA.
      * @param templateType El nombre (identificador) de la plantilla.
      * @return La entidad Template.
+     * @throws IllegalArgumentException Si 'templateType' es nulo o vacío.
      * @throws NoSuchElementException Si no se encuentra una plantilla con ese nombre.
      */
     public Template loadTemplateByType(String templateType) {
+        if (templateType == null || templateType.trim().isEmpty()) {
+            throw new IllegalArgumentException("El tipo de plantilla (templateType) no puede estar vacío.");
+        }
         return templateRepository.findByName(templateType)
                 .orElseThrow(() -> new NoSuchElementException("La plantilla '" + templateType + "' no existe."));
     }
 
     /**
-     * Valida que todos los marcadores de posición (placeholders) requeridos por la plantilla
-     * estén presentes en los datos proporcionados.
+     * Comprueba que los datos cubran los marcadores de posición de la plantilla.
+     * Los placeholders son opcionales: los que faltan (también dentro de cada fila de
+     * una sección) se informan en una sola advertencia.
      *
-     * @param template La plantilla que contiene los placeholders requeridos.
+     * @param template La plantilla con su estructura de placeholders.
      * @param data Los datos proporcionados por el usuario.
-     * @throws IllegalArgumentException Si falta algún placeholder requerido.
      */
     private void validatePlaceholders(Template template, Map<String, Object> data) {
-        for (String placeholder : template.getPlaceholders()) {
-            String normalizedPlaceholder = placeholder.replace("#", "");
-
-            if (!data.containsKey(normalizedPlaceholder)) {
-                System.out.println("Advertencia: Falta el dato para el marcador de posición opcional: " + placeholder);
-                continue;
-            }
-
-            Object value = data.get(normalizedPlaceholder);
-            if (value == null) {
-                System.out.println("Advertencia: El valor para el marcador de posición opcional '" + placeholder + "' es nulo.");
-                continue;
-            }
-
-            if (value instanceof List) {
-                List<?> list = (List<?>) value;
-                for (Object item : list) {
-                    if (item instanceof Map) {
-                        Map<?, ?> itemMap = (Map<?, ?>) item;
-                        for (String subPlaceholder : template.getPlaceholders()) {
-                            if (subPlaceholder.startsWith(normalizedPlaceholder + ".")) {
-                                String subKey = subPlaceholder.replace(normalizedPlaceholder + ".", "");
-                                if (!itemMap.containsKey(subKey)) {
-                                    System.out.println("Advertencia: Falta el dato para el marcador de posición opcional: " + subPlaceholder);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
+        PlaceholderSchema schema = template.getPlaceholderSchema();
+        if (schema == null) {
+            // Solo plantillas que no pasaron por TemplateService (p. ej. construidas a mano).
+            return;
+        }
+        Set<String> missing = schema.findMissing(data);
+        if (!missing.isEmpty()) {
+            eventLog.info("pdf.missing-placeholders", template.getName(),
+                    "Faltan datos para los marcadores de posición opcionales: " + String.join(", ", missing));
         }
     }
 
     /**
+     * Convierte el HTML fusionado a PDF usando un renderizador del pool.
+     * El DOM que produce Jsoup se convierte en memoria a un DOM W3C y se entrega
+     * directamente al renderizador, sin serializarlo a XHTML y volver a parsearlo.
+     * Cada paso (normalización, layout y escritura) se mide por separado.
      *
+     * @param templateName Nombre de la plantilla, para etiquetar las métricas.
      * @param htmlContent El string de HTML/CSS ya fusionado.
-     * @return El archivo PDF como un array de bytes.
+     * @param outputStream Flujo donde se escribe el PDF.
+     * @param fullFonts true para embeber las fuentes completas en lugar de como subconjunto.
+     * @return true si todas las imágenes estaban disponibles.
      * @throws RuntimeException Si la conversión falla.
      */
-    private byte[] convertHtmlToPdf(String htmlContent) {
-        try {
-            Document document = Jsoup.parse(htmlContent);
-            document.outputSettings().syntax(Document.OutputSettings.Syntax.xml);
+    private boolean convertHtmlToPdf(String templateName, String htmlContent, OutputStream outputStream,
+                                     boolean fullFonts) {
+        try (PdfRendererPool.Lease lease = fullFonts ? rendererPool.acquireWithFullFonts() : rendererPool.acquire()) {
+            org.w3c.dom.Document xhtmlDocument = metrics.time(PdfGenerationMetrics.STAGE_NORMALIZE, templateName, () -> {
+                Document document = Jsoup.parse(htmlContent);
+                return W3CDom.convert(document);
+            });
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            ITextRenderer renderer = lease.renderer();
 
-            ITextRenderer renderer = new ITextRenderer();
-            
-            renderer.setDocumentFromString(document.html());
-            
-            renderer.layout();
-            renderer.createPDF(outputStream);
+            metrics.time(PdfGenerationMetrics.STAGE_LAYOUT, templateName, () -> {
+                renderer.setDocument(xhtmlDocument, null);
+                renderer.layout();
+            });
 
-            byte[] pdfBytes = outputStream.toByteArray();
-            
-            outputStream.close();
-
-            return pdfBytes;
+            CountingOutputStream counter = new CountingOutputStream(outputStream);
+            metrics.time(PdfGenerationMetrics.STAGE_WRITE, templateName, () -> renderer.createPDF(counter));
+            metrics.recordOutput(templateName, counter.count, renderer.getRootBox().getLayer().getPages().size());
 
+            return !lease.userAgent().isMissingPendingImages();
+        } catch (CapacityExceededException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Error interno al convertir HTML a PDF: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Cuenta los bytes del PDF mientras se escriben en el flujo de destino.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
@@ -0,0 +1,308 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.Template;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSBoolean;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSFloat;
+import org.apache.pdfbox.cos.COSInteger;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio para combinar muchos registros de una misma plantilla en un único PDF
+ * (tiradas de impresión).
+ *
+ * <p>Cada registro se renderiza con el flujo normal de {@link PdfGenerationService} en un
+ * {@link SpillBuffer} y se añade al documento combinado con {@link PDFMergerUtility}, de
+ * uno en uno. Tanto el documento de destino como cada documento de origen usan memoria
+ * mixta de PDFBox: por encima de {@code max-main-memory-bytes} los objetos se guardan en
+ * un archivo temporal, por lo que el heap no crece con el número de registros.
+ *
+ * <p>PDFBox copia los recursos de cada documento de origen por separado, así que los
+ * logos y fuentes se duplicarían en cada registro. Tras añadir cada documento se calcula
+ * un hash SHA-256 del contenido de sus fuentes y XObjects y las páginas nuevas pasan a
+ * referenciar la primera copia idéntica; las duplicadas quedan sin referencias y no se
+ * escriben al guardar.
+ *
+ * <p>Las fuentes embebidas no son idénticas entre registros (anchos y {@code ToUnicode}
+ * dependen de los glifos usados), pero su programa ({@code FontFile*}), que es lo que
+ * pesa, sí: los registros se renderizan con {@link PdfGenerationService#renderPdfForMerge},
+ * que embebe las fuentes de {@link FontRegistry} completas, y cada descriptor de fuente pasa
+ * a referenciar el primer programa idéntico. Así cada fuente se guarda una vez y el tamaño
+ * del PDF combinado crece solo con el contenido de cada registro. Las fuentes
+ * {@code @font-face} propias de la plantilla y las colecciones {@code .ttc} siguen
+ * embebiéndose como subconjunto y se guardan una vez por registro.
+ *
+ * @see BatchGenerationService
+ */
+@Service
+public class PdfMergeService {
+
+    private static final COSName[] SHARED_RESOURCES = { COSName.FONT, COSName.XOBJECT };
+    private static final COSName[] FONT_PROGRAMS = { COSName.FONT_FILE, COSName.FONT_FILE2, COSName.FONT_FILE3 };
+
+    private final PdfGenerationService pdfGenerationService;
+    private final SpillBufferFactory spillBufferFactory;
+    private final long maxMainMemoryBytes;
+    private final File scratchDirectory;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param pdfGenerationService Servicio que renderiza cada registro.
+     * @param spillBufferFactory Fábrica de buffers para el PDF de cada registro.
+     * @param maxMainMemoryBytes Memoria máxima que PDFBox usa por documento antes de recurrir al archivo temporal.
+     * @param scratchDirectory Directorio para los archivos temporales de PDFBox.
+     */
+    public PdfMergeService(PdfGenerationService pdfGenerationService,
+                           SpillBufferFactory spillBufferFactory,
+                           @Value("${dynadocs.pdf.merge.max-main-memory-bytes:4194304}") long maxMainMemoryBytes,
+                           @Value("${dynadocs.pdf.spill.directory:${java.io.tmpdir}}") String scratchDirectory) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.spillBufferFactory = spillBufferFactory;
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+        this.scratchDirectory = new File(scratchDirectory);
+    }
+
+    /**
+     * Renderiza todos los registros con la plantilla indicada y escribe un único PDF con
+     * todas sus páginas, en el orden de los registros.
+     *
+     * @param templateType Nombre de la plantilla.
+     * @param records Registros a renderizar (se consumen de forma perezosa).
+     * @param outputStream Flujo donde se escribe el PDF combinado.
+     * @throws IllegalArgumentException Si la plantilla no existe o algún registro no es válido.
+     * @throws CapacityExceededException Si hay demasiados renders en curso.
+     * @throws IOException Si PDFBox no puede leer o escribir los documentos.
+     */
+    public void mergeTo(String templateType, Iterator<Map<String, Object>> records, OutputStream outputStream)
+            throws IOException {
+        Template template = pdfGenerationService.loadTemplateByType(templateType);
+        if (!records.hasNext()) {
+            throw new IllegalArgumentException("La lista de registros (data) no puede estar vacía.");
+        }
+
+        PDFMergerUtility merger = new PDFMergerUtility();
+        ResourceDeduplicator deduplicator = new ResourceDeduplicator();
+        try (PDDocument merged = new PDDocument(memoryUsage())) {
+            int index = 0;
+            while (records.hasNext()) {
+                index++;
+                Map<String, Object> data = records.next();
+                int firstNewPage = merged.getNumberOfPages();
+                try (SpillBuffer buffer = spillBufferFactory.create()) {
+                    try {
+                        pdfGenerationService.renderPdfForMerge(template, data, buffer.outputStream());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Registro " + index + ": " + e.getMessage(), e);
+                    }
+                    try (InputStream in = buffer.openInputStream();
+                         PDDocument source = PDDocument.load(in, memoryUsage())) {
+                        merger.appendDocument(merged, source);
+                    }
+                }
+                for (int i = firstNewPage; i < merged.getNumberOfPages(); i++) {
+                    deduplicator.deduplicate(merged.getPage(i));
+                }
+            }
+            merged.save(outputStream);
+        }
+    }
+
+    private MemoryUsageSetting memoryUsage() {
+        return MemoryUsageSetting.setupMixed(maxMainMemoryBytes).setTempDir(scratchDirectory);
+    }
+
+    /**
+     * Sustituye las fuentes y XObjects de cada página por la primera copia con el mismo
+     * contenido. Vive lo que dura una combinación.
+     */
+    static final class ResourceDeduplicator {
+
+        private final Map<String, COSBase> canonicalByDigest = new HashMap<>();
+        private final Map<COSBase, COSBase> canonicalByObject = new IdentityHashMap<>();
+        private final MessageDigest digest;
+
+        ResourceDeduplicator() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 no disponible", e);
+            }
+        }
+
+        void deduplicate(PDPage page) throws IOException {
+            PDResources resources = page.getResources();
+            if (resources == null) {
+                return;
+            }
+            for (COSName category : SHARED_RESOURCES) {
+                COSBase entries = dereference(resources.getCOSObject().getItem(category));
+                if (!(entries instanceof COSDictionary dictionary)) {
+                    continue;
+                }
+                for (COSName name : new ArrayList<>(dictionary.keySet())) {
+                    COSBase entry = dictionary.getItem(name);
+                    COSBase target = dereference(entry);
+                    if (target == null) {
+                        continue;
+                    }
+                    COSBase canonical = canonicalByObject.get(target);
+                    if (canonical == null) {
+                        String key = category.getName() + ':' + hash(target);
+                        canonical = canonicalByDigest.putIfAbsent(key, entry);
+                        if (canonical == null) {
+                            canonical = entry;
+                            // Fuente nueva: aunque no coincida entera, su programa puede repetirse.
+                            if (category == COSName.FONT && target instanceof COSDictionary font) {
+                                shareFontPrograms(font);
+                            }
+                        }
+                        canonicalByObject.put(target, canonical);
+                    }
+                    if (canonical != entry) {
+                        dictionary.setItem(name, canonical);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Hace que los descriptores de una fuente (y de sus descendientes, en fuentes
+         * compuestas) referencien el primer programa de fuente con el mismo contenido.
+         */
+        private void shareFontPrograms(COSDictionary font) throws IOException {
+            shareFontPrograms(dereference(font.getItem(COSName.FONT_DESC)));
+            if (dereference(font.getItem(COSName.DESCENDANT_FONTS)) instanceof COSArray descendants) {
+                for (COSBase descendant : descendants) {
+                    if (dereference(descendant) instanceof COSDictionary descendantFont) {
+                        shareFontPrograms(dereference(descendantFont.getItem(COSName.FONT_DESC)));
+                    }
+                }
+            }
+        }
+
+        private void shareFontPrograms(COSBase descriptor) throws IOException {
+            if (!(descriptor instanceof COSDictionary dictionary)) {
+                return;
+            }
+            for (COSName key : FONT_PROGRAMS) {
+                COSBase entry = dictionary.getItem(key);
+                COSBase program = dereference(entry);
+                if (!(program instanceof COSStream)) {
+                    continue;
+                }
+                COSBase canonical = canonicalByDigest.putIfAbsent(key.getName() + ':' + hash(program), entry);
+                if (canonical != null && canonical != entry) {
+                    dictionary.setItem(key, canonical);
+                }
+            }
+        }
+
+        String hash(COSBase base) throws IOException {
+            digest.reset();
+            update(base, Collections.newSetFromMap(new IdentityHashMap<>()));
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        private void update(COSBase value, Set<COSBase> path) throws IOException {
+            COSBase base = dereference(value);
+            if (base == null) {
+                digest.update((byte) 'n');
+                return;
+            }
+            if (!path.add(base)) {
+                // Referencia circular: basta con marcarla.
+                digest.update((byte) '^');
+                return;
+            }
+            try {
+                if (base instanceof COSStream stream) {
+                    digest.update((byte) 's');
+                    updateDictionary(stream, path);
+                    try (InputStream in = stream.createRawInputStream()) {
+                        byte[] chunk = new byte[8192];
+                        int read;
+                        while ((read = in.read(chunk)) != -1) {
+                            digest.update(chunk, 0, read);
+                        }
+                    }
+                } else if (base instanceof COSDictionary dictionary) {
+                    digest.update((byte) 'd');
+                    updateDictionary(dictionary, path);
+                } else if (base instanceof COSArray array) {
+                    updateToken('a', Integer.toString(array.size()));
+                    for (COSBase item : array) {
+                        update(item, path);
+                    }
+                } else if (base instanceof COSName name) {
+                    updateToken('N', name.getName());
+                } else if (base instanceof COSString string) {
+                    updateToken('S', Integer.toString(string.getBytes().length));
+                    digest.update(string.getBytes());
+                } else if (base instanceof COSInteger integer) {
+                    updateToken('i', Long.toString(integer.longValue()));
+                } else if (base instanceof COSFloat number) {
+                    updateToken('f', Float.toString(number.floatValue()));
+                } else if (base instanceof COSBoolean bool) {
+                    updateToken('b', Boolean.toString(bool.getValue()));
+                } else {
+                    updateToken('?', base.toString());
+                }
+            } finally {
+                path.remove(base);
+            }
+        }
+
+        private void updateDictionary(COSDictionary dictionary, Set<COSBase> path) throws IOException {
+            List<COSName> keys = new ArrayList<>(dictionary.keySet());
+            keys.sort(null);
+            for (COSName key : keys) {
+                if (COSName.LENGTH.equals(key) && dictionary instanceof COSStream) {
+                    continue;
+                }
+                updateToken('k', key.getName());
+                update(dictionary.getItem(key), path);
+            }
+            digest.update((byte) 'e');
+        }
+
+        private void updateToken(char type, String text) {
+            digest.update((byte) type);
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+
+        private static COSBase dereference(COSBase base) {
+            return base instanceof COSObject object ? object.getObject() : base;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.dinadocs.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xhtmlrenderer.pdf.ITextFontResolver;
+import org.xhtmlrenderer.pdf.ITextOutputDevice;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool acotado de contextos de renderizado de Flying Saucer.
+ *
+ * <p>Cada entrada del pool conserva un {@link ITextFontResolver} con el juego de fuentes
+ * del {@link FontRegistry} ya registrado, que es la parte costosa de crear un {@link ITextRenderer}. El renderer en sí
+ * se construye por uso alrededor de ese resolver, porque su dispositivo de salida acumula
+ * metadatos del documento anterior que no pueden reiniciarse. Entre usos se descartan las
+ * fuentes {@code @font-face} propias del documento. Cada entrada crea, solo si se pide con
+ * {@link #acquireWithFullFonts()}, un segundo resolver que embebe las fuentes completas
+ * para los PDFs que se van a combinar.
+ *
+ * <p>El tamaño del pool limita cuántos PDFs se generan a la vez. La admisión la decide
+ * antes {@link RenderBulkhead}, así que normalmente siempre hay un renderizador libre; si
+ * no (p. ej. un {@code max-limit} mayor que el pool), el hilo espera hasta
+ * {@code acquire-timeout-ms} y se rechaza con {@link CapacityExceededException}. Las métricas {@code dynadocs.pdf.renderer.pool.*}
+ * muestran la ocupación y la saturación.
+ *
+ * @see PdfGenerationService
+ */
+@Component
+public class PdfRendererPool implements MeterBinder {
+
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final TemplateImageResolver imageResolver;
+    private final FontRegistry fontRegistry;
+    private final BlockingQueue<Slot> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private Counter rejections;
+    private Timer acquireTimer;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param maxSize Número máximo de renderizadores simultáneos.
+     * @param acquireTimeoutMillis Tiempo máximo de espera por un renderizador libre.
+     * @param imageResolver Resolución y caché de imágenes compartida por todos los renders.
+     * @param fontRegistry Fuentes precargadas que se registran en cada renderizador.
+     */
+    public PdfRendererPool(@Value("${dynadocs.pdf.renderer-pool.size:2}") int maxSize,
+                           @Value("${dynadocs.pdf.renderer-pool.acquire-timeout-ms:10000}") long acquireTimeoutMillis,
+                           TemplateImageResolver imageResolver,
+                           FontRegistry fontRegistry) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("El tamaño del pool de renderizadores debe ser mayor que cero.");
+        }
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.imageResolver = imageResolver;
+        this.fontRegistry = fontRegistry;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Obtiene un renderizador del pool, esperando si todos están ocupados.
+     * Debe liberarse con {@link Lease#close()} (try-with-resources).
+     *
+     * @return Préstamo con un {@link ITextRenderer} listo para usar.
+     * @throws CapacityExceededException Si no queda ningún renderizador libre tras la espera.
+     */
+    public Lease acquire() {
+        return acquire(true);
+    }
+
+    /**
+     * Como {@link #acquire()}, pero el renderizador embebe las fuentes de {@link FontRegistry}
+     * completas en lugar de como subconjunto, para que {@link PdfMergeService} pueda
+     * guardarlas una sola vez en el documento combinado.
+     *
+     * @return Préstamo con un {@link ITextRenderer} listo para usar.
+     * @throws CapacityExceededException Si no queda ningún renderizador libre tras la espera.
+     */
+    public Lease acquireWithFullFonts() {
+        return acquire(false);
+    }
+
+    private Lease acquire(boolean subsetFonts) {
+        long start = System.nanoTime();
+        Slot slot = idle.poll();
+        if (slot == null) {
+            slot = createIfBelowLimit();
+        }
+        if (slot == null) {
+            waiting.incrementAndGet();
+            try {
+                slot = idle.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        long waited = System.nanoTime() - start;
+        ServerTiming.record("renderer_wait", waited);
+        if (acquireTimer != null) {
+            acquireTimer.record(waited, TimeUnit.NANOSECONDS);
+        }
+        if (slot == null) {
+            if (rejections != null) {
+                rejections.increment();
+            }
+            throw new CapacityExceededException("No hay renderizadores de PDF disponibles, intente de nuevo más tarde.",
+                    TimeUnit.MILLISECONDS.toSeconds(acquireTimeoutMillis));
+        }
+        try {
+            Lease lease = new Lease(slot, slot.fontResolver(subsetFonts));
+            active.incrementAndGet();
+            return lease;
+        } catch (RuntimeException e) {
+            idle.offer(slot);
+            throw e;
+        }
+    }
+
+    private Slot createIfBelowLimit() {
+        while (true) {
+            int current = created.get();
+            if (current >= maxSize) {
+                return null;
+            }
+            if (created.compareAndSet(current, current + 1)) {
+                try {
+                    return new Slot(newFontResolver(true));
+                } catch (RuntimeException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private ITextFontResolver newFontResolver(boolean subsetFonts) {
+        ITextFontResolver fontResolver = new ITextFontResolver();
+        fontRegistry.registerWith(fontResolver, subsetFonts);
+        return fontResolver;
+    }
+
+    private void release(Slot slot, ITextFontResolver fontResolver) {
+        active.decrementAndGet();
+        fontResolver.flushFontFaceFonts();
+        idle.offer(slot);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dynadocs.pdf.renderer.pool.max", this, PdfRendererPool::getMaxSize)
+                .description("Tamaño máximo del pool de renderizadores")
+                .register(registry);
+        Gauge.builder("dynadocs.pdf.renderer.pool.active", this, PdfRendererPool::getActiveCount)
+                .description("Renderizadores en uso")
+                .register(registry);
+        Gauge.builder("dynadocs.pdf.renderer.pool.waiting", this, PdfRendererPool::getWaitingCount)
+                .description("Hilos esperando un renderizador libre")
+                .register(registry);
+        rejections = Counter.builder("dynadocs.pdf.renderer.pool.rejections")
+                .description("Solicitudes que agotaron la espera por un renderizador")
+                .register(registry);
+        acquireTimer = Timer.builder("dynadocs.pdf.renderer.pool.acquire")
+                .description("Tiempo de espera para obtener un renderizador")
+                .register(registry);
+    }
+
+    /**
+     * Entrada del pool: el resolver de fuentes normal y, si alguna vez se pidió, el de
+     * fuentes completas. Solo la usa el hilo que la tiene prestada.
+     */
+    private final class Slot {
+
+        private final ITextFontResolver subsetFonts;
+        private ITextFontResolver fullFonts;
+
+        private Slot(ITextFontResolver subsetFonts) {
+            this.subsetFonts = subsetFonts;
+        }
+
+        private ITextFontResolver fontResolver(boolean subset) {
+            if (subset) {
+                return subsetFonts;
+            }
+            if (fullFonts == null) {
+                fullFonts = newFontResolver(false);
+            }
+            return fullFonts;
+        }
+    }
+
+    /**
+     * Préstamo de un renderizador del pool. Al cerrarse devuelve el contexto al pool.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Slot slot;
+        private final ITextFontResolver fontResolver;
+        private final TemplateUserAgent userAgent;
+        private final ITextRenderer renderer;
+        private boolean released;
+
+        private Lease(Slot slot, ITextFontResolver fontResolver) {
+            this.slot = slot;
+            this.fontResolver = fontResolver;
+            ITextOutputDevice outputDevice = new ITextOutputDevice(ITextRenderer.DEFAULT_DOTS_PER_POINT);
+            this.userAgent = new TemplateUserAgent(outputDevice, ITextRenderer.DEFAULT_DOTS_PER_PIXEL, imageResolver);
+            this.renderer = new ITextRenderer(ITextRenderer.DEFAULT_DOTS_PER_POINT,
+                    ITextRenderer.DEFAULT_DOTS_PER_PIXEL, outputDevice, userAgent, fontResolver);
+        }
+
+        /**
+         * @return Renderizador de uso exclusivo mientras dure el préstamo.
+         */
+        public ITextRenderer renderer() {
+            return renderer;
+        }
+
+        /**
+         * @return User agent del renderizador, para consultar el estado de sus imágenes.
+         */
+        public TemplateUserAgent userAgent() {
+            return userAgent;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(slot, fontResolver);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.dinadocs.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compartimento (bulkhead) que limita cuántos PDFs se renderizan a la vez. Es el único punto
+ * de admisión de los renders: generación síncrona, combinación, lotes y trabajos asíncronos
+ * pasan por aquí antes de pedir un renderizador a {@link PdfRendererPool}. Con
+ * {@code max-limit} no mayor que el tamaño del pool, un permiso garantiza un renderizador
+ * libre y la latencia medida es la del render, no la espera por el pool.
+ *
+ * <p>El límite se adapta a la latencia observada (AIMD): se compara una media móvil corta
+ * de la duración de los renders con una media larga que hace de referencia. Si la corta
+ * supera a la larga por más de {@code tolerance}, el sistema está saturado y el límite se
+ * reduce un 10 %; si no, y el límite se está usando, cada render correcto le suma
+ * {@code 1 / límite}, es decir, crece en uno por cada ventana de {@code límite} renders
+ * completos, hasta {@code max-limit}. Así el número de renders simultáneos sigue al
+ * presupuesto real de CPU y memoria en lugar de a un valor fijo.
+ *
+ * <p>Cuando el límite está completo, como mucho {@code max-queue} peticiones esperan
+ * {@code max-wait-ms}; el resto se rechaza de inmediato con
+ * {@link CapacityExceededException} (HTTP 429 con {@code Retry-After}). Los lotes y los
+ * trabajos asíncronos esperan su turno sin límite con {@link #acquireQueued()}: sus hilos
+ * ya están acotados por sus propios pools y un rechazo haría fallar registros sueltos. Se usan locks de
+ * {@code java.util.concurrent} para que las esperas no bloqueen hilos de plataforma cuando
+ * las peticiones se atienden en hilos virtuales.
+ *
+ * @see PdfGenerationService
+ */
+@Component
+public class RenderBulkhead implements MeterBinder {
+
+    private static final double SHORT_ALPHA = 0.2;
+    private static final double LONG_ALPHA = 0.02;
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final double tolerance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private int queuedWaiting;
+    private double shortLatencyNanos;
+    private double longLatencyNanos;
+
+    private Counter rejections;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param minLimit Límite mínimo de renders simultáneos.
+     * @param maxLimit Límite máximo (y valor inicial) de renders simultáneos.
+     * @param maxQueue Peticiones que pueden esperar cuando el límite está completo.
+     * @param maxWaitMillis Espera máxima de una petición en cola.
+     * @param tolerance Cuántas veces puede superar la latencia reciente a la de referencia antes de reducir el límite.
+     */
+    public RenderBulkhead(@Value("${dynadocs.pdf.bulkhead.min-limit:1}") int minLimit,
+                          @Value("${dynadocs.pdf.bulkhead.max-limit:${dynadocs.pdf.renderer-pool.size:2}}") int maxLimit,
+                          @Value("${dynadocs.pdf.bulkhead.max-queue:8}") int maxQueue,
+                          @Value("${dynadocs.pdf.bulkhead.max-wait-ms:2000}") long maxWaitMillis,
+                          @Value("${dynadocs.pdf.bulkhead.tolerance:2.0}") double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Límites del bulkhead inválidos: min=" + minLimit + ", max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.tolerance = tolerance;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Obtiene un permiso para renderizar, esperando en la cola si hace falta.
+     * Debe liberarse con {@link Permit#close()} (try-with-resources).
+     *
+     * @return Permiso que mide la latencia del render al cerrarse.
+     * @throws CapacityExceededException Si la cola está llena o se agota la espera.
+     */
+    public Permit acquire() {
+        lock.lock();
+        try {
+            if (inFlight >= currentLimit()) {
+                if (waiting >= maxQueue) {
+                    throw reject();
+                }
+                waiting++;
+                try {
+                    long remaining = maxWaitNanos;
+                    while (inFlight >= currentLimit()) {
+                        if (remaining <= 0) {
+                            throw reject();
+                        }
+                        remaining = permitReleased.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject();
+                } finally {
+                    waiting--;
+                }
+            }
+            inFlight++;
+            return new Permit(inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene un permiso esperando sin límite de tiempo ni de cola, para los renders de
+     * lotes y trabajos asíncronos. Debe liberarse con {@link Permit#close()}.
+     *
+     * @return Permiso que mide la latencia del render al cerrarse.
+     * @throws CapacityExceededException Si el hilo se interrumpe mientras espera.
+     */
+    public Permit acquireQueued() {
+        lock.lock();
+        try {
+            queuedWaiting++;
+            try {
+                while (inFlight >= currentLimit()) {
+                    permitReleased.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject();
+            } finally {
+                queuedWaiting--;
+            }
+            inFlight++;
+            return new Permit(inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long latencyNanos, int inFlightAtStart, boolean succeeded) {
+        lock.lock();
+        try {
+            inFlight--;
+            // Los errores (datos inválidos, plantillas rotas) no dicen nada de la carga.
+            if (succeeded) {
+                recordLatency(latencyNanos, inFlightAtStart);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ajusta el límite con una nueva muestra de latencia. Debe llamarse con el lock tomado.
+     */
+    void recordLatency(long latencyNanos, int inFlightAtStart) {
+        if (longLatencyNanos == 0) {
+            shortLatencyNanos = latencyNanos;
+            longLatencyNanos = latencyNanos;
+            return;
+        }
+        shortLatencyNanos += SHORT_ALPHA * (latencyNanos - shortLatencyNanos);
+        longLatencyNanos += LONG_ALPHA * (latencyNanos - longLatencyNanos);
+
+        if (shortLatencyNanos > longLatencyNanos * tolerance) {
+            limit = Math.max(minLimit, limit * DECREASE_FACTOR);
+        } else if (inFlightAtStart >= currentLimit()) {
+            limit = Math.min(maxLimit, limit + 1.0 / currentLimit());
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private CapacityExceededException reject() {
+        if (rejections != null) {
+            rejections.increment();
+        }
+        // Tiempo aproximado hasta que se vacíe lo que ya está en cola.
+        double expectedNanos = Math.max(shortLatencyNanos, TimeUnit.SECONDS.toNanos(1))
+                * (waiting + queuedWaiting + 1) / currentLimit();
+        return new CapacityExceededException("El servidor está generando demasiados documentos, intente de nuevo más tarde.",
+                (long) Math.ceil(expectedNanos / TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting + queuedWaiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dynadocs.pdf.bulkhead.limit", this, RenderBulkhead::getLimit)
+                .description("Límite adaptativo de renders simultáneos")
+                .register(registry);
+        Gauge.builder("dynadocs.pdf.bulkhead.inflight", this, RenderBulkhead::getInFlight)
+                .description("Renders en curso")
+                .register(registry);
+        Gauge.builder("dynadocs.pdf.bulkhead.waiting", this, RenderBulkhead::getWaiting)
+                .description("Renders esperando en la cola del bulkhead")
+                .register(registry);
+        rejections = Counter.builder("dynadocs.pdf.bulkhead.rejections")
+                .description("Peticiones rechazadas con 429 por saturación")
+                .register(registry);
+    }
+
+    /**
+     * Permiso de render. Al cerrarse libera el hueco y alimenta el límite adaptativo.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long start = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean succeeded;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Marca el render como correcto para que su latencia cuente en el límite.
+         */
+        public void success() {
+            succeeded = true;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(System.nanoTime() - start, inFlightAtStart, succeeded);
+            }
+        }
+    }
+}
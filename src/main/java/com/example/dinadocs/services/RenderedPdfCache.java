@@ -0,0 +1,303 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.Template;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché LRU de PDFs ya generados, direccionada por contenido.
+ *
+ * <p>La clave es un SHA-256 del id de la plantilla, el hash de su contenido (la versión)
+ * y los datos serializados a JSON canónico (claves ordenadas), por lo que dos peticiones
+ * con los mismos datos en distinto orden comparten entrada y cualquier cambio en la
+ * plantilla genera claves nuevas. Un acierto copia el PDF guardado sin pasar por Mustache,
+ * Jsoup ni Flying Saucer.
+ *
+ * <p>La caché está acotada por bytes ({@code max-bytes}) y no por número de entradas;
+ * los PDFs mayores que {@code max-entry-bytes} no se guardan. Con {@code off-heap=true}
+ * los PDFs se almacenan en {@link ByteBuffer} directos para no presionar el heap
+ * (cuentan contra {@code -XX:MaxDirectMemorySize}). Con {@code max-bytes=0} queda
+ * desactivada.
+ *
+ * <p>Expone {@code cache.gets} ({@code result=hit|miss}), {@code cache.evictions},
+ * {@code cache.size} y {@code cache.bytes} con el tag {@code cache=renderedPdfs}.
+ *
+ * @see PdfGenerationService
+ */
+@Component
+public class RenderedPdfCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "renderedPdfs";
+
+    private static final ObjectMapper CANONICAL_JSON = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final boolean offHeap;
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long totalBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param maxBytes Bytes totales de PDFs que se mantienen en caché (0 la desactiva).
+     * @param maxEntryBytes Tamaño máximo de un PDF para guardarse en caché.
+     * @param offHeap Si los PDFs se guardan fuera del heap.
+     */
+    public RenderedPdfCache(@Value("${dynadocs.pdf.cache.max-bytes:67108864}") long maxBytes,
+                            @Value("${dynadocs.pdf.cache.max-entry-bytes:4194304}") long maxEntryBytes,
+                            @Value("${dynadocs.pdf.cache.off-heap:false}") boolean offHeap) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * @return true si la caché guarda PDFs.
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Calcula la clave de caché de una generación.
+     *
+     * @param template Plantilla (se usan su id y su contenido).
+     * @param data Datos del documento.
+     * @return Hash hexadecimal que identifica el PDF resultante.
+     */
+    public String key(Template template, Map<String, Object> data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(template.getId()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Objects.requireNonNullElse(template.getContent(), "").getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            // Se serializa directamente sobre el digest, sin materializar el JSON.
+            CANONICAL_JSON.writeValue(new DigestOutputStream(OutputStream.nullOutputStream(), digest), data);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Los datos no se pueden serializar para la caché: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copia el PDF en caché al flujo indicado, si existe.
+     *
+     * @param key Clave calculada con {@link #key(Template, Map)}.
+     * @param outputStream Flujo de destino.
+     * @return true si hubo acierto y el PDF se copió.
+     * @throws IOException Si falla la escritura.
+     */
+    public boolean copyTo(String key, OutputStream outputStream) throws IOException {
+        ByteBuffer cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        hits.incrementAndGet();
+        ByteBuffer view = cached.duplicate();
+        if (view.hasArray()) {
+            outputStream.write(view.array(), view.arrayOffset() + view.position(), view.remaining());
+        } else {
+            byte[] chunk = new byte[(int) Math.min(8192, view.remaining())];
+            while (view.hasRemaining()) {
+                int length = Math.min(chunk.length, view.remaining());
+                view.get(chunk, 0, length);
+                outputStream.write(chunk, 0, length);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Envuelve el flujo de salida de un render para guardar una copia del PDF.
+     * Si el PDF supera {@code max-entry-bytes} la copia se descarta sobre la marcha.
+     *
+     * @param key Clave bajo la que se guardará.
+     * @param target Flujo de destino real.
+     * @return Flujo que escribe en {@code target} y, al confirmarse, guarda la copia.
+     */
+    public Recorder record(String key, OutputStream target) {
+        return new Recorder(key, target);
+    }
+
+    private void put(String key, byte[] pdf, int length) {
+        ByteBuffer stored;
+        if (offHeap) {
+            stored = ByteBuffer.allocateDirect(length).put(pdf, 0, length).flip();
+        } else {
+            stored = ByteBuffer.wrap(pdf.length == length ? pdf : Arrays.copyOf(pdf, length));
+        }
+        synchronized (entries) {
+            ByteBuffer previous = entries.put(key, stored);
+            if (previous != null) {
+                totalBytes -= previous.remaining();
+            }
+            totalBytes += length;
+            Iterator<ByteBuffer> eldest = entries.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().remaining();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return Número de PDFs en caché.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return Bytes de PDF retenidos por la caché.
+     */
+    public long getTotalBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("PDFs servidos desde la caché")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("PDFs que tuvieron que generarse")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .description("PDFs descartados por LRU")
+                .register(registry);
+        Gauge.builder("cache.size", this, RenderedPdfCache::size)
+                .tag("cache", CACHE_NAME)
+                .description("PDFs en caché")
+                .register(registry);
+        Gauge.builder("cache.bytes", this, RenderedPdfCache::getTotalBytes)
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .description("Bytes de PDF retenidos por la caché")
+                .register(registry);
+    }
+
+    /**
+     * Flujo que reenvía al destino real y conserva una copia mientras no supere el límite.
+     */
+    public final class Recorder extends OutputStream {
+
+        private final String key;
+        private final OutputStream target;
+        private Copy copy = new Copy();
+
+        private Recorder(String key, OutputStream target) {
+            this.key = key;
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            if (keep(1)) {
+                copy.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            if (keep(len)) {
+                copy.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        /**
+         * No cierra el destino: su dueño es quien lo creó.
+         */
+        @Override
+        public void close() {
+        }
+
+        /**
+         * Guarda la copia en la caché. Solo debe llamarse si el render terminó bien.
+         */
+        public void commit() {
+            if (copy != null) {
+                put(key, copy.buffer(), copy.size());
+                copy = null;
+            }
+        }
+
+        private boolean keep(int incoming) {
+            if (copy != null && copy.size() + (long) incoming > maxEntryBytes) {
+                copy = null;
+            }
+            return copy != null;
+        }
+    }
+
+    /**
+     * ByteArrayOutputStream que expone su arreglo interno para evitar una copia extra.
+     */
+    private static final class Copy extends ByteArrayOutputStream {
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.dinadocs.services;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Duraciones por etapa de la petición en curso, para la cabecera {@code Server-Timing}.
+ *
+ * <p>{@link com.example.dinadocs.config.ServerTimingFilter} abre un registro al empezar
+ * la petición y lo asocia al hilo; los servicios anotan sus etapas con
+ * {@link #record(String, long)} sin conocer la petición. Si no hay registro abierto
+ * (otra ruta, hilos de lotes o trabajos asíncronos) las anotaciones se ignoran. Una etapa
+ * que se repite en la misma petición acumula su duración.
+ *
+ * @see PdfGenerationMetrics
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    /**
+     * Abre un registro para el hilo actual.
+     *
+     * @return El registro abierto.
+     */
+    public static ServerTiming open() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Desasocia el registro del hilo actual.
+     */
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Anota la duración de una etapa en el registro del hilo actual, si lo hay.
+     *
+     * @param name Nombre de la etapa (token HTTP, sin espacios).
+     * @param nanos Duración en nanosegundos.
+     */
+    public static void record(String name, long nanos) {
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(name, nanos);
+        }
+    }
+
+    /**
+     * Ejecuta una etapa y anota su duración, también si termina con excepción.
+     *
+     * @param name Nombre de la etapa.
+     * @param step La etapa.
+     * @return El resultado de la etapa.
+     */
+    public static <T> T time(String name, Supplier<T> step) {
+        if (CURRENT.get() == null) {
+            return step.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            record(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Copia de las etapas anotadas hasta ahora en la petición del hilo actual.
+     *
+     * @return Duraciones en nanosegundos por etapa (vacío si no hay registro abierto).
+     */
+    public static Map<String, Long> snapshot() {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return Map.of();
+        }
+        synchronized (timing) {
+            return new LinkedHashMap<>(timing.durations);
+        }
+    }
+
+    private synchronized void add(String name, long nanos) {
+        durations.merge(name, nanos, Long::sum);
+    }
+
+    /**
+     * Valor de la cabecera, en milisegundos: {@code auth;dur=1.2, layout;dur=35.0, total;dur=40.1}.
+     *
+     * @param totalNanos Duración total de la petición hasta el momento.
+     * @return Las etapas anotadas seguidas del total.
+     */
+    public synchronized String toHeaderValue(long totalNanos) {
+        StringBuilder header = new StringBuilder();
+        durations.forEach((name, nanos) -> append(header, name, nanos));
+        append(header, "total", totalNanos);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0));
+    }
+}
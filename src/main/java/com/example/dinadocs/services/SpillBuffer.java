@@ -0,0 +1,166 @@
+package com.example.dinadocs.services;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Buffer de escritura que mantiene los datos en memoria hasta un umbral y,
+ * a partir de él, los vuelca a un archivo temporal.
+ *
+ * <p>Permite generar un PDF completo antes de empezar a responder (para poder devolver
+ * un error limpio si algo falla) sin que los documentos grandes ocupen el heap.
+ * Al cerrarse se elimina el archivo temporal, si lo hubo.
+ *
+ * @see SpillBufferFactory
+ */
+public class SpillBuffer implements Closeable {
+
+    private final int threshold;
+    private final Path directory;
+
+    private MemoryStream memory = new MemoryStream();
+    private Path file;
+    private OutputStream fileOut;
+    private long size;
+    private boolean closed;
+
+    private final OutputStream outputStream = new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+            target(1).write(b);
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target(len).write(b, off, len);
+            size += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (fileOut != null) {
+                fileOut.flush();
+            }
+        }
+    };
+
+    /**
+     * @param threshold Bytes que se mantienen en memoria antes de volcar a disco.
+     * @param directory Directorio para el archivo temporal.
+     */
+    public SpillBuffer(int threshold, Path directory) {
+        this.threshold = threshold;
+        this.directory = directory;
+    }
+
+    /**
+     * @return Flujo donde escribir el contenido. Cerrarlo no libera el buffer.
+     */
+    public OutputStream outputStream() {
+        return outputStream;
+    }
+
+    /**
+     * @return Número de bytes escritos.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return true si el contenido superó el umbral y está en disco.
+     */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * Copia todo el contenido escrito al flujo indicado.
+     *
+     * @param target Flujo de destino (p. ej. la respuesta HTTP).
+     * @throws IOException Si falla la lectura o la escritura.
+     */
+    public void writeTo(OutputStream target) throws IOException {
+        ensureOpen();
+        if (file != null) {
+            fileOut.flush();
+            Files.copy(file, target);
+        } else {
+            memory.writeTo(target);
+        }
+    }
+
+    /**
+     * Abre un flujo de lectura sobre el contenido escrito, sin copiarlo.
+     *
+     * @return InputStream sobre la memoria o el archivo temporal.
+     * @throws IOException Si no se puede abrir el archivo temporal.
+     */
+    public InputStream openInputStream() throws IOException {
+        ensureOpen();
+        if (file != null) {
+            fileOut.flush();
+            return Files.newInputStream(file);
+        }
+        return memory.asInputStream();
+    }
+
+    /**
+     * Libera la memoria y elimina el archivo temporal.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        memory = null;
+        try {
+            if (fileOut != null) {
+                fileOut.close();
+            }
+        } finally {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private OutputStream target(int incoming) throws IOException {
+        ensureOpen();
+        if (file == null && memory.size() + (long) incoming > threshold) {
+            spill();
+        }
+        return file != null ? fileOut : memory;
+    }
+
+    private void spill() throws IOException {
+        file = Files.createTempFile(directory, "dynadocs-", ".tmp");
+        fileOut = new BufferedOutputStream(Files.newOutputStream(file));
+        memory.writeTo(fileOut);
+        memory = new MemoryStream();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("El buffer ya fue liberado.");
+        }
+    }
+
+    /**
+     * ByteArrayOutputStream que permite leer su contenido sin copiar el arreglo interno.
+     */
+    private static final class MemoryStream extends ByteArrayOutputStream {
+        InputStream asInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
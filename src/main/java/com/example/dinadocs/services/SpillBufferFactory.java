@@ -0,0 +1,35 @@
+package com.example.dinadocs.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Crea {@link SpillBuffer} con el umbral y el directorio temporal configurados.
+ */
+@Component
+public class SpillBufferFactory {
+
+    private final int threshold;
+    private final Path directory;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param threshold Bytes que cada buffer mantiene en memoria antes de volcar a disco.
+     * @param directory Directorio donde se crean los archivos temporales.
+     */
+    public SpillBufferFactory(@Value("${dynadocs.pdf.spill.threshold-bytes:1048576}") int threshold,
+                              @Value("${dynadocs.pdf.spill.directory:${java.io.tmpdir}}") String directory) {
+        this.threshold = threshold;
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * @return Un buffer vacío; debe cerrarse para liberar el archivo temporal.
+     */
+    public SpillBuffer create() {
+        return new SpillBuffer(threshold, directory);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.dinadocs.services;
+
+/**
+ * Se lanza cuando guardar un archivo superaría el espacio reservado para ese almacén.
+ * A diferencia de {@link CapacityExceededException}, reintentar no sirve hasta que se
+ * libere espacio; los controladores la traducen a {@code 507 Insufficient Storage}.
+ */
+public class StorageQuotaExceededException extends RuntimeException {
+
+    /**
+     * @param message Mensaje para el cliente.
+     */
+    public StorageQuotaExceededException(String message) {
+        super(message);
+    }
+}
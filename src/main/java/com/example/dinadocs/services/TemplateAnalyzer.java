@@ -0,0 +1,115 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.PlaceholderSchema;
+import com.github.mustachejava.Code;
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.DefaultMustacheVisitor;
+import com.github.mustachejava.Mustache;
+import com.github.mustachejava.MustacheException;
+import com.github.mustachejava.MustacheVisitor;
+import com.github.mustachejava.TemplateContext;
+import com.github.mustachejava.codes.DefaultCode;
+import com.github.mustachejava.codes.ExtendCheckNameCode;
+import com.github.mustachejava.codes.ExtendNameCode;
+import com.github.mustachejava.codes.IterableCode;
+import com.github.mustachejava.codes.NotIterableCode;
+import com.github.mustachejava.codes.ValueCode;
+import org.springframework.stereotype.Component;
+
+import java.io.StringReader;
+
+/**
+ * Analiza el contenido de una plantilla con el parser de mustache.java y produce su
+ * {@link PlaceholderSchema}.
+ *
+ * <p>Al usar el mismo parser que la generación, la estructura coincide con lo que
+ * Mustache realmente evaluará: delimitadores personalizados, comentarios, variables sin
+ * escapar ({@code {{{x}}}}, {@code {{&x}}}) y secciones anidadas se interpretan igual.
+ * Los parciales solo se registran por nombre; no se cargan. Se llama al guardar una
+ * plantilla y el resultado se persiste con ella.
+ *
+ * @see TemplateService
+ */
+@Component
+public class TemplateAnalyzer {
+
+    /**
+     * Analiza una plantilla.
+     *
+     * @param content Contenido HTML con etiquetas Mustache.
+     * @return La estructura de placeholders (vacía si no hay contenido).
+     * @throws IllegalArgumentException Si la sintaxis Mustache no es válida (p. ej. una sección sin cerrar).
+     */
+    public PlaceholderSchema analyze(String content) {
+        PlaceholderSchema schema = new PlaceholderSchema();
+        if (content == null || content.isEmpty()) {
+            return schema;
+        }
+        Mustache mustache;
+        try {
+            mustache = new AnalyzingMustacheFactory().compile(new StringReader(content), "template");
+        } catch (MustacheException e) {
+            throw new IllegalArgumentException("La plantilla no es válida: " + e.getMessage(), e);
+        }
+        collect(mustache.getCodes(), schema);
+        return schema;
+    }
+
+    private void collect(Code[] codes, PlaceholderSchema node) {
+        if (codes == null) {
+            return;
+        }
+        for (Code code : codes) {
+            String name = code.getName();
+            if (code instanceof NotIterableCode) {
+                // El contenido de una sección invertida se evalúa en el mismo ámbito.
+                node.getInvertedSections().add(name);
+                collect(code.getCodes(), node);
+            } else if (code instanceof IterableCode) {
+                PlaceholderSchema section = node.getSections().computeIfAbsent(name, key -> new PlaceholderSchema());
+                collect(code.getCodes(), section);
+            } else if (code instanceof ValueCode) {
+                if (!".".equals(name)) {
+                    node.getFields().add(name);
+                }
+            } else if (code instanceof PartialReference) {
+                node.getPartials().add(name);
+                collect(code.getCodes(), node);
+            } else if (code instanceof ExtendNameCode || code instanceof ExtendCheckNameCode) {
+                collect(code.getCodes(), node);
+            }
+        }
+    }
+
+    /**
+     * Fábrica que registra los parciales en lugar de resolverlos desde disco.
+     */
+    private static final class AnalyzingMustacheFactory extends DefaultMustacheFactory {
+
+        @Override
+        public MustacheVisitor createMustacheVisitor() {
+            return new DefaultMustacheVisitor(this) {
+                @Override
+                public void partial(TemplateContext tc, String variable) {
+                    list.add(new PartialReference(tc, df, null, variable, ">"));
+                }
+
+                @Override
+                public void extend(TemplateContext tc, String variable, Mustache mustache) {
+                    list.add(new PartialReference(tc, df, mustache, variable, "<"));
+                }
+            };
+        }
+    }
+
+    /**
+     * Marcador de un parcial o de una herencia ({@code {{< base}}}) dentro del árbol.
+     */
+    private static final class PartialReference extends DefaultCode {
+
+        private PartialReference(TemplateContext tc, DefaultMustacheFactory df, Mustache mustache,
+                                 String name, String type) {
+            super(tc, df, mustache, name, type);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.example.dinadocs.services;
+
+import com.lowagie.text.Image;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.xhtmlrenderer.extend.FSImage;
+import org.xhtmlrenderer.pdf.ITextFSImage;
+import org.xhtmlrenderer.pdf.ITextRenderer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resuelve las imágenes de las plantillas para el renderizador de PDFs, con una caché
+ * de imágenes ya decodificadas compartida entre renders.
+ *
+ * <p>Orígenes soportados:
+ * <ul>
+ *   <li>{@code asset:<id>}: imagen subida al {@link AssetStore}.</li>
+ *   <li>{@code data:image/...;base64,...}: imagen embebida; se indexa por el hash del URI.</li>
+ *   <li>{@code http(s)://...}: se descarga en segundo plano. El render espera como mucho
+ *   {@code remote.wait-ms}; si la descarga no ha terminado, la imagen se omite en ese
+ *   documento y queda en caché para los siguientes. Los fallos se recuerdan durante
+ *   {@code remote.failure-ttl-ms} para no reintentar en cada render. Como mucho
+ *   {@code remote.max-concurrent} descargas van a la vez; el resto espera turno.</li>
+ * </ul>
+ * Cualquier otro esquema ({@code file:}, rutas relativas) se ignora, de modo que los datos
+ * de usuario no pueden leer archivos del servidor.
+ *
+ * <p>La caché es LRU y está acotada por bytes. Cada render recibe una copia de la imagen
+ * porque Flying Saucer la reescala según el CSS del documento.
+ *
+ * @see TemplateUserAgent
+ */
+@Component
+public class TemplateImageResolver implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateImageResolver.class);
+
+    private static final String CACHE_NAME = "templateImages";
+    private static final String DATA_PREFIX = "data:image/";
+
+    private final AssetStore assetStore;
+    private final long maxCacheBytes;
+    private final boolean remoteEnabled;
+    private final long remoteWaitMillis;
+    private final long remoteTimeoutMillis;
+    private final long remoteMaxBytes;
+    private final long remoteFailureTtlMillis;
+
+    private final LinkedHashMap<String, CachedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private final Map<String, CompletableFuture<ITextFSImage>> pendingFetches = new ConcurrentHashMap<>();
+    private final Map<String, Long> failedUntil = new ConcurrentHashMap<>();
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore fetchPermits;
+    private final HttpClient httpClient;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private Counter skippedRemote;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param assetStore Almacén de imágenes subidas.
+     * @param maxCacheBytes Bytes de imágenes decodificadas que se mantienen en caché.
+     * @param remoteEnabled Si se descargan imágenes http(s).
+     * @param remoteWaitMillis Espera máxima de un render por una descarga en curso.
+     * @param remoteTimeoutMillis Tiempo máximo de una descarga.
+     * @param remoteMaxBytes Tamaño máximo de una imagen remota.
+     * @param remoteFailureTtlMillis Tiempo durante el que no se reintenta una descarga fallida.
+     * @param remoteMaxConcurrent Descargas simultáneas como mucho.
+     */
+    public TemplateImageResolver(AssetStore assetStore,
+                                 @Value("${dynadocs.assets.image-cache.max-bytes:33554432}") long maxCacheBytes,
+                                 @Value("${dynadocs.assets.remote.enabled:true}") boolean remoteEnabled,
+                                 @Value("${dynadocs.assets.remote.wait-ms:300}") long remoteWaitMillis,
+                                 @Value("${dynadocs.assets.remote.timeout-ms:5000}") long remoteTimeoutMillis,
+                                 @Value("${dynadocs.assets.remote.max-bytes:5242880}") long remoteMaxBytes,
+                                 @Value("${dynadocs.assets.remote.failure-ttl-ms:60000}") long remoteFailureTtlMillis,
+                                 @Value("${dynadocs.assets.remote.max-concurrent:4}") int remoteMaxConcurrent) {
+        this.assetStore = assetStore;
+        this.maxCacheBytes = maxCacheBytes;
+        this.remoteEnabled = remoteEnabled;
+        this.remoteWaitMillis = remoteWaitMillis;
+        this.remoteTimeoutMillis = remoteTimeoutMillis;
+        this.remoteMaxBytes = remoteMaxBytes;
+        this.remoteFailureTtlMillis = remoteFailureTtlMillis;
+        this.fetchPermits = new Semaphore(Math.max(1, remoteMaxConcurrent));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(remoteTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(fetchExecutor)
+                .build();
+    }
+
+    /**
+     * Resuelve una imagen referenciada desde una plantilla.
+     *
+     * @param uri Valor del atributo {@code src} (o de {@code url()} en CSS).
+     * @return La imagen (copia propia del render), o {@link Resolution#pending()} / vacía si no está disponible.
+     */
+    public Resolution resolve(String uri) {
+        if (uri == null || uri.isBlank()) {
+            return Resolution.MISSING;
+        }
+        String trimmed = uri.trim();
+        try {
+            if (trimmed.startsWith(AssetStore.SCHEME)) {
+                return fromCache(trimmed, () -> {
+                    Optional<byte[]> bytes = assetStore.read(trimmed.substring(AssetStore.SCHEME.length()));
+                    return bytes.isPresent() ? decode(bytes.get()) : null;
+                });
+            }
+            if (trimmed.startsWith(DATA_PREFIX)) {
+                return fromCache("data:" + hash(trimmed), () -> decode(decodeDataUri(trimmed)));
+            }
+            if (trimmed.startsWith("http://") || trimmed.startsWith("https://")) {
+                return resolveRemote(trimmed);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudo cargar la imagen '{}': {}", abbreviate(trimmed), e.getMessage());
+        }
+        return Resolution.MISSING;
+    }
+
+    private Resolution fromCache(String key, ImageLoader loader) throws IOException {
+        ITextFSImage image = cached(key);
+        if (image == null) {
+            misses.incrementAndGet();
+            image = loader.load();
+            if (image == null) {
+                return Resolution.MISSING;
+            }
+            put(key, image);
+        } else {
+            hits.incrementAndGet();
+        }
+        return Resolution.of(image);
+    }
+
+    private Resolution resolveRemote(String url) {
+        ITextFSImage image = cached(url);
+        if (image != null) {
+            hits.incrementAndGet();
+            return Resolution.of(image);
+        }
+        misses.incrementAndGet();
+        if (!remoteEnabled) {
+            return Resolution.MISSING;
+        }
+        Long retryAt = failedUntil.get(url);
+        if (retryAt != null) {
+            if (retryAt > System.currentTimeMillis()) {
+                return Resolution.MISSING;
+            }
+            failedUntil.remove(url, retryAt);
+        }
+
+        CompletableFuture<ITextFSImage> fetch = pendingFetches.computeIfAbsent(url, this::startFetch);
+        try {
+            image = fetch.get(remoteWaitMillis, TimeUnit.MILLISECONDS);
+            return image != null ? Resolution.of(image) : Resolution.MISSING;
+        } catch (TimeoutException e) {
+            if (skippedRemote != null) {
+                skippedRemote.increment();
+            }
+            return Resolution.PENDING;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Resolution.PENDING;
+        } catch (ExecutionException e) {
+            return Resolution.MISSING;
+        }
+    }
+
+    private CompletableFuture<ITextFSImage> startFetch(String url) {
+        CompletableFuture<ITextFSImage> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                // Una plantilla con cientos de URLs no lanza cientos de descargas a la vez:
+                // los hilos virtuales de más esperan aquí sin coste.
+                fetchPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            try {
+                ITextFSImage image = decode(download(url));
+                put(url, image);
+                return image;
+            } catch (IOException | RuntimeException e) {
+                failedUntil.put(url, System.currentTimeMillis() + remoteFailureTtlMillis);
+                log.warn("No se pudo descargar la imagen '{}': {}", abbreviate(url), e.getMessage());
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                fetchPermits.release();
+            }
+        }, fetchExecutor);
+        future.whenComplete((image, error) -> pendingFetches.remove(url, future));
+        return future;
+    }
+
+    private byte[] download(String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(remoteTimeoutMillis))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            byte[] bytes = body.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, remoteMaxBytes + 1));
+            if (bytes.length > remoteMaxBytes) {
+                throw new IOException("La imagen supera " + remoteMaxBytes + " bytes");
+            }
+            return bytes;
+        }
+    }
+
+    private static ITextFSImage decode(byte[] bytes) throws IOException {
+        Image image = Image.getInstance(bytes);
+        // Igual que ITextUserAgent: se escala a la resolución de salida del renderizador.
+        float factor = ITextRenderer.DEFAULT_DOTS_PER_PIXEL;
+        image.scaleAbsolute(image.getPlainWidth() * factor, image.getPlainHeight() * factor);
+        return new ITextFSImage(image);
+    }
+
+    private static byte[] decodeDataUri(String uri) {
+        int start = uri.indexOf("base64,");
+        if (start < 0) {
+            throw new IllegalArgumentException("las imágenes embebidas deben estar en base64");
+        }
+        return Base64.getMimeDecoder().decode(uri.substring(start + "base64,".length()));
+    }
+
+    private ITextFSImage cached(String key) {
+        synchronized (cache) {
+            CachedImage entry = cache.get(key);
+            return entry != null ? entry.image() : null;
+        }
+    }
+
+    private void put(String key, ITextFSImage image) {
+        long weight = weight(image);
+        if (weight > maxCacheBytes) {
+            return;
+        }
+        synchronized (cache) {
+            CachedImage previous = cache.put(key, new CachedImage(image, weight));
+            if (previous != null) {
+                cachedBytes -= previous.weight();
+            }
+            cachedBytes += weight;
+            Iterator<CachedImage> eldest = cache.values().iterator();
+            while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().weight();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Estima la memoria que ocupa una imagen decodificada.
+     */
+    private static long weight(ITextFSImage image) {
+        Image raw = image.getImage();
+        byte[] data = raw.getRawData();
+        if (data != null) {
+            return data.length;
+        }
+        byte[] original = raw.getOriginalData();
+        return original != null ? original.length : (long) raw.getWidth() * (long) raw.getHeight() * 4;
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static String abbreviate(String uri) {
+        return uri.length() > 80 ? uri.substring(0, 80) + "..." : uri;
+    }
+
+    /**
+     * @return Número de imágenes en caché.
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * @return Bytes estimados de las imágenes en caché.
+     */
+    public long getCachedBytes() {
+        synchronized (cache) {
+            return cachedBytes;
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Imágenes servidas desde la caché de imágenes decodificadas")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Imágenes que tuvieron que leerse y decodificarse")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", CACHE_NAME)
+                .description("Imágenes descartadas por LRU")
+                .register(registry);
+        Gauge.builder("cache.size", this, TemplateImageResolver::size)
+                .tag("cache", CACHE_NAME)
+                .description("Imágenes decodificadas en caché")
+                .register(registry);
+        Gauge.builder("cache.bytes", this, TemplateImageResolver::getCachedBytes)
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .description("Bytes estimados de las imágenes en caché")
+                .register(registry);
+        skippedRemote = Counter.builder("dynadocs.assets.remote.skipped")
+                .description("Imágenes remotas omitidas porque la descarga no terminó a tiempo")
+                .register(registry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface ImageLoader {
+        ITextFSImage load() throws IOException;
+    }
+
+    private record CachedImage(ITextFSImage image, long weight) {
+    }
+
+    /**
+     * Resultado de resolver una imagen.
+     *
+     * @param image Copia de la imagen para este render, o null si no está disponible.
+     * @param pending true si la imagen se está descargando y llegará para renders posteriores.
+     */
+    public record Resolution(FSImage image, boolean pending) {
+
+        static final Resolution MISSING = new Resolution(null, false);
+        static final Resolution PENDING = new Resolution(null, true);
+
+        static Resolution of(ITextFSImage shared) {
+            return new Resolution((FSImage) shared.clone(), false);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.dinadocs.services;
 
+import com.example.dinadocs.models.Template;
 import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
 import com.github.mustachejava.MustacheFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -12,10 +14,41 @@ import java.util.Map;
 
 /**
  * Servicio para procesar plantillas dinámicas con datos proporcionados.
+ * Las plantillas compiladas se reutilizan a través de {@link CompiledTemplateCache}.
  */
 @Service
 public class TemplateProcessor {
 
+    private final CompiledTemplateCache compiledTemplateCache;
+
+    /**
+     * Constructor para inyección de dependencias.
+     * @param compiledTemplateCache Caché de plantillas Mustache compiladas.
+     */
+    @Autowired
+    public TemplateProcessor(CompiledTemplateCache compiledTemplateCache) {
+        this.compiledTemplateCache = compiledTemplateCache;
+    }
+
+    /**
+     * Crea un procesador con una caché propia de tamaño por defecto.
+     */
+    public TemplateProcessor() {
+        this(new CompiledTemplateCache(CompiledTemplateCache.DEFAULT_MAX_ENTRIES));
+    }
+
+    /**
+     * Procesa una plantilla persistida con los datos proporcionados.
+     * La compilación se reutiliza mientras no cambie el contenido de la plantilla.
+     *
+     * @param template Plantilla (se usan su id y su contenido).
+     * @param data Datos dinámicos para reemplazar los placeholders.
+     * @return String con la plantilla procesada.
+     */
+    public String processTemplate(Template template, Map<String, Object> data) {
+        return render(compile(template.getId(), template.getContent()), data);
+    }
+
     /**
      * Procesa una plantilla con los datos proporcionados.
      *
@@ -24,9 +57,18 @@ public class TemplateProcessor {
      * @return String con la plantilla procesada.
      */
     public String processTemplate(String templateContent, Map<String, Object> data) {
-        try {
+        return render(compile(null, templateContent), data);
+    }
+
+    private Mustache compile(Long templateId, String templateContent) {
+        return compiledTemplateCache.get(templateId, templateContent, () -> {
             MustacheFactory mf = new DefaultMustacheFactory();
-            Mustache mustache = mf.compile(new StringReader(templateContent), "template");
+            return mf.compile(new StringReader(templateContent), "template");
+        });
+    }
+
+    private String render(Mustache mustache, Map<String, Object> data) {
+        try {
             StringWriter writer = new StringWriter();
             mustache.execute(writer, data).flush();
             return writer.toString();
@@ -34,4 +76,4 @@ public class TemplateProcessor {
             throw new RuntimeException("Error al procesar la plantilla", e);
         }
     }
-}
\ No newline at end of file
+}
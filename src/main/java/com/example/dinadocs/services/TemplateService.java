@@ -1,91 +1,215 @@
 package com.example.dinadocs.services;
 
+import com.example.dinadocs.models.PlaceholderSchema;
 import com.example.dinadocs.models.Template;
+import com.example.dinadocs.models.TemplateSummary;
+import com.example.dinadocs.models.TemplateSummaryPage;
+import com.example.dinadocs.models.TemplateVersion;
 import com.example.dinadocs.models.User;
 import com.example.dinadocs.models.Role;
 import com.example.dinadocs.repositories.TemplateRepository;
+import com.example.dinadocs.repositories.UserRepository;
+import com.example.dinadocs.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.nio.file.AccessDeniedException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Servicio (Lógica de Negocio) para gestionar las Plantillas.
  * Implementa toda la autorización de Nivel 2 (reglas de roles y propiedad).
  *
+ * <p>Las reglas se evalúan sobre el {@link UserPrincipal} de la petición (id y rol de los
+ * claims del token), sin cargar la entidad {@link User}.
+ *
  */
 @Service
 public class TemplateService {
 
+    /** Tamaño de página por defecto del listado de resúmenes. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Tamaño de página máximo del listado de resúmenes. */
+    public static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private TemplateRepository templateRepository;
 
+    @Autowired
+    private CompiledTemplateCache compiledTemplateCache;
+
+    @Autowired
+    private TemplateAnalyzer templateAnalyzer;
+
+    @Autowired
+    private EventLogService eventLog;
+
+    @Autowired
+    private UserRepository userRepository;
+
     /**
      * Guarda una plantilla, aplicando lógica de roles.
      * Lógica Nivel 2: Asigna 'owner' y 'isPublic' basado en el rol del usuario.
      *
      */
-    public Template save(Template template, User authUser) {
+    public Template save(Template template, UserPrincipal authUser) {
         if (authUser.getRole().equals(Role.CREADOR)) {
             template.setPublic(true); // Todas las plantillas creadas por un CREADOR son públicas
         } else {
             template.setPublic(false);
         }
-        template.setOwner(authUser);
+        template.setOwner(owner(authUser));
 
-        List<String> placeholders = extractPlaceholders(template.getContent());
-        template.setPlaceholders(placeholders);
-        return templateRepository.save(template);
+        applyPlaceholders(template);
+        Template saved = ServerTiming.time("template_save", () -> templateRepository.save(template));
+        compiledTemplateCache.invalidate(saved.getId());
+        return saved;
     }
 
     /**
      * Lista las plantillas según el rol del usuario.
      *
      */
-    public List<Template> findAllByRole(User authUser) {
-        System.out.println("Buscando plantillas para el usuario con rol: " + authUser.getRole());
+    public List<Template> findAllByRole(UserPrincipal authUser) {
+        eventLog.debug("template.list", null, "Rol: " + authUser.getRole());
         if (authUser.getRole() == Role.ADMIN) {
-            return templateRepository.findAll();
+            return ServerTiming.time("template_query", () -> templateRepository.findAll());
         }
         if (authUser.getRole() == Role.CREADOR) {
-            return templateRepository.findByIsPublicTrue();
+            return ServerTiming.time("template_query", () -> templateRepository.findByIsPublicTrue());
         }
         if (authUser.getRole() == Role.USUARIO) {
-            return templateRepository.findByIsPublicTrueOrOwner(authUser);
+            return ServerTiming.time("template_query", () -> templateRepository.findByIsPublicTrueOrOwner(owner(authUser)));
         }
-        return templateRepository.findByIsPublicTrue();
+        return ServerTiming.time("template_query", () -> templateRepository.findByIsPublicTrue());
+    }
+
+    /**
+     * Lista una página de resúmenes de plantillas según el rol del usuario, con las mismas
+     * reglas que {@link #findAllByRole(UserPrincipal)} pero sin contenido ni placeholders.
+     *
+     * @param authUser Usuario autenticado.
+     * @param after Cursor: id de la última plantilla de la página anterior (null para la primera).
+     * @param limit Tamaño de página (null para el valor por defecto); entre 1 y {@link #MAX_PAGE_SIZE}.
+     * @return La página y el cursor de la siguiente.
+     * @throws IllegalArgumentException Si el tamaño de página está fuera de rango.
+     */
+    public TemplateSummaryPage findSummaries(UserPrincipal authUser, Long after, Integer limit) {
+        int pageSize = pageSize(limit);
+        boolean includeAll = authUser.getRole() == Role.ADMIN;
+        Long ownerId = authUser.getRole() == Role.USUARIO ? authUser.getId() : null;
+
+        // Se pide una más para saber si hay página siguiente sin contar el total.
+        List<TemplateSummary> summaries = ServerTiming.time("template_query", () -> templateRepository.findSummaries(
+                after != null ? after : 0L, includeAll, ownerId, Limit.of(pageSize + 1)));
+        if (summaries.size() <= pageSize) {
+            return new TemplateSummaryPage(summaries, null);
+        }
+        List<TemplateSummary> page = summaries.subList(0, pageSize);
+        return new TemplateSummaryPage(page, page.get(pageSize - 1).getId());
+    }
+
+    /**
+     * Tamaño de página efectivo del listado de resúmenes.
+     *
+     * @param limit Tamaño pedido (null para el valor por defecto).
+     * @return El tamaño de página a aplicar.
+     * @throws IllegalArgumentException Si está fuera del rango 1..{@link #MAX_PAGE_SIZE}.
+     */
+    public static int pageSize(Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        return pageSize;
     }
 
     /**
      * Busca una plantilla por ID, verificando permisos de acceso (lectura).
      *
      */
-    public Template findById(Long id, User authUser) throws AccessDeniedException {
-        Template template = templateRepository.findById(id)
+    public Template findById(Long id, UserPrincipal authUser) throws AccessDeniedException {
+        Template template = ServerTiming.time("template_query", () -> templateRepository.findById(id))
                 .orElseThrow(() -> new RuntimeException("Plantilla no encontrada con id: " + id));
 
-        boolean isOwner = Objects.equals(template.getOwner().getId(), authUser.getId());
-        boolean isAdmin = authUser.getRole() == Role.ADMIN;
-
-        if (template.isPublic() || isOwner || isAdmin) {
+        Long ownerId = template.getOwner() != null ? template.getOwner().getId() : null;
+        if (canRead(template.isPublic(), ownerId, authUser)) {
             return template;
         }
 
         throw new AccessDeniedException("No tiene permiso para ver esta plantilla.");
     }
 
+    /**
+     * ETag de una plantilla leyendo solo su versión, sin cargar contenido ni placeholders.
+     * Si la plantilla no existe o el usuario no puede verla no hay ETag, y la petición
+     * sigue por {@link #findById} para responder con el error correspondiente.
+     *
+     * @param id Id de la plantilla.
+     * @param authUser Usuario autenticado.
+     * @return El ETag actual, o vacío si no existe o no tiene permiso de lectura.
+     */
+    public Optional<String> findETag(Long id, UserPrincipal authUser) {
+        return ServerTiming.time("template_query", () -> templateRepository.findVersionById(id))
+                .filter(version -> canRead(version.isPublic(), version.getOwnerId(), authUser))
+                .map(version -> etagOf(version.getId(), version.getVersion()));
+    }
+
+    /**
+     * ETag del listado de plantillas visible para el usuario (el de {@link #findAllByRole},
+     * y la base del de cada página de {@link #findSummaries}). Se calcula con una sola consulta agregada sobre las
+     * versiones, de modo que cambia al crear, modificar o eliminar una plantilla visible.
+     *
+     * @param authUser Usuario autenticado.
+     * @return El ETag actual del listado.
+     */
+    public String listETag(UserPrincipal authUser) {
+        boolean includeAll = authUser.getRole() == Role.ADMIN;
+        Long ownerId = authUser.getRole() == Role.USUARIO ? authUser.getId() : null;
+        String fingerprint = ServerTiming.time("template_query",
+                () -> templateRepository.findListVersion(includeAll, ownerId));
+        return "l-" + sha256(authUser.getRole() + ":" + ownerId + ":" + fingerprint);
+    }
+
+    /**
+     * ETag de una versión concreta de una plantilla.
+     *
+     * @param id Id de la plantilla.
+     * @param version Versión de la plantilla.
+     * @return El ETag (sin comillas).
+     */
+    public static String etagOf(Long id, Long version) {
+        return "t" + id + "-v" + version;
+    }
+
+    private static boolean canRead(boolean isPublic, Long ownerId, UserPrincipal authUser) {
+        return isPublic || Objects.equals(ownerId, authUser.getId()) || authUser.getRole() == Role.ADMIN;
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
     /**
      * Actualiza una plantilla, verificando permisos de (escritura).
      * Lógica Nivel 2: Solo el dueño o un ADMIN pueden modificar.
      *
      */
-    public Template update(Long id, Template templateDetails, User authUser) throws AccessDeniedException {
+    public Template update(Long id, Template templateDetails, UserPrincipal authUser) throws AccessDeniedException {
         Template templateToUpdate = findById(id, authUser);
 
         if (templateToUpdate.getOwner() == null) {
@@ -106,60 +230,54 @@ public class TemplateService {
 
         templateToUpdate.setName(templateDetails.getName());
         templateToUpdate.setContent(templateDetails.getContent());
+        applyPlaceholders(templateToUpdate);
 
-        return templateRepository.save(templateToUpdate);
+        compiledTemplateCache.invalidate(id);
+        return ServerTiming.time("template_save", () -> templateRepository.save(templateToUpdate));
     }
 
     /**
      * Elimina una plantilla, verificando permisos de (borrado).
      */
-    public void delete(Long id, User authUser) throws AccessDeniedException {
-        System.out.println("Intentando eliminar plantilla con ID: " + id);
+    public void delete(Long id, UserPrincipal authUser) throws AccessDeniedException {
         Template template = templateRepository.findById(id)
                 .orElseThrow(() -> {
-                    System.out.println("Plantilla no encontrada con ID: " + id);
+                    eventLog.info("template.not-found", null, "Plantilla no encontrada con ID: " + id);
                     return new RuntimeException("Plantilla no encontrada");
                 });
 
-        System.out.println("Plantilla encontrada: " + template.getName() + ", Pública: " + template.isPublic());
-        System.out.println("Rol del usuario autenticado: " + authUser.getRole());
-
         // Verificar permisos para eliminar
         if (template.isPublic()) {
             if (authUser.getRole() != Role.ADMIN) {
-                System.out.println("Acceso denegado: Solo un administrador puede eliminar una plantilla pública");
+                eventLog.warn("template.delete-denied", template.getName(),
+                        "Solo un administrador puede eliminar una plantilla pública");
                 throw new AccessDeniedException("Solo un administrador puede eliminar una plantilla pública");
             }
         } else {
             boolean isOwner = Objects.equals(template.getOwner().getId(), authUser.getId());
             if (!isOwner && authUser.getRole() != Role.ADMIN) {
-                System.out.println("Acceso denegado: Solo el propietario o un administrador pueden eliminar esta plantilla privada");
+                eventLog.warn("template.delete-denied", template.getName(),
+                        "Solo el propietario o un administrador pueden eliminar esta plantilla privada");
                 throw new AccessDeniedException("Solo el propietario o un administrador pueden eliminar esta plantilla privada");
             }
         }
 
-        System.out.println("Permisos verificados. Eliminando plantilla...");
         templateRepository.delete(template);
-        System.out.println("Plantilla eliminada exitosamente.");
+        compiledTemplateCache.invalidate(id);
+        eventLog.info("template.delete", template.getName(), "Plantilla eliminada, ID: " + id);
     }
 
     /**
-     * Método privado que usa Regex para encontrar todos los {{placeholders}}.
+     * Analiza el contenido actual y guarda su estructura de placeholders (y la lista
+     * plana derivada de ella), para que la generación no tenga que volver a analizarlo.
+     *
+     * @throws IllegalArgumentException Si la sintaxis Mustache no es válida.
      */
-    private List<String> extractPlaceholders(String htmlContent) {
-        List<String> matches = new ArrayList<>();
-
-        if (htmlContent == null || htmlContent.isEmpty()) {
-            return matches;
-        }
-
-        Pattern pattern = Pattern.compile("\\{\\{([^\\}]+)\\}\\}");
-        Matcher matcher = pattern.matcher(htmlContent);
-
-        while (matcher.find()) {
-            matches.add(matcher.group(1));
-        }
-        return matches;
+    private void applyPlaceholders(Template template) {
+        PlaceholderSchema schema = ServerTiming.time("template_analyze",
+                () -> templateAnalyzer.analyze(template.getContent()));
+        template.setPlaceholderSchema(schema);
+        template.setPlaceholders(schema.flatten());
     }
 
     /**
@@ -176,4 +294,12 @@ public class TemplateService {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Entidad del usuario para asociarla como propietario: la propia entidad si ya se
+     * tiene, o una referencia por id que no consulta la base de datos.
+     */
+    private User owner(UserPrincipal authUser) {
+        return authUser instanceof User user ? user : userRepository.getReferenceById(authUser.getId());
+    }
+}
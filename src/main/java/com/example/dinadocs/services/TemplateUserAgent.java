@@ -0,0 +1,44 @@
+package com.example.dinadocs.services;
+
+import org.xhtmlrenderer.pdf.ITextOutputDevice;
+import org.xhtmlrenderer.pdf.ITextUserAgent;
+import org.xhtmlrenderer.resource.ImageResource;
+
+/**
+ * User agent de Flying Saucer que obtiene las imágenes a través de
+ * {@link TemplateImageResolver} en lugar de abrir cada URL en cada render.
+ *
+ * <p>Se crea uno por render. Recuerda si alguna imagen remota quedó pendiente para que
+ * el resultado no se guarde en {@link RenderedPdfCache} sin ella.
+ */
+public class TemplateUserAgent extends ITextUserAgent {
+
+    private final TemplateImageResolver imageResolver;
+    private boolean missingPendingImages;
+
+    /**
+     * @param outputDevice Dispositivo de salida del renderizador.
+     * @param dotsPerPixel Resolución del renderizador.
+     * @param imageResolver Resolución y caché de imágenes compartida.
+     */
+    public TemplateUserAgent(ITextOutputDevice outputDevice, int dotsPerPixel, TemplateImageResolver imageResolver) {
+        super(outputDevice, dotsPerPixel);
+        this.imageResolver = imageResolver;
+    }
+
+    @Override
+    public ImageResource getImageResource(String uri) {
+        TemplateImageResolver.Resolution resolution = imageResolver.resolve(uri);
+        if (resolution.pending()) {
+            missingPendingImages = true;
+        }
+        return new ImageResource(uri, resolution.image());
+    }
+
+    /**
+     * @return true si alguna imagen remota no estaba lista y se omitió en este render.
+     */
+    public boolean isMissingPendingImages() {
+        return missingPendingImages;
+    }
+}
@@ -1,34 +1,202 @@
 package com.example.dinadocs.services;
 
+import com.example.dinadocs.models.RevokedToken;
+import com.example.dinadocs.repositories.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
- * Servicio dedicado a manejar la lista de tokens invalidados.
+ * Servicio dedicado a manejar la lista de tokens invalidados (logout).
+ *
+ * <p>Los tokens se identifican por su {@code jti} y cada revocación se guarda hasta la
+ * caducidad del token: pasado ese momento el token ya no es válido por sí mismo y la
+ * entrada se elimina. Las revocaciones se persisten en {@code tokens_revocados}; cada
+ * nodo lee las nuevas cada {@code dynadocs.auth.revocation.sync-ms}, así que un logout
+ * en una réplica se aplica en las demás tras ese intervalo como mucho.
+ *
+ * <p>La consulta en memoria pasa primero por un filtro de Bloom: en el caso habitual
+ * (token no revocado) responde sin tocar el mapa ni la base de datos. El filtro no admite
+ * borrados, así que se reconstruye en cada limpieza de entradas caducadas.
  */
 @Service
-public class TokenBlacklistService {
+public class TokenBlacklistService implements MeterBinder {
 
-    private final Set<String> invalidatedTokens = new HashSet<>();
+    /** Margen al leer revocaciones de otros nodos (commits tardíos, relojes desfasados). */
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
+    /** Tope para tokens sin {@code exp}, representable en la columna de la base de datos. */
+    private static final long MAX_EXPIRES_AT = Instant.parse("9999-12-31T23:59:59Z").toEpochMilli();
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int bloomBits;
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+    private volatile Instant lastSync = Instant.EPOCH;
 
     /**
-     * Agrega un token a la lista de tokens invalidados.
+     * Constructor para inyección de dependencias.
      *
-     * @param token El token a invalidar.
+     * @param revokedTokenRepository Repositorio de revocaciones compartido entre nodos.
+     * @param bloomBits Tamaño del filtro de Bloom en bits (~10 bits por token revocado vigente).
      */
-    public void invalidateToken(String token) {
-        invalidatedTokens.add(token);
+    public TokenBlacklistService(RevokedTokenRepository revokedTokenRepository,
+                                 @Value("${dynadocs.auth.revocation.bloom-bits:1048576}") int bloomBits) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.bloomBits = bloomBits;
+        this.bloomFilter = new BloomFilter(bloomBits);
     }
 
     /**
-     * Verifica si un token está invalidado.
+     * Revoca un token hasta su caducidad.
      *
-     * @param token El token a verificar.
-     * @return true si el token está invalidado, false en caso contrario.
+     * @param tokenId Identificador del token ({@code jti}).
+     * @param expiresAtMillis Caducidad del token en milisegundos desde epoch.
+     */
+    public void revoke(String tokenId, long expiresAtMillis) {
+        Instant now = Instant.now();
+        if (expiresAtMillis <= now.toEpochMilli()) {
+            return;
+        }
+        expiresAtMillis = Math.min(expiresAtMillis, MAX_EXPIRES_AT);
+        revokedTokenRepository.save(new RevokedToken(tokenId, Instant.ofEpochMilli(expiresAtMillis), now));
+        addLocal(tokenId, expiresAtMillis);
+    }
+
+    /**
+     * Verifica si un token está revocado.
+     *
+     * @param tokenId Identificador del token ({@code jti}).
+     * @return true si el token se revocó y aún no ha caducado.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revokedTokens.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Incorpora las revocaciones hechas en otros nodos desde la última lectura.
+     * La primera ejecución carga todas las vigentes.
+     */
+    @Scheduled(fixedDelayString = "${dynadocs.auth.revocation.sync-ms:5000}")
+    public void synchronize() {
+        Instant now = Instant.now();
+        Instant since = lastSync.equals(Instant.EPOCH) ? Instant.EPOCH : lastSync.minus(SYNC_OVERLAP);
+        for (RevokedToken revoked : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, now)) {
+            addLocal(revoked.getTokenId(), revoked.getExpiresAt().toEpochMilli());
+        }
+        lastSync = now;
+    }
+
+    /**
+     * Elimina las revocaciones de tokens ya caducados, en memoria y en base de datos,
+     * y reconstruye el filtro de Bloom con las que siguen vigentes.
+     */
+    @Scheduled(fixedDelayString = "${dynadocs.auth.revocation.cleanup-ms:600000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(bloomBits);
+        revokedTokens.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+        // Revocaciones añadidas al filtro anterior mientras se reconstruía.
+        revokedTokens.keySet().forEach(rebuilt::add);
+
+        revokedTokenRepository.deleteExpired(Instant.ofEpochMilli(now));
+    }
+
+    private void addLocal(String tokenId, long expiresAtMillis) {
+        revokedTokens.put(tokenId, expiresAtMillis);
+        bloomFilter.add(tokenId);
+    }
+
+    /**
+     * @return Número de revocaciones en memoria (incluidas las caducadas aún no limpiadas).
+     */
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dynadocs.auth.revoked-tokens", this, TokenBlacklistService::size)
+                .description("Tokens revocados vigentes en memoria")
+                .register(registry);
+    }
+
+    /**
+     * Filtro de Bloom concurrente sobre un array de bits atómico: sin falsos negativos,
+     * con falsos positivos que resuelve el mapa de revocaciones.
      */
-    public boolean isTokenInvalidated(String token) {
-        return invalidatedTokens.contains(token);
+    private static final class BloomFilter {
+
+        private static final int HASHES = 4;
+
+        private final AtomicLongArray words;
+        private final int bitMask;
+
+        private BloomFilter(int bits) {
+            int size = Integer.highestOneBit(Math.max(64, bits - 1)) << 1;
+            this.words = new AtomicLongArray(size / 64);
+            this.bitMask = size - 1;
+        }
+
+        private void add(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & bitMask;
+                long mask = 1L << bit;
+                int word = bit >>> 6;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & bitMask;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** FNV-1a de 64 bits con mezcla final, suficiente para ids aleatorios. */
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1 +1 @@
-memberSearchIndex = [{"p":"com.example.dinadocs.models","c":"Role","l":"ADMIN"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"AuthController()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"authenticateUser(Map<String, String>)","u":"authenticateUser(java.util.Map)"},{"p":"com.example.dinadocs.config","c":"SecurityConfiguration","l":"authenticationManager(AuthenticationConfiguration)","u":"authenticationManager(org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"AuthService()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.config","c":"CorsConfig","l":"CorsConfig()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.config","c":"CorsConfig","l":"corsFilter()"},{"p":"com.example.dinadocs.models","c":"Role","l":"CREADOR"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"createTemplate(Template, User)","u":"createTemplate(com.example.dinadocs.models.Template,com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.config","c":"DataInitializer","l":"DataInitializer(TemplateRepository, UserRepository, PasswordEncoder)","u":"%3Cinit%3E(com.example.dinadocs.repositories.TemplateRepository,com.example.dinadocs.repositories.UserRepository,org.springframework.security.crypto.password.PasswordEncoder)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"delete(Long, User)","u":"delete(java.lang.Long,com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"deleteTemplate(Long, User)","u":"deleteTemplate(java.lang.Long,com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs","c":"DynaDocsApplication","l":"DynaDocsApplication()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"findAllByRole(User)","u":"findAllByRole(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.repositories","c":"UserRepository","l":"findByEmail(String)","u":"findByEmail(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"findById(Long, User)","u":"findById(java.lang.Long,com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findByIsPublicTrue()"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findByIsPublicTrueOrOwner(User)","u":"findByIsPublicTrueOrOwner(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findByName(String)","u":"findByName(java.lang.String)"},{"p":"com.example.dinadocs.controllers","c":"PdfController","l":"generateDocument(GenerationRequest)","u":"generateDocument(com.example.dinadocs.models.GenerationRequest)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"generatePdf(GenerationRequest)","u":"generatePdf(com.example.dinadocs.models.GenerationRequest)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"generateToken(String)","u":"generateToken(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"GenerationRequest","l":"GenerationRequest()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"getAllTemplates(User)","u":"getAllTemplates(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.models","c":"Template","l":"getContent()"},{"p":"com.example.dinadocs.models","c":"User","l":"getEmail()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getId()"},{"p":"com.example.dinadocs.models","c":"User","l":"getId()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getName()"},{"p":"com.example.dinadocs.models","c":"User","l":"getName()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getOwner()"},{"p":"com.example.dinadocs.models","c":"User","l":"getPassword()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getPlaceholders()"},{"p":"com.example.dinadocs.models","c":"User","l":"getRole()"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"getTemplateById(Long, User)","u":"getTemplateById(java.lang.Long,com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.models","c":"User","l":"getTemplates()"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"invalidateToken(String)","u":"invalidateToken(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Template","l":"isPublic()"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"isTokenInvalidated(String)","u":"isTokenInvalidated(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"isTokenValid(String)","u":"isTokenValid(java.lang.String)"},{"p":"com.example.dinadocs.security","c":"JwtFilter","l":"JwtFilter(JwtUtils, TokenBlacklistService, UserRepository)","u":"%3Cinit%3E(com.example.dinadocs.security.JwtUtils,com.example.dinadocs.services.TokenBlacklistService,com.example.dinadocs.repositories.UserRepository)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"JwtUtils()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"loadTemplateByType(String)","u":"loadTemplateByType(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"login(String, String)","u":"login(java.lang.String,java.lang.String)"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"logout(String)","u":"logout(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"logout(String)","u":"logout(java.lang.String)"},{"p":"com.example.dinadocs","c":"DynaDocsApplication","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"com.example.dinadocs.config","c":"SecurityConfiguration","l":"passwordEncoder()"},{"p":"com.example.dinadocs.controllers","c":"PdfController","l":"PdfController(PdfGenerationService)","u":"%3Cinit%3E(com.example.dinadocs.services.PdfGenerationService)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"PdfGenerationService(TemplateRepository, TemplateProcessor)","u":"%3Cinit%3E(com.example.dinadocs.repositories.TemplateRepository,com.example.dinadocs.services.TemplateProcessor)"},{"p":"com.example.dinadocs.services","c":"TemplateProcessor","l":"processTemplate(String, Map<String, Object>)","u":"processTemplate(java.lang.String,java.util.Map)"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"register(User)","u":"register(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"register(User)","u":"register(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.config","c":"DataInitializer","l":"run(String...)","u":"run(java.lang.String...)"},{"p":"com.example.dinadocs.controllers","c":"TestController","l":"saludo()"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"save(Template, User)","u":"save(com.example.dinadocs.models.Template,com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.config","c":"SecurityConfiguration","l":"SecurityConfiguration(JwtFilter)","u":"%3Cinit%3E(com.example.dinadocs.security.JwtFilter)"},{"p":"com.example.dinadocs.config","c":"SecurityConfiguration","l":"securityFilterChain(HttpSecurity)","u":"securityFilterChain(org.springframework.security.config.annotation.web.builders.HttpSecurity)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setContent(String)","u":"setContent(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"User","l":"setEmail(String)","u":"setEmail(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setId(Long)","u":"setId(java.lang.Long)"},{"p":"com.example.dinadocs.models","c":"User","l":"setId(Long)","u":"setId(java.lang.Long)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setName(String)","u":"setName(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"User","l":"setName(String)","u":"setName(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setOwner(User)","u":"setOwner(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.models","c":"User","l":"setPassword(String)","u":"setPassword(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setPlaceholders(List<String>)","u":"setPlaceholders(java.util.List)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setPublic(boolean)"},{"p":"com.example.dinadocs.models","c":"User","l":"setRole(Role)","u":"setRole(com.example.dinadocs.models.Role)"},{"p":"com.example.dinadocs.models","c":"User","l":"setTemplates(List<Template>)","u":"setTemplates(java.util.List)"},{"p":"com.example.dinadocs.models","c":"Template","l":"Template()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"TemplateController()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateProcessor","l":"TemplateProcessor()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"TemplateService()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.controllers","c":"TestController","l":"TestController()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"TokenBlacklistService()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"update(Long, Template, User)","u":"update(java.lang.Long,com.example.dinadocs.models.Template,com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"updateTemplate(Long, Template, User)","u":"updateTemplate(java.lang.Long,com.example.dinadocs.models.Template,com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.models","c":"User","l":"User()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.models","c":"Role","l":"USUARIO"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"validateTemplatePlaceholders(Template, Map<String, Object>)","u":"validateTemplatePlaceholders(com.example.dinadocs.models.Template,java.util.Map)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"validateTokenAndGetUsername(String)","u":"validateTokenAndGetUsername(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Role","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Role","l":"values()"}];updateSearchResults();
\ No newline at end of file
+memberSearchIndex = [{"p":"com.example.dinadocs.services","c":"PdfRendererPool","l":"acquire()"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead","l":"acquire()"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead","l":"acquireQueued()"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool","l":"acquireWithFullFonts()"},{"p":"com.example.dinadocs.models","c":"Role","l":"ADMIN"},{"p":"com.example.dinadocs.services","c":"TemplateAnalyzer","l":"analyze(String)","u":"analyze(java.lang.String)"},{"p":"com.example.dinadocs.controllers","c":"AssetController","l":"AssetController(AssetStore)","u":"%3Cinit%3E(com.example.dinadocs.services.AssetStore)"},{"p":"com.example.dinadocs.services","c":"AssetStore","l":"AssetStore(String, long, long)","u":"%3Cinit%3E(java.lang.String,long,long)"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"AuthController()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"AuthenticatedUser(Long, String, Role, int)","u":"%3Cinit%3E(java.lang.Long,java.lang.String,com.example.dinadocs.models.Role,int)"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"authenticateUser(Map<String, String>)","u":"authenticateUser(java.util.Map)"},{"p":"com.example.dinadocs.config","c":"SecurityConfiguration","l":"authenticationManager(AuthenticationConfiguration)","u":"authenticationManager(org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"AuthService()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.models","c":"BatchGenerationRequest","l":"BatchGenerationRequest()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"BatchGenerationService","l":"BatchGenerationService(PdfGenerationService, SpillBufferFactory, ObjectMapper, int)","u":"%3Cinit%3E(com.example.dinadocs.services.PdfGenerationService,com.example.dinadocs.services.SpillBufferFactory,com.fasterxml.jackson.databind.ObjectMapper,int)"},{"p":"com.example.dinadocs.security","c":"BoundedPasswordEncoder","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.security","c":"PrincipalCache","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"bindTo(MeterRegistry)","u":"bindTo(io.micrometer.core.instrument.MeterRegistry)"},{"p":"com.example.dinadocs.security","c":"BoundedPasswordEncoder","l":"BoundedPasswordEncoder(int, int, int, long)","u":"%3Cinit%3E(int,int,int,long)"},{"p":"com.example.dinadocs.services","c":"CapacityExceededException","l":"CapacityExceededException(String, long)","u":"%3Cinit%3E(java.lang.String,long)"},{"p":"com.example.dinadocs.security","c":"PrincipalCache","l":"clear()"},{"p":"com.example.dinadocs.services","c":"GenerationJobService.JobResult","l":"close()"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool.Lease","l":"close()"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead.Permit","l":"close()"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache.Recorder","l":"close()"},{"p":"com.example.dinadocs.services","c":"ServerTiming","l":"close()"},{"p":"com.example.dinadocs.services","c":"SpillBuffer","l":"close()"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache.Recorder","l":"commit()"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"CompiledTemplateCache(int)","u":"%3Cinit%3E(int)"},{"p":"com.example.dinadocs.models","c":"PlaceholderSchemaConverter","l":"convertToDatabaseColumn(PlaceholderSchema)","u":"convertToDatabaseColumn(com.example.dinadocs.models.PlaceholderSchema)"},{"p":"com.example.dinadocs.models","c":"PlaceholderSchemaConverter","l":"convertToEntityAttribute(String)","u":"convertToEntityAttribute(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"copyTo(String, OutputStream)","u":"copyTo(java.lang.String,java.io.OutputStream)"},{"p":"com.example.dinadocs.config","c":"CorsConfig","l":"CorsConfig()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.config","c":"CorsConfig","l":"corsFilter()"},{"p":"com.example.dinadocs.models","c":"Role","l":"CREADOR"},{"p":"com.example.dinadocs.services","c":"SpillBufferFactory","l":"create()"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"createTemplate(Template, UserPrincipal)","u":"createTemplate(com.example.dinadocs.models.Template,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.config","c":"DataInitializer","l":"DataInitializer(TemplateRepository, UserRepository, PasswordEncoder, TemplateAnalyzer)","u":"%3Cinit%3E(com.example.dinadocs.repositories.TemplateRepository,com.example.dinadocs.repositories.UserRepository,org.springframework.security.crypto.password.PasswordEncoder,com.example.dinadocs.services.TemplateAnalyzer)"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"debug(String, String, String)","u":"debug(java.lang.String,java.lang.String,java.lang.String)"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"DEFAULT_MAX_ENTRIES"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"DEFAULT_PAGE_SIZE"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"delete(Long, UserPrincipal)","u":"delete(java.lang.Long,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.repositories","c":"RevokedTokenRepository","l":"deleteExpired(Instant)","u":"deleteExpired(java.time.Instant)"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"deleteTemplate(Long, UserPrincipal)","u":"deleteTemplate(java.lang.Long,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.services","c":"AssetStore","l":"detectContentType(byte[])"},{"p":"com.example.dinadocs.models","c":"JobStatus","l":"DONE"},{"p":"com.example.dinadocs","c":"DynaDocsApplication","l":"DynaDocsApplication()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"email()"},{"p":"com.example.dinadocs.security","c":"BoundedPasswordEncoder","l":"encode(CharSequence)","u":"encode(java.lang.CharSequence)"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"com.example.dinadocs.security","c":"VerifiedToken","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver.Resolution","l":"equals(Object)","u":"equals(java.lang.Object)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"etagOf(Long, Long)","u":"etagOf(java.lang.Long,java.lang.Long)"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"EventLogService(int, String, String, String)","u":"%3Cinit%3E(int,java.lang.String,java.lang.String,java.lang.String)"},{"p":"com.example.dinadocs.security","c":"VerifiedToken","l":"expiresAt()"},{"p":"com.example.dinadocs.models","c":"JobStatus","l":"FAILED"},{"p":"com.example.dinadocs.models","c":"TemplateSummary","l":"FIELDS"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findAll()"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"findAllByRole(UserPrincipal)","u":"findAllByRole(com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.repositories","c":"UserRepository","l":"findByEmail(String)","u":"findByEmail(java.lang.String)"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findById(Long)","u":"findById(java.lang.Long)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"findById(Long, UserPrincipal)","u":"findById(java.lang.Long,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findByIsPublicTrue()"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findByIsPublicTrueOrOwner(User)","u":"findByIsPublicTrueOrOwner(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findByName(String)","u":"findByName(java.lang.String)"},{"p":"com.example.dinadocs.repositories","c":"RevokedTokenRepository","l":"findByRevokedAtAfterAndExpiresAtAfter(Instant, Instant)","u":"findByRevokedAtAfterAndExpiresAtAfter(java.time.Instant,java.time.Instant)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"findETag(Long, UserPrincipal)","u":"findETag(java.lang.Long,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findListVersion(boolean, Long)","u":"findListVersion(boolean,java.lang.Long)"},{"p":"com.example.dinadocs.models","c":"PlaceholderSchema","l":"findMissing(Map<String, Object>)","u":"findMissing(java.util.Map)"},{"p":"com.example.dinadocs.repositories","c":"UserRepository","l":"findPrincipalById(Long)","u":"findPrincipalById(java.lang.Long)"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findSummaries(long, boolean, Long, Limit)","u":"findSummaries(long,boolean,java.lang.Long,org.springframework.data.domain.Limit)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"findSummaries(UserPrincipal, Long, Integer)","u":"findSummaries(com.example.dinadocs.security.UserPrincipal,java.lang.Long,java.lang.Integer)"},{"p":"com.example.dinadocs.repositories","c":"TemplateRepository","l":"findVersionById(Long)","u":"findVersionById(java.lang.Long)"},{"p":"com.example.dinadocs.models","c":"PlaceholderSchema","l":"flatten()"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache.Recorder","l":"flush()"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"flush(long)"},{"p":"com.example.dinadocs.services","c":"FontRegistry","l":"FontRegistry(String, String)","u":"%3Cinit%3E(java.lang.String,java.lang.String)"},{"p":"com.example.dinadocs.controllers","c":"PdfController","l":"generateBatch(BatchGenerationRequest)","u":"generateBatch(com.example.dinadocs.models.BatchGenerationRequest)"},{"p":"com.example.dinadocs.controllers","c":"PdfController","l":"generateBatchNdjson(String, HttpServletRequest)","u":"generateBatchNdjson(java.lang.String,jakarta.servlet.http.HttpServletRequest)"},{"p":"com.example.dinadocs.controllers","c":"PdfController","l":"generateDocument(GenerationRequest)","u":"generateDocument(com.example.dinadocs.models.GenerationRequest)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"generatePdf(GenerationRequest)","u":"generatePdf(com.example.dinadocs.models.GenerationRequest)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"generatePdf(GenerationRequest, OutputStream)","u":"generatePdf(com.example.dinadocs.models.GenerationRequest,java.io.OutputStream)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"generateToken(String)","u":"generateToken(java.lang.String)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"generateToken(UserPrincipal)","u":"generateToken(com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.controllers","c":"GenerationJobController","l":"GenerationJobController(GenerationJobService)","u":"%3Cinit%3E(com.example.dinadocs.services.GenerationJobService)"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"GenerationJobService(PdfGenerationService, SpillBufferFactory, int, int, long, int, long)","u":"%3Cinit%3E(com.example.dinadocs.services.PdfGenerationService,com.example.dinadocs.services.SpillBufferFactory,int,int,long,int,long)"},{"p":"com.example.dinadocs.models","c":"GenerationJobStatus","l":"GenerationJobStatus()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.models","c":"GenerationRequest","l":"GenerationRequest()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"get(Long, String, Supplier<Mustache>)","u":"get(java.lang.Long,java.lang.String,java.util.function.Supplier)"},{"p":"com.example.dinadocs.security","c":"PrincipalCache","l":"get(Long, Supplier<AuthenticatedUser>)","u":"get(java.lang.Long,java.util.function.Supplier)"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool","l":"getActiveCount()"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"getAllTemplates(UserPrincipal, WebRequest)","u":"getAllTemplates(com.example.dinadocs.security.UserPrincipal,org.springframework.web.context.request.WebRequest)"},{"p":"com.example.dinadocs.controllers","c":"AssetController","l":"getAsset(String)","u":"getAsset(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver","l":"getCachedBytes()"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"getCachedTokenCount()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getContent()"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"getDroppedCount()"},{"p":"com.example.dinadocs.models","c":"User","l":"getEmail()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"getEmail()"},{"p":"com.example.dinadocs.security","c":"UserPrincipal","l":"getEmail()"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"getEvictionCount()"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"getEvictionCount()"},{"p":"com.example.dinadocs.models","c":"RevokedToken","l":"getExpiresAt()"},{"p":"com.example.dinadocs.services","c":"FontRegistry","l":"getFamilyNames()"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"getHitCount()"},{"p":"com.example.dinadocs.security","c":"PrincipalCache","l":"getHitCount()"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"getHitCount()"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"getHitCount()"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver","l":"getHitCount()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getId()"},{"p":"com.example.dinadocs.models","c":"User","l":"getId()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"getId()"},{"p":"com.example.dinadocs.security","c":"UserPrincipal","l":"getId()"},{"p":"com.example.dinadocs.services","c":"TemplateUserAgent","l":"getImageResource(String)","u":"getImageResource(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead","l":"getInFlight()"},{"p":"com.example.dinadocs.controllers","c":"GenerationJobController","l":"getJobResult(String, UserPrincipal)","u":"getJobResult(java.lang.String,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.controllers","c":"GenerationJobController","l":"getJobStatus(String, UserPrincipal)","u":"getJobStatus(java.lang.String,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead","l":"getLimit()"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool","l":"getMaxSize()"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"getMissCount()"},{"p":"com.example.dinadocs.security","c":"PrincipalCache","l":"getMissCount()"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"getMissCount()"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"getMissCount()"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver","l":"getMissCount()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getName()"},{"p":"com.example.dinadocs.models","c":"User","l":"getName()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getOwner()"},{"p":"com.example.dinadocs.models","c":"User","l":"getPassword()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getPlaceholders()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getPlaceholderSchema()"},{"p":"com.example.dinadocs.security","c":"BoundedPasswordEncoder","l":"getQueuedCount()"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"getQueuedCount()"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"getRetainedBytes()"},{"p":"com.example.dinadocs.services","c":"CapacityExceededException","l":"getRetryAfterSeconds()"},{"p":"com.example.dinadocs.models","c":"RevokedToken","l":"getRevokedAt()"},{"p":"com.example.dinadocs.models","c":"User","l":"getRole()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"getRole()"},{"p":"com.example.dinadocs.security","c":"UserPrincipal","l":"getRole()"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"getRunningCount()"},{"p":"com.example.dinadocs.services","c":"GenerationJobService.JobResult","l":"getSize()"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"getStatus(String, Long)","u":"getStatus(java.lang.String,java.lang.Long)"},{"p":"com.example.dinadocs.services","c":"AssetStore","l":"getStoredBytes()"},{"p":"com.example.dinadocs.security","c":"BoundedPasswordEncoder","l":"getStrength()"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"getTemplateById(Long, UserPrincipal, WebRequest)","u":"getTemplateById(java.lang.Long,com.example.dinadocs.security.UserPrincipal,org.springframework.web.context.request.WebRequest)"},{"p":"com.example.dinadocs.models","c":"User","l":"getTemplates()"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"getTemplateSummaries(Long, Integer, String, UserPrincipal, WebRequest)","u":"getTemplateSummaries(java.lang.Long,java.lang.Integer,java.lang.String,com.example.dinadocs.security.UserPrincipal,org.springframework.web.context.request.WebRequest)"},{"p":"com.example.dinadocs.services","c":"GenerationJobService.JobResult","l":"getTemplateType()"},{"p":"com.example.dinadocs.models","c":"RevokedToken","l":"getTokenId()"},{"p":"com.example.dinadocs.models","c":"User","l":"getTokenVersion()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"getTokenVersion()"},{"p":"com.example.dinadocs.security","c":"UserPrincipal","l":"getTokenVersion()"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"getTotalBytes()"},{"p":"com.example.dinadocs.models","c":"Template","l":"getVersion()"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead","l":"getWaiting()"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool","l":"getWaitingCount()"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"getWrittenCount()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"hashCode()"},{"p":"com.example.dinadocs.security","c":"VerifiedToken","l":"hashCode()"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver.Resolution","l":"hashCode()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"id()"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver.Resolution","l":"image()"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"info(String, String, String)","u":"info(java.lang.String,java.lang.String,java.lang.String)"},{"p":"com.example.dinadocs.security","c":"PrincipalCache","l":"invalidate(Long)","u":"invalidate(java.lang.Long)"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"invalidate(Long)","u":"invalidate(java.lang.Long)"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"isEnabled()"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"isEnabled(Level, String)","u":"isEnabled(org.slf4j.event.Level,java.lang.String)"},{"p":"com.example.dinadocs.services","c":"TemplateUserAgent","l":"isMissingPendingImages()"},{"p":"com.example.dinadocs.models","c":"Template","l":"isPublic()"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"isRevoked(String)","u":"isRevoked(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"SpillBuffer","l":"isSpilled()"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"isTokenValid(String)","u":"isTokenValid(java.lang.String)"},{"p":"com.example.dinadocs.security","c":"JwtFilter","l":"JwtFilter(JwtUtils, TokenBlacklistService, UserRepository, PrincipalCache, EventLogService)","u":"%3Cinit%3E(com.example.dinadocs.security.JwtUtils,com.example.dinadocs.services.TokenBlacklistService,com.example.dinadocs.repositories.UserRepository,com.example.dinadocs.security.PrincipalCache,com.example.dinadocs.services.EventLogService)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"JwtUtils()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"JwtUtils(int, long)","u":"%3Cinit%3E(int,long)"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"key(Template, Map<String, Object>)","u":"key(com.example.dinadocs.models.Template,java.util.Map)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"listETag(UserPrincipal)","u":"listETag(com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"loadTemplateByType(String)","u":"loadTemplateByType(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"log(Level, String, String, String)","u":"log(org.slf4j.event.Level,java.lang.String,java.lang.String,java.lang.String)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"login(String, String)","u":"login(java.lang.String,java.lang.String)"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"logout(String)","u":"logout(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"logout(String)","u":"logout(java.lang.String)"},{"p":"com.example.dinadocs","c":"DynaDocsApplication","l":"main(String[])","u":"main(java.lang.String[])"},{"p":"com.example.dinadocs.security","c":"BoundedPasswordEncoder","l":"matches(CharSequence, String)","u":"matches(java.lang.CharSequence,java.lang.String)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"MAX_PAGE_SIZE"},{"p":"com.example.dinadocs.controllers","c":"PdfController","l":"mergeDocuments(BatchGenerationRequest)","u":"mergeDocuments(com.example.dinadocs.models.BatchGenerationRequest)"},{"p":"com.example.dinadocs.services","c":"PdfMergeService","l":"mergeTo(String, Iterator<Map<String, Object>>, OutputStream)","u":"mergeTo(java.lang.String,java.util.Iterator,java.io.OutputStream)"},{"p":"com.example.dinadocs.services","c":"ServerTiming","l":"open()"},{"p":"com.example.dinadocs.services","c":"SpillBuffer","l":"openInputStream()"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"openResult(String, Long)","u":"openResult(java.lang.String,java.lang.Long)"},{"p":"com.example.dinadocs.services","c":"SpillBuffer","l":"outputStream()"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"pageSize(Integer)","u":"pageSize(java.lang.Integer)"},{"p":"com.example.dinadocs.config","c":"SecurityConfiguration","l":"passwordEncoder(int, int, int, long)","u":"passwordEncoder(int,int,int,long)"},{"p":"com.example.dinadocs.controllers","c":"PdfController","l":"PdfController(PdfGenerationService, SpillBufferFactory, BatchGenerationService, PdfMergeService)","u":"%3Cinit%3E(com.example.dinadocs.services.PdfGenerationService,com.example.dinadocs.services.SpillBufferFactory,com.example.dinadocs.services.BatchGenerationService,com.example.dinadocs.services.PdfMergeService)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"PdfGenerationMetrics(int, boolean)","u":"%3Cinit%3E(int,boolean)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"PdfGenerationService(TemplateRepository, TemplateProcessor, PdfRendererPool, RenderBulkhead, RenderedPdfCache, PdfGenerationMetrics, EventLogService)","u":"%3Cinit%3E(com.example.dinadocs.repositories.TemplateRepository,com.example.dinadocs.services.TemplateProcessor,com.example.dinadocs.services.PdfRendererPool,com.example.dinadocs.services.RenderBulkhead,com.example.dinadocs.services.RenderedPdfCache,com.example.dinadocs.services.PdfGenerationMetrics,com.example.dinadocs.services.EventLogService)"},{"p":"com.example.dinadocs.services","c":"PdfMergeService","l":"PdfMergeService(PdfGenerationService, SpillBufferFactory, long, String)","u":"%3Cinit%3E(com.example.dinadocs.services.PdfGenerationService,com.example.dinadocs.services.SpillBufferFactory,long,java.lang.String)"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool","l":"PdfRendererPool(int, long, TemplateImageResolver, FontRegistry)","u":"%3Cinit%3E(int,long,com.example.dinadocs.services.TemplateImageResolver,com.example.dinadocs.services.FontRegistry)"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver.Resolution","l":"pending()"},{"p":"com.example.dinadocs.models","c":"PlaceholderSchema","l":"PlaceholderSchema()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.models","c":"PlaceholderSchemaConverter","l":"PlaceholderSchemaConverter()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"BatchGenerationService","l":"prepare(String)","u":"prepare(java.lang.String)"},{"p":"com.example.dinadocs.security","c":"PrincipalCache","l":"PrincipalCache(int, long)","u":"%3Cinit%3E(int,long)"},{"p":"com.example.dinadocs.services","c":"TemplateProcessor","l":"processTemplate(String, Map<String, Object>)","u":"processTemplate(java.lang.String,java.util.Map)"},{"p":"com.example.dinadocs.services","c":"TemplateProcessor","l":"processTemplate(Template, Map<String, Object>)","u":"processTemplate(com.example.dinadocs.models.Template,java.util.Map)"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"purgeExpired()"},{"p":"com.example.dinadocs.models","c":"JobStatus","l":"QUEUED"},{"p":"com.example.dinadocs.services","c":"AssetStore","l":"read(String)","u":"read(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"BatchGenerationService","l":"readRecords(InputStream)","u":"readRecords(java.io.InputStream)"},{"p":"com.example.dinadocs.services","c":"ServerTiming","l":"record(String, long)","u":"record(java.lang.String,long)"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"record(String, OutputStream)","u":"record(java.lang.String,java.io.OutputStream)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"record(String, String, long)","u":"record(java.lang.String,java.lang.String,long)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"recordOutput(String, long, int)","u":"recordOutput(java.lang.String,long,int)"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"register(User)","u":"register(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.services","c":"AuthService","l":"register(User)","u":"register(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.services","c":"FontRegistry","l":"registerWith(ITextFontResolver)","u":"registerWith(org.xhtmlrenderer.pdf.ITextFontResolver)"},{"p":"com.example.dinadocs.services","c":"FontRegistry","l":"registerWith(ITextFontResolver, boolean)","u":"registerWith(org.xhtmlrenderer.pdf.ITextFontResolver,boolean)"},{"p":"com.example.dinadocs.models","c":"User","l":"rehashPassword(String)","u":"rehashPassword(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"removeExpired()"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead","l":"RenderBulkhead(int, int, int, long, double)","u":"%3Cinit%3E(int,int,int,long,double)"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"RenderedPdfCache(long, long, boolean)","u":"%3Cinit%3E(long,long,boolean)"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool.Lease","l":"renderer()"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"renderPdfForMerge(Template, Map<String, Object>, OutputStream)","u":"renderPdfForMerge(com.example.dinadocs.models.Template,java.util.Map,java.io.OutputStream)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"renderPdfQueued(Template, Map<String, Object>, OutputStream)","u":"renderPdfQueued(com.example.dinadocs.models.Template,java.util.Map,java.io.OutputStream)"},{"p":"com.example.dinadocs.config","c":"RequestIdFilter","l":"RequestIdFilter()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver.Resolution","l":"Resolution(FSImage, boolean)","u":"%3Cinit%3E(org.xhtmlrenderer.extend.FSImage,boolean)"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver","l":"resolve(String)","u":"resolve(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"revoke(String, long)","u":"revoke(java.lang.String,long)"},{"p":"com.example.dinadocs.models","c":"RevokedToken","l":"RevokedToken()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.models","c":"RevokedToken","l":"RevokedToken(String, Instant, Instant)","u":"%3Cinit%3E(java.lang.String,java.time.Instant,java.time.Instant)"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"role()"},{"p":"com.example.dinadocs.config","c":"DataInitializer","l":"run(String...)","u":"run(java.lang.String...)"},{"p":"com.example.dinadocs.models","c":"JobStatus","l":"RUNNING"},{"p":"com.example.dinadocs.controllers","c":"TestController","l":"saludo()"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"save(Template, UserPrincipal)","u":"save(com.example.dinadocs.models.Template,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.services","c":"AssetStore","l":"SCHEME"},{"p":"com.example.dinadocs.config","c":"SecurityConfiguration","l":"SecurityConfiguration(JwtFilter)","u":"%3Cinit%3E(com.example.dinadocs.security.JwtFilter)"},{"p":"com.example.dinadocs.config","c":"SecurityConfiguration","l":"securityFilterChain(HttpSecurity)","u":"securityFilterChain(org.springframework.security.config.annotation.web.builders.HttpSecurity)"},{"p":"com.example.dinadocs.models","c":"TemplateSummary","l":"select(Set<String>)","u":"select(java.util.Set)"},{"p":"com.example.dinadocs.services","c":"ServerTiming","l":"ServerTiming()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.config","c":"ServerTimingFilter","l":"ServerTimingFilter(boolean, boolean, double)","u":"%3Cinit%3E(boolean,boolean,double)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setContent(String)","u":"setContent(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"User","l":"setEmail(String)","u":"setEmail(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"RevokedToken","l":"setExpiresAt(Instant)","u":"setExpiresAt(java.time.Instant)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setId(Long)","u":"setId(java.lang.Long)"},{"p":"com.example.dinadocs.models","c":"User","l":"setId(Long)","u":"setId(java.lang.Long)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setName(String)","u":"setName(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"User","l":"setName(String)","u":"setName(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setOwner(User)","u":"setOwner(com.example.dinadocs.models.User)"},{"p":"com.example.dinadocs.models","c":"User","l":"setPassword(String)","u":"setPassword(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setPlaceholders(List<String>)","u":"setPlaceholders(java.util.List)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setPlaceholderSchema(PlaceholderSchema)","u":"setPlaceholderSchema(com.example.dinadocs.models.PlaceholderSchema)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setPublic(boolean)"},{"p":"com.example.dinadocs.models","c":"RevokedToken","l":"setRevokedAt(Instant)","u":"setRevokedAt(java.time.Instant)"},{"p":"com.example.dinadocs.models","c":"User","l":"setRole(Role)","u":"setRole(com.example.dinadocs.models.Role)"},{"p":"com.example.dinadocs.models","c":"User","l":"setTemplates(List<Template>)","u":"setTemplates(java.util.List)"},{"p":"com.example.dinadocs.models","c":"RevokedToken","l":"setTokenId(String)","u":"setTokenId(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"User","l":"setTokenVersion(int)"},{"p":"com.example.dinadocs.models","c":"Template","l":"setVersion(Long)","u":"setVersion(java.lang.Long)"},{"p":"com.example.dinadocs.security","c":"PrincipalCache","l":"size()"},{"p":"com.example.dinadocs.services","c":"CompiledTemplateCache","l":"size()"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache","l":"size()"},{"p":"com.example.dinadocs.services","c":"SpillBuffer","l":"size()"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver","l":"size()"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"size()"},{"p":"com.example.dinadocs.services","c":"ServerTiming","l":"snapshot()"},{"p":"com.example.dinadocs.services","c":"SpillBuffer","l":"SpillBuffer(int, Path)","u":"%3Cinit%3E(int,java.nio.file.Path)"},{"p":"com.example.dinadocs.services","c":"SpillBufferFactory","l":"SpillBufferFactory(int, String)","u":"%3Cinit%3E(int,java.lang.String)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"STAGE_LAYOUT"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"STAGE_MUSTACHE"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"STAGE_NORMALIZE"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"STAGE_PLACEHOLDERS"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"STAGE_TEMPLATE_LOAD"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"STAGE_VALIDATE"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"STAGE_WRITE"},{"p":"com.example.dinadocs.services","c":"StorageQuotaExceededException","l":"StorageQuotaExceededException(String)","u":"%3Cinit%3E(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"AssetStore","l":"store(byte[])"},{"p":"com.example.dinadocs.controllers","c":"PdfController","l":"streamDocument(GenerationRequest)","u":"streamDocument(com.example.dinadocs.models.GenerationRequest)"},{"p":"com.example.dinadocs.security","c":"VerifiedToken","l":"subject()"},{"p":"com.example.dinadocs.services","c":"GenerationJobService","l":"submit(GenerationRequest, Long)","u":"submit(com.example.dinadocs.models.GenerationRequest,java.lang.Long)"},{"p":"com.example.dinadocs.controllers","c":"GenerationJobController","l":"submitJob(GenerationRequest, UserPrincipal)","u":"submitJob(com.example.dinadocs.models.GenerationRequest,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.services","c":"RenderBulkhead.Permit","l":"success()"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"synchronize()"},{"p":"com.example.dinadocs.models","c":"Template","l":"Template()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateAnalyzer","l":"TemplateAnalyzer()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"TemplateController()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver","l":"TemplateImageResolver(AssetStore, long, boolean, long, long, long, long, int)","u":"%3Cinit%3E(com.example.dinadocs.services.AssetStore,long,boolean,long,long,long,long,int)"},{"p":"com.example.dinadocs.services","c":"TemplateProcessor","l":"TemplateProcessor()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateProcessor","l":"TemplateProcessor(CompiledTemplateCache)","u":"%3Cinit%3E(com.example.dinadocs.services.CompiledTemplateCache)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"TemplateService()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.models","c":"TemplateSummary","l":"TemplateSummary()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.models","c":"TemplateSummaryPage","l":"TemplateSummaryPage()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"TemplateUserAgent","l":"TemplateUserAgent(ITextOutputDevice, int, TemplateImageResolver)","u":"%3Cinit%3E(org.xhtmlrenderer.pdf.ITextOutputDevice,int,com.example.dinadocs.services.TemplateImageResolver)"},{"p":"com.example.dinadocs.models","c":"TemplateVersion","l":"TemplateVersion()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.controllers","c":"TestController","l":"TestController()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"time(String, String, Runnable)","u":"time(java.lang.String,java.lang.String,java.lang.Runnable)"},{"p":"com.example.dinadocs.services","c":"PdfGenerationMetrics","l":"time(String, String, Supplier<T>)","u":"time(java.lang.String,java.lang.String,java.util.function.Supplier)"},{"p":"com.example.dinadocs.services","c":"ServerTiming","l":"time(String, Supplier<T>)","u":"time(java.lang.String,java.util.function.Supplier)"},{"p":"com.example.dinadocs.services","c":"ServerTiming","l":"toHeaderValue(long)"},{"p":"com.example.dinadocs.services","c":"TokenBlacklistService","l":"TokenBlacklistService(RevokedTokenRepository, int)","u":"%3Cinit%3E(com.example.dinadocs.repositories.RevokedTokenRepository,int)"},{"p":"com.example.dinadocs.security","c":"VerifiedToken","l":"tokenId()"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"tokenVersion()"},{"p":"com.example.dinadocs.controllers","c":"AuthController","l":"tooManyRequests(CapacityExceededException)","u":"tooManyRequests(com.example.dinadocs.services.CapacityExceededException)"},{"p":"com.example.dinadocs.security","c":"AuthenticatedUser","l":"toString()"},{"p":"com.example.dinadocs.security","c":"VerifiedToken","l":"toString()"},{"p":"com.example.dinadocs.services","c":"TemplateImageResolver.Resolution","l":"toString()"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"update(Long, Template, UserPrincipal)","u":"update(java.lang.Long,com.example.dinadocs.models.Template,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.controllers","c":"TemplateController","l":"updateTemplate(Long, Template, UserPrincipal)","u":"updateTemplate(java.lang.Long,com.example.dinadocs.models.Template,com.example.dinadocs.security.UserPrincipal)"},{"p":"com.example.dinadocs.security","c":"BoundedPasswordEncoder","l":"upgradeEncoding(String)","u":"upgradeEncoding(java.lang.String)"},{"p":"com.example.dinadocs.controllers","c":"AssetController","l":"uploadAsset(MultipartFile)","u":"uploadAsset(org.springframework.web.multipart.MultipartFile)"},{"p":"com.example.dinadocs.security","c":"VerifiedToken","l":"user()"},{"p":"com.example.dinadocs.models","c":"User","l":"User()","u":"%3Cinit%3E()"},{"p":"com.example.dinadocs.services","c":"PdfRendererPool.Lease","l":"userAgent()"},{"p":"com.example.dinadocs.security","c":"UserCacheListener","l":"UserCacheListener(PrincipalCache)","u":"%3Cinit%3E(com.example.dinadocs.security.PrincipalCache)"},{"p":"com.example.dinadocs.models","c":"Role","l":"USUARIO"},{"p":"com.example.dinadocs.services","c":"PdfGenerationService","l":"validateData(GenerationRequest)","u":"validateData(com.example.dinadocs.models.GenerationRequest)"},{"p":"com.example.dinadocs.services","c":"TemplateService","l":"validateTemplatePlaceholders(Template, Map<String, Object>)","u":"validateTemplatePlaceholders(com.example.dinadocs.models.Template,java.util.Map)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"validateTokenAndGetUsername(String)","u":"validateTokenAndGetUsername(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"JobStatus","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"Role","l":"valueOf(String)","u":"valueOf(java.lang.String)"},{"p":"com.example.dinadocs.models","c":"JobStatus","l":"values()"},{"p":"com.example.dinadocs.models","c":"Role","l":"values()"},{"p":"com.example.dinadocs.security","c":"VerifiedToken","l":"VerifiedToken(String, String, long, AuthenticatedUser)","u":"%3Cinit%3E(java.lang.String,java.lang.String,long,com.example.dinadocs.security.AuthenticatedUser)"},{"p":"com.example.dinadocs.security","c":"JwtUtils","l":"verify(String)","u":"verify(java.lang.String)"},{"p":"com.example.dinadocs.services","c":"EventLogService","l":"warn(String, String, String)","u":"warn(java.lang.String,java.lang.String,java.lang.String)"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache.Recorder","l":"write(byte[], int, int)","u":"write(byte[],int,int)"},{"p":"com.example.dinadocs.services","c":"RenderedPdfCache.Recorder","l":"write(int)"},{"p":"com.example.dinadocs.services","c":"GenerationJobService.JobResult","l":"writeTo(OutputStream)","u":"writeTo(java.io.OutputStream)"},{"p":"com.example.dinadocs.services","c":"SpillBuffer","l":"writeTo(OutputStream)","u":"writeTo(java.io.OutputStream)"},{"p":"com.example.dinadocs.services","c":"BatchGenerationService","l":"writeZip(Template, Iterator<Map<String, Object>>, OutputStream)","u":"writeZip(com.example.dinadocs.models.Template,java.util.Iterator,java.io.OutputStream)"}];updateSearchResults();
\ No newline at end of file
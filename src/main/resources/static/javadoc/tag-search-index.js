@@ -1 +1 @@
-tagSearchIndex = [];updateSearchResults();
\ No newline at end of file
+tagSearchIndex = [{"l":"Constant Field Values","h":"","u":"constant-values.html"},{"l":"Serialized Form","h":"","u":"serialized-form.html"}];updateSearchResults();
\ No newline at end of file
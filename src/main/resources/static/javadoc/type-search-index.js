@@ -1 +1 @@
-typeSearchIndex = [{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"com.example.dinadocs.controllers","l":"AuthController"},{"p":"com.example.dinadocs.services","l":"AuthService"},{"p":"com.example.dinadocs.config","l":"CorsConfig"},{"p":"com.example.dinadocs.config","l":"DataInitializer"},{"p":"com.example.dinadocs","l":"DynaDocsApplication"},{"p":"com.example.dinadocs.models","l":"GenerationRequest"},{"p":"com.example.dinadocs.security","l":"JwtFilter"},{"p":"com.example.dinadocs.security","l":"JwtUtils"},{"p":"com.example.dinadocs.controllers","l":"PdfController"},{"p":"com.example.dinadocs.services","l":"PdfGenerationService"},{"p":"com.example.dinadocs.models","l":"Role"},{"p":"com.example.dinadocs.config","l":"SecurityConfiguration"},{"p":"com.example.dinadocs.models","l":"Template"},{"p":"com.example.dinadocs.controllers","l":"TemplateController"},{"p":"com.example.dinadocs.services","l":"TemplateProcessor"},{"p":"com.example.dinadocs.repositories","l":"TemplateRepository"},{"p":"com.example.dinadocs.services","l":"TemplateService"},{"p":"com.example.dinadocs.controllers","l":"TestController"},{"p":"com.example.dinadocs.services","l":"TokenBlacklistService"},{"p":"com.example.dinadocs.models","l":"User"},{"p":"com.example.dinadocs.repositories","l":"UserRepository"}];updateSearchResults();
\ No newline at end of file
+typeSearchIndex = [{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"com.example.dinadocs.controllers","l":"AssetController"},{"p":"com.example.dinadocs.services","l":"AssetStore"},{"p":"com.example.dinadocs.controllers","l":"AuthController"},{"p":"com.example.dinadocs.security","l":"AuthenticatedUser"},{"p":"com.example.dinadocs.services","l":"AuthService"},{"p":"com.example.dinadocs.models","l":"BatchGenerationRequest"},{"p":"com.example.dinadocs.services","l":"BatchGenerationService"},{"p":"com.example.dinadocs.security","l":"BoundedPasswordEncoder"},{"p":"com.example.dinadocs.services","l":"CapacityExceededException"},{"p":"com.example.dinadocs.services","l":"CompiledTemplateCache"},{"p":"com.example.dinadocs.config","l":"CorsConfig"},{"p":"com.example.dinadocs.config","l":"DataInitializer"},{"p":"com.example.dinadocs","l":"DynaDocsApplication"},{"p":"com.example.dinadocs.services","l":"EventLogService"},{"p":"com.example.dinadocs.services","l":"FontRegistry"},{"p":"com.example.dinadocs.controllers","l":"GenerationJobController"},{"p":"com.example.dinadocs.services","l":"GenerationJobService"},{"p":"com.example.dinadocs.models","l":"GenerationJobStatus"},{"p":"com.example.dinadocs.models","l":"GenerationRequest"},{"p":"com.example.dinadocs.services","l":"GenerationJobService.JobResult"},{"p":"com.example.dinadocs.models","l":"JobStatus"},{"p":"com.example.dinadocs.security","l":"JwtFilter"},{"p":"com.example.dinadocs.security","l":"JwtUtils"},{"p":"com.example.dinadocs.services","l":"PdfRendererPool.Lease"},{"p":"com.example.dinadocs.controllers","l":"PdfController"},{"p":"com.example.dinadocs.services","l":"PdfGenerationMetrics"},{"p":"com.example.dinadocs.services","l":"PdfGenerationService"},{"p":"com.example.dinadocs.services","l":"PdfMergeService"},{"p":"com.example.dinadocs.services","l":"PdfRendererPool"},{"p":"com.example.dinadocs.services","l":"RenderBulkhead.Permit"},{"p":"com.example.dinadocs.models","l":"PlaceholderSchema"},{"p":"com.example.dinadocs.models","l":"PlaceholderSchemaConverter"},{"p":"com.example.dinadocs.security","l":"PrincipalCache"},{"p":"com.example.dinadocs.services","l":"RenderedPdfCache.Recorder"},{"p":"com.example.dinadocs.services","l":"RenderBulkhead"},{"p":"com.example.dinadocs.services","l":"RenderedPdfCache"},{"p":"com.example.dinadocs.config","l":"RequestIdFilter"},{"p":"com.example.dinadocs.services","l":"TemplateImageResolver.Resolution"},{"p":"com.example.dinadocs.models","l":"RevokedToken"},{"p":"com.example.dinadocs.repositories","l":"RevokedTokenRepository"},{"p":"com.example.dinadocs.models","l":"Role"},{"p":"com.example.dinadocs.config","l":"SecurityConfiguration"},{"p":"com.example.dinadocs.services","l":"ServerTiming"},{"p":"com.example.dinadocs.config","l":"ServerTimingFilter"},{"p":"com.example.dinadocs.services","l":"SpillBuffer"},{"p":"com.example.dinadocs.services","l":"SpillBufferFactory"},{"p":"com.example.dinadocs.services","l":"StorageQuotaExceededException"},{"p":"com.example.dinadocs.models","l":"Template"},{"p":"com.example.dinadocs.services","l":"TemplateAnalyzer"},{"p":"com.example.dinadocs.controllers","l":"TemplateController"},{"p":"com.example.dinadocs.services","l":"TemplateImageResolver"},{"p":"com.example.dinadocs.services","l":"TemplateProcessor"},{"p":"com.example.dinadocs.repositories","l":"TemplateRepository"},{"p":"com.example.dinadocs.services","l":"TemplateService"},{"p":"com.example.dinadocs.models","l":"TemplateSummary"},{"p":"com.example.dinadocs.models","l":"TemplateSummaryPage"},{"p":"com.example.dinadocs.services","l":"TemplateUserAgent"},{"p":"com.example.dinadocs.models","l":"TemplateVersion"},{"p":"com.example.dinadocs.controllers","l":"TestController"},{"p":"com.example.dinadocs.services","l":"TokenBlacklistService"},{"p":"com.example.dinadocs.models","l":"User"},{"p":"com.example.dinadocs.security","l":"UserCacheListener"},{"p":"com.example.dinadocs.security","l":"UserPrincipal"},{"p":"com.example.dinadocs.repositories","l":"UserRepository"},{"p":"com.example.dinadocs.security","l":"VerifiedToken"}];updateSearchResults();
\ No newline at end of file
@@ -9,7 +9,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.example.dinadocs.services.CompiledTemplateCache;
+import com.example.dinadocs.services.EventLogService;
+import com.example.dinadocs.services.TemplateAnalyzer;
 import com.example.dinadocs.services.TemplateService;
 
 import java.nio.file.AccessDeniedException;
@@ -29,6 +33,15 @@ class TemplateServiceTest {
     @Mock
     private TemplateRepository templateRepository;
 
+    @Mock
+    private CompiledTemplateCache compiledTemplateCache;
+
+    @Mock
+    private EventLogService eventLog;
+
+    @Spy
+    private TemplateAnalyzer templateAnalyzer = new TemplateAnalyzer();
+
     @InjectMocks
     private TemplateService templateService;
 
@@ -0,0 +1,37 @@
+package com.example.dinadocs.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Acceso a Actuator: health es público; las métricas (con nombres de plantillas en sus
+ * etiquetas) solo para ADMIN.
+ */
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,metrics")
+@AutoConfigureMockMvc
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testHealthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void testMetricsRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user("usuario").roles("USUARIO")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk());
+    }
+}
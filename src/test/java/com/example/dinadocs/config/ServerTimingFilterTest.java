@@ -0,0 +1,86 @@
+package com.example.dinadocs.config;
+
+import com.example.dinadocs.models.Role;
+import com.example.dinadocs.models.User;
+import com.example.dinadocs.services.ServerTiming;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    /** Simula un controlador que anota etapas, autentica y escribe el cuerpo. */
+    private static FilterChain chainAs(Role role) {
+        return (request, response) -> {
+            if (role != null) {
+                User user = new User();
+                user.setRole(role);
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>()));
+            }
+            ServerTiming.record("mustache_render", 2_000_000);
+            ServerTiming.record("layout", 5_000_000);
+            ServerTiming.record("layout", 1_000_000);
+            response.getOutputStream().write(new byte[]{1, 2, 3});
+        };
+    }
+
+    private static MockHttpServletRequest pdfRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/generatePDF");
+        request.setServletPath("/api/generatePDF");
+        return request;
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testSampledRequestGetsStageBreakdown() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(true, false, 1.0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(pdfRequest(), response, chainAs(Role.USUARIO));
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.startsWith("mustache_render;dur=2.0, layout;dur=6.0, total;dur="), header);
+        assertEquals(3, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testAdminOnlyModeSkipsOtherUsers() throws Exception {
+        ServerTimingFilter filter = new ServerTimingFilter(true, true, 0.0);
+
+        MockHttpServletResponse userResponse = new MockHttpServletResponse();
+        filter.doFilter(pdfRequest(), userResponse, chainAs(Role.USUARIO));
+        assertNull(userResponse.getHeader(ServerTimingFilter.HEADER));
+
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse adminResponse = new MockHttpServletResponse();
+        filter.doFilter(pdfRequest(), adminResponse, chainAs(Role.ADMIN));
+        assertNotNull(adminResponse.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    void testOtherPathsAndDisabledFilterAreNotTimed() throws Exception {
+        MockHttpServletRequest loginRequest = new MockHttpServletRequest("POST", "/api/auth/login");
+        loginRequest.setServletPath("/api/auth/login");
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        new ServerTimingFilter(true, false, 1.0).doFilter(loginRequest, loginResponse, chainAs(Role.ADMIN));
+        assertNull(loginResponse.getHeader(ServerTimingFilter.HEADER));
+
+        MockHttpServletResponse disabledResponse = new MockHttpServletResponse();
+        new ServerTimingFilter(false, true, 1.0).doFilter(pdfRequest(), disabledResponse, chainAs(Role.ADMIN));
+        assertNull(disabledResponse.getHeader(ServerTimingFilter.HEADER));
+    }
+}
@@ -3,11 +3,13 @@ package com.example.dinadocs.controllers;
 import com.example.dinadocs.models.Role;
 import com.example.dinadocs.models.User;
 import com.example.dinadocs.services.AuthService;
+import com.example.dinadocs.services.CapacityExceededException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -80,6 +82,23 @@ class AuthControllerTest {
         verify(authService, times(1)).login("prueba@ejemplo.com", "contrasenaIncorrecta");
     }
 
+    @Test
+    void testAuthenticateUserTooManyRequests() {
+        Map<String, String> request = new HashMap<>();
+        request.put("email", "prueba@ejemplo.com");
+        request.put("password", "contrasena");
+        CapacityExceededException capacity = new CapacityExceededException("Demasiados logins", 3);
+
+        when(authService.login("prueba@ejemplo.com", "contrasena")).thenThrow(capacity);
+
+        CapacityExceededException thrown = assertThrows(CapacityExceededException.class,
+                () -> authController.authenticateUser(request));
+        ResponseEntity<String> response = authController.tooManyRequests(thrown);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
     @Test
     void testLogoutSuccess() {
         String token = "Bearer tokenPrueba";
@@ -1,16 +1,29 @@
 package com.example.dinadocs.controllers;
 
+import com.example.dinadocs.models.BatchGenerationRequest;
 import com.example.dinadocs.models.GenerationRequest;
+import com.example.dinadocs.services.BatchGenerationService;
+import com.example.dinadocs.services.CapacityExceededException;
 import com.example.dinadocs.services.PdfGenerationService;
+import com.example.dinadocs.services.PdfMergeService;
+import com.example.dinadocs.services.SpillBufferFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,6 +34,15 @@ class PdfControllerTest {
     @Mock
     private PdfGenerationService pdfService;
 
+    @Spy
+    private SpillBufferFactory spillBufferFactory = new SpillBufferFactory(8, System.getProperty("java.io.tmpdir"));
+
+    @Mock
+    private BatchGenerationService batchService;
+
+    @Mock
+    private PdfMergeService mergeService;
+
     @InjectMocks
     private PdfController pdfController;
 
@@ -79,4 +101,72 @@ class PdfControllerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         verify(pdfService, times(1)).generatePdf(request);
     }
+
+    @Test
+    void testGenerateDocumentTooManyRequests() {
+        GenerationRequest request = new GenerationRequest();
+        request.setTemplateType("factura");
+
+        when(pdfService.generatePdf(request))
+                .thenThrow(new CapacityExceededException("Saturado", 3));
+
+        ResponseEntity<?> response = pdfController.generateDocument(request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testMergeDocumentsTooManyRequests() throws Exception {
+        BatchGenerationRequest request = new BatchGenerationRequest();
+        request.setTemplateType("factura");
+        request.setData(List.of(Map.of("nombre", "Juan Pérez")));
+
+        doThrow(new CapacityExceededException("Saturado", 2))
+                .when(mergeService).mergeTo(eq("factura"), any(), any(OutputStream.class));
+
+        ResponseEntity<?> response = pdfController.mergeDocuments(request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testStreamDocumentSuccess() throws Exception {
+        GenerationRequest request = new GenerationRequest();
+        request.setTemplateType("factura");
+        Map<String, Object> data = new HashMap<>();
+        data.put("nombre", "Juan Pérez");
+        request.setData(data);
+
+        byte[] mockPdf = "Contenido PDF más largo que el umbral".getBytes();
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write(mockPdf);
+            return null;
+        }).when(pdfService).generatePdf(eq(request), any(OutputStream.class));
+
+        ResponseEntity<?> response = pdfController.streamDocument(request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PDF, response.getHeaders().getContentType());
+        assertEquals(mockPdf.length, response.getHeaders().getContentLength());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(out);
+        assertArrayEquals(mockPdf, out.toByteArray());
+    }
+
+    @Test
+    void testStreamDocumentInternalServerError() {
+        GenerationRequest request = new GenerationRequest();
+        request.setTemplateType("factura");
+
+        doThrow(new RuntimeException("Error interno"))
+                .when(pdfService).generatePdf(eq(request), any(OutputStream.class));
+
+        ResponseEntity<?> response = pdfController.streamDocument(request);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getBody());
+    }
 }
@@ -2,6 +2,8 @@ package com.example.dinadocs.controllers;
 
 import com.example.dinadocs.models.Role;
 import com.example.dinadocs.models.Template;
+import com.example.dinadocs.models.TemplateSummary;
+import com.example.dinadocs.models.TemplateSummaryPage;
 import com.example.dinadocs.models.User;
 import com.example.dinadocs.services.TemplateService;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,10 +13,16 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.nio.file.AccessDeniedException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,17 +52,31 @@ class TemplateControllerTest {
         testTemplate.setName("Plantilla de Prueba");
         testTemplate.setContent("<html>{{nombre}}</html>");
         testTemplate.setOwner(testUser);
+        testTemplate.setVersion(0L);
+
+        when(templateService.listETag(testUser)).thenReturn("l-abc");
+    }
+
+    /**
+     * Petición GET sin cabeceras condicionales, o con If-None-Match si se indica.
+     */
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/templates");
+        if (ifNoneMatch != null) {
+            servletRequest.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(servletRequest, new MockHttpServletResponse());
     }
 
     @Test
     void testCreateTemplate() {
         when(templateService.save(any(Template.class), eq(testUser))).thenReturn(testTemplate);
 
-        ResponseEntity<Template> response = templateController.createTemplate(testTemplate, testUser);
+        ResponseEntity<?> response = templateController.createTemplate(testTemplate, testUser);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals("Plantilla de Prueba", response.getBody().getName());
+        assertEquals("Plantilla de Prueba", ((Template) response.getBody()).getName());
         verify(templateService, times(1)).save(any(Template.class), eq(testUser));
     }
 
@@ -65,31 +87,66 @@ class TemplateControllerTest {
 
         when(templateService.findAllByRole(testUser)).thenReturn(templates);
 
-        ResponseEntity<List<Template>> response = templateController.getAllTemplates(testUser);
+        ResponseEntity<List<Template>> response = templateController.getAllTemplates(testUser, request(null));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
+        assertEquals("\"l-abc\"", response.getHeaders().getETag());
         verify(templateService, times(1)).findAllByRole(testUser);
     }
 
+    @Test
+    void testGetAllTemplatesNotModified() {
+        ResponseEntity<List<Template>> response = templateController.getAllTemplates(testUser, request("\"l-abc\""));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(templateService, never()).findAllByRole(any());
+    }
+
     @Test
     void testGetTemplateByIdSuccess() throws AccessDeniedException {
         when(templateService.findById(1L, testUser)).thenReturn(testTemplate);
 
-        ResponseEntity<?> response = templateController.getTemplateById(1L, testUser);
+        ResponseEntity<?> response = templateController.getTemplateById(1L, testUser, request(null));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
+        assertEquals("\"t1-v0\"", response.getHeaders().getETag());
         verify(templateService, times(1)).findById(1L, testUser);
     }
 
+    @Test
+    void testGetTemplateByIdNotModified() throws AccessDeniedException {
+        when(templateService.findETag(1L, testUser)).thenReturn(Optional.of("t1-v0"));
+
+        ResponseEntity<?> response = templateController.getTemplateById(1L, testUser, request("\"t1-v0\""));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(templateService, never()).findById(any(), any());
+    }
+
+    @Test
+    void testGetTemplateByIdModifiedSinceETag() throws AccessDeniedException {
+        testTemplate.setVersion(1L);
+        when(templateService.findETag(1L, testUser)).thenReturn(Optional.of("t1-v1"));
+        when(templateService.findById(1L, testUser)).thenReturn(testTemplate);
+
+        ResponseEntity<?> response = templateController.getTemplateById(1L, testUser, request("\"t1-v0\""));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"t1-v1\"", response.getHeaders().getETag());
+        assertSame(testTemplate, response.getBody());
+    }
+
     @Test
     void testGetTemplateByIdAccessDenied() throws AccessDeniedException {
         when(templateService.findById(1L, testUser))
                 .thenThrow(new AccessDeniedException("No tiene permiso para ver esta plantilla."));
 
-        ResponseEntity<?> response = templateController.getTemplateById(1L, testUser);
+        ResponseEntity<?> response = templateController.getTemplateById(1L, testUser, request(null));
 
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
         assertEquals("Acceso denegado", response.getBody());
@@ -101,7 +158,7 @@ class TemplateControllerTest {
         when(templateService.findById(999L, testUser))
                 .thenThrow(new RuntimeException("Plantilla no encontrada con id: 999"));
 
-        ResponseEntity<?> response = templateController.getTemplateById(999L, testUser);
+        ResponseEntity<?> response = templateController.getTemplateById(999L, testUser, request(null));
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(templateService, times(1)).findById(999L, testUser);
@@ -154,4 +211,61 @@ class TemplateControllerTest {
         assertEquals("Acceso denegado", response.getBody());
         verify(templateService, times(1)).delete(1L, testUser);
     }
+
+    @Test
+    void testGetTemplateSummariesWithSparseFields() {
+        TemplateSummaryPage page = new TemplateSummaryPage(
+                List.of(new TemplateSummary(1L, "Factura", true, 1L, 3)), 1L);
+        when(templateService.findSummaries(testUser, null, 1)).thenReturn(page);
+
+        ResponseEntity<?> response = templateController.getTemplateSummaries(null, 1, "id, name", testUser, request(null));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        TemplateSummaryPage body = (TemplateSummaryPage) response.getBody();
+        assertEquals(List.of(Map.of("id", 1L, "name", "Factura")), body.getItems());
+        assertEquals(1L, body.getNextCursor());
+    }
+
+    @Test
+    void testGetTemplateSummariesNotModified() {
+        when(templateService.findSummaries(testUser, null, 1)).thenReturn(new TemplateSummaryPage(List.of(), null));
+        String etag = templateController.getTemplateSummaries(null, 1, null, testUser, request(null))
+                .getHeaders().getETag();
+
+        ResponseEntity<?> response = templateController.getTemplateSummaries(null, 1, null, testUser, request(etag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        verify(templateService, times(1)).findSummaries(any(), any(), any());
+    }
+
+    @Test
+    void testGetTemplateSummariesETagVariesWithPageAndFields() {
+        when(templateService.findSummaries(eq(testUser), any(), any())).thenReturn(new TemplateSummaryPage(List.of(), null));
+
+        String first = templateController.getTemplateSummaries(null, 1, null, testUser, request(null)).getHeaders().getETag();
+        String second = templateController.getTemplateSummaries(1L, 1, null, testUser, request(null)).getHeaders().getETag();
+        String larger = templateController.getTemplateSummaries(null, 2, null, testUser, request(null)).getHeaders().getETag();
+        String sparse = templateController.getTemplateSummaries(null, 1, "name,id", testUser, request(null)).getHeaders().getETag();
+
+        assertEquals(4, Set.of(first, second, larger, sparse).size());
+        // Peticiones equivalentes (cursor y tamaño por defecto, campos en otro orden) comparten ETag.
+        assertEquals(templateController.getTemplateSummaries(null, null, null, testUser, request(null)).getHeaders().getETag(),
+                templateController.getTemplateSummaries(0L, TemplateService.DEFAULT_PAGE_SIZE, null, testUser, request(null))
+                        .getHeaders().getETag());
+        assertEquals(sparse,
+                templateController.getTemplateSummaries(null, 1, "id,name", testUser, request(null)).getHeaders().getETag());
+
+        // Una página ya guardada no vale como 304 para otra.
+        ResponseEntity<?> response = templateController.getTemplateSummaries(1L, 1, null, testUser, request(first));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void testGetTemplateSummariesUnknownFieldIsBadRequest() {
+        ResponseEntity<?> response = templateController.getTemplateSummaries(null, null, "id,content", testUser, request(null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(templateService);
+    }
 }
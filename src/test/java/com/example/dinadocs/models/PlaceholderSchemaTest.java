@@ -0,0 +1,58 @@
+package com.example.dinadocs.models;
+
+import com.example.dinadocs.services.TemplateAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceholderSchemaTest {
+
+    private final PlaceholderSchema schema = new TemplateAnalyzer().analyze(
+            "<p>{{cliente}}</p>{{#conceptos}}<tr><td>{{descripcion}}</td><td>{{precio}} {{moneda}}</td></tr>{{/conceptos}}"
+                    + "{{^conceptos}}Sin conceptos{{/conceptos}}<img src=\"{{{logo}}}\"/>{{! comentario }}{{direccion.ciudad}}");
+
+    @Test
+    void testFlattenUsesDottedNamesForSections() {
+        assertEquals(List.of("cliente", "logo", "direccion.ciudad", "conceptos",
+                "conceptos.descripcion", "conceptos.precio", "conceptos.moneda"), schema.flatten());
+    }
+
+    @Test
+    void testFindMissingResolvesOuterScopesAndAggregatesRows() {
+        List<Map<String, Object>> conceptos = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            conceptos.add(Map.of("descripcion", "Concepto " + i));
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("cliente", "ACME");
+        data.put("moneda", "MXN");
+        data.put("logo", "asset:abc");
+        data.put("direccion", Map.of("ciudad", "Mérida"));
+        data.put("conceptos", conceptos);
+
+        assertEquals(Set.of("conceptos[].precio"), schema.findMissing(data));
+    }
+
+    @Test
+    void testFindMissingReportsAbsentSectionsAndNulls() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("cliente", null);
+        data.put("direccion", Map.of());
+
+        assertEquals(Set.of("cliente", "logo", "direccion.ciudad", "conceptos"), schema.findMissing(data));
+    }
+
+    @Test
+    void testConverterRoundTrip() {
+        PlaceholderSchemaConverter converter = new PlaceholderSchemaConverter();
+
+        assertEquals(schema, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(schema)));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.dinadocs.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Presupuesto de consultas para pruebas de repositorio, con las estadísticas de Hibernate.
+ *
+ * <p>Cuenta las sentencias JDBC preparadas mientras se ejecuta la llamada (incluida la
+ * carga perezosa que haga dentro) y falla si supera el máximo declarado. Así una consulta
+ * N+1 que reaparezca rompe el build en lugar de descubrirse en producción. Antes de medir
+ * hay que vaciar el contexto de persistencia ({@code flush()} y {@code clear()}) para que
+ * las entidades no salgan de la caché de primer nivel.
+ */
+final class QueryBudget {
+
+    private final Statistics statistics;
+
+    private QueryBudget(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * @param entityManager EntityManager de la prueba.
+     * @return Un presupuesto que mide sobre su SessionFactory (activa las estadísticas).
+     */
+    static QueryBudget of(EntityManager entityManager) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        return new QueryBudget(statistics);
+    }
+
+    /**
+     * Ejecuta la llamada y comprueba que no prepara más de {@code maxQueries} sentencias.
+     *
+     * @param maxQueries Presupuesto de consultas.
+     * @param description Qué se mide, para el mensaje de error.
+     * @param call La llamada al repositorio y el acceso a lo que devuelve.
+     * @return El resultado de la llamada.
+     */
+    <T> T atMost(int maxQueries, String description, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        long queries = statistics.getPrepareStatementCount();
+        if (queries > maxQueries) {
+            fail(description + ": " + queries + " consultas, presupuesto " + maxQueries);
+        }
+        return result;
+    }
+}
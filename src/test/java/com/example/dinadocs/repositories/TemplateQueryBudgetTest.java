@@ -0,0 +1,109 @@
+package com.example.dinadocs.repositories;
+
+import com.example.dinadocs.models.Role;
+import com.example.dinadocs.models.Template;
+import com.example.dinadocs.models.User;
+import com.example.dinadocs.security.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Presupuestos de consultas de las lecturas de plantillas: el coste no debe crecer con el
+ * número de plantillas (sin N+1 por los placeholders ni por el propietario).
+ */
+@DataJpaTest
+@Import(PrincipalCache.class)
+class TemplateQueryBudgetTest {
+
+    private static final int TEMPLATES = 8;
+
+    @Autowired
+    private TemplateRepository templateRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private QueryBudget budget;
+    private User owner;
+    private Long firstId;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setName("Dueño");
+        owner.setEmail("dueno@ejemplo.com");
+        owner.setPassword("hash");
+        owner.setRole(Role.USUARIO);
+        entityManager.persist(owner);
+        for (int i = 0; i < TEMPLATES; i++) {
+            Template template = new Template();
+            template.setName("Plantilla " + i);
+            template.setContent("<html>{{a}}{{b}}</html>");
+            template.setPublic(i % 2 == 0);
+            template.setOwner(owner);
+            template.setPlaceholders(List.of("a", "b"));
+            entityManager.persist(template);
+            if (firstId == null) {
+                firstId = template.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        budget = QueryBudget.of(entityManager.getEntityManager());
+    }
+
+    private static int touch(List<Template> templates) {
+        int placeholders = 0;
+        for (Template template : templates) {
+            placeholders += template.getPlaceholders().size();
+            template.getOwner().getId();
+        }
+        return placeholders;
+    }
+
+    @Test
+    void testListsCostOneQueryRegardlessOfSize() {
+        assertEquals(TEMPLATES * 2, budget.atMost(1, "findAll",
+                () -> touch(templateRepository.findAll())));
+        entityManager.clear();
+        assertEquals(TEMPLATES, budget.atMost(1, "findByIsPublicTrue",
+                () -> touch(templateRepository.findByIsPublicTrue())));
+        entityManager.clear();
+        assertEquals(TEMPLATES * 2, budget.atMost(1, "findByIsPublicTrueOrOwner",
+                () -> touch(templateRepository.findByIsPublicTrueOrOwner(owner))));
+    }
+
+    @Test
+    void testSingleTemplateReadsCostOneQuery() {
+        budget.atMost(1, "findById", () -> touch(List.of(templateRepository.findById(firstId).orElseThrow())));
+        entityManager.clear();
+        budget.atMost(1, "findByName", () -> touch(List.of(templateRepository.findByName("Plantilla 3").orElseThrow())));
+        entityManager.clear();
+        budget.atMost(1, "findSummaries", () -> templateRepository.findSummaries(0L, true, null, Limit.of(50)));
+    }
+
+    @Test
+    void testOtherListsInitializePlaceholdersInBatches() {
+        budget.atMost(2, "consulta sin entity graph", () -> touch(entityManager.getEntityManager()
+                .createQuery("select t from Template t", Template.class)
+                .getResultList()));
+    }
+
+    @Test
+    void testDeleteDoesNotReloadTheTemplate() {
+        budget.atMost(3, "findById + delete", () -> {
+            templateRepository.delete(templateRepository.findById(firstId).orElseThrow());
+            entityManager.flush();
+            return null;
+        });
+    }
+}
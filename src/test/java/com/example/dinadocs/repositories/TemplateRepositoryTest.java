@@ -0,0 +1,101 @@
+package com.example.dinadocs.repositories;
+
+import com.example.dinadocs.models.Role;
+import com.example.dinadocs.models.Template;
+import com.example.dinadocs.models.TemplateSummary;
+import com.example.dinadocs.models.TemplateVersion;
+import com.example.dinadocs.models.User;
+import com.example.dinadocs.security.PrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(PrincipalCache.class)
+class TemplateRepositoryTest {
+
+    @Autowired
+    private TemplateRepository templateRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(user("dueno@ejemplo.com"));
+        other = entityManager.persist(user("otro@ejemplo.com"));
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setName("Usuario");
+        user.setEmail(email);
+        user.setPassword("hash");
+        user.setRole(Role.USUARIO);
+        return user;
+    }
+
+    private Template template(String name, boolean isPublic, User templateOwner, String... placeholders) {
+        Template template = new Template();
+        template.setName(name);
+        template.setContent("<html>" + name + "</html>");
+        template.setPublic(isPublic);
+        template.setOwner(templateOwner);
+        template.setPlaceholders(List.of(placeholders));
+        return entityManager.persist(template);
+    }
+
+    @Test
+    void testFindSummariesAppliesVisibilityKeysetAndLimit() {
+        Template shared = template("Pública", true, other, "a", "b");
+        Template own = template("Propia", false, owner, "c");
+        template("Ajena", false, other);
+        Template orphan = template("Sin dueño", true, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TemplateSummary> visible = templateRepository.findSummaries(0L, false, owner.getId(), Limit.of(10));
+        assertEquals(List.of(shared.getId(), own.getId(), orphan.getId()),
+                visible.stream().map(TemplateSummary::getId).toList());
+        assertEquals(new TemplateSummary(shared.getId(), "Pública", true, other.getId(), 2), visible.get(0));
+        assertNull(visible.get(2).getOwnerId());
+
+        List<TemplateSummary> next = templateRepository.findSummaries(shared.getId(), true, null, Limit.of(2));
+        assertEquals(2, next.size());
+        assertEquals(own.getId(), next.get(0).getId());
+    }
+
+    @Test
+    void testVersionsTrackChangesToVisibleTemplates() {
+        Template shared = template("Pública", true, other, "a");
+        template("Ajena", false, other);
+        entityManager.flush();
+        String before = templateRepository.findListVersion(false, owner.getId());
+        String hidden = templateRepository.findListVersion(true, null);
+        assertEquals(new TemplateVersion(shared.getId(), 0L, true, other.getId()),
+                templateRepository.findVersionById(shared.getId()).orElseThrow());
+
+        shared.setContent("<html>{{nuevo}}</html>");
+        entityManager.flush();
+        assertEquals(1L, templateRepository.findVersionById(shared.getId()).orElseThrow().getVersion());
+        String afterUpdate = templateRepository.findListVersion(false, owner.getId());
+        assertNotEquals(before, afterUpdate);
+
+        template("Propia", false, owner);
+        entityManager.flush();
+        assertNotEquals(afterUpdate, templateRepository.findListVersion(false, owner.getId()));
+        assertNotEquals(hidden, templateRepository.findListVersion(true, null));
+        assertTrue(templateRepository.findVersionById(-1L).isEmpty());
+    }
+}
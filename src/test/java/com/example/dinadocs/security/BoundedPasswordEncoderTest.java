@@ -0,0 +1,68 @@
+package com.example.dinadocs.security;
+
+import com.example.dinadocs.services.CapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void testEncodesAndMatchesOnDedicatedThreads() {
+        encoder = new BoundedPasswordEncoder(4, 1, 4, 5_000);
+
+        String hash = encoder.encode("secreto");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secreto", hash));
+        assertFalse(encoder.matches("otro", hash));
+    }
+
+    @Test
+    void testUpgradeEncodingWhenConfiguredCostChanges() {
+        encoder = new BoundedPasswordEncoder(5, 1, 4, 5_000);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secreto")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secreto")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secreto")));
+        assertFalse(encoder.upgradeEncoding("texto-plano"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void testRejectsWhileQueuedButFinishesRunningHash() throws Exception {
+        encoder = new BoundedPasswordEncoder(12, 1, 1, 50);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder.bindTo(registry);
+
+        // Ocupa el único hilo con un hash que tarda bastante más que la espera máxima.
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("primero"));
+        Thread.sleep(20);
+
+        CapacityExceededException e = assertThrows(CapacityExceededException.class,
+                () -> encoder.encode("segundo"));
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(0, encoder.getQueuedCount());
+
+        String hash = running.get(30, TimeUnit.SECONDS);
+        assertTrue(encoder.matches("primero", hash));
+        assertEquals(1.0, registry.get("dynadocs.auth.password.rejections").counter().count());
+        // El hash rechazado nunca llegó a calcularse: solo constan el primero y el matches.
+        assertEquals(2, registry.get("dynadocs.auth.password.hash").timer().count());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.dinadocs.security;
+
+import com.example.dinadocs.models.Role;
+import com.example.dinadocs.models.User;
+import com.example.dinadocs.repositories.RevokedTokenRepository;
+import com.example.dinadocs.repositories.UserRepository;
+import com.example.dinadocs.services.EventLogService;
+import com.example.dinadocs.services.TokenBlacklistService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtFilterTest {
+
+    private JwtUtils jwtUtils;
+    private UserRepository userRepository;
+    private JwtFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        userRepository = mock(UserRepository.class);
+        filter = new JwtFilter(jwtUtils, new TokenBlacklistService(mock(RevokedTokenRepository.class), 1024),
+                userRepository, new PrincipalCache(10, 60_000), mock(EventLogService.class));
+
+        user = new User();
+        user.setId(3L);
+        user.setEmail("ana@ejemplo.com");
+        user.setRole(Role.USUARIO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/templates");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    void testPrincipalIsBuiltFromClaimsWithoutLoadingTheEntity() throws Exception {
+        when(userRepository.findPrincipalById(3L))
+                .thenReturn(Optional.of(new AuthenticatedUser(3L, "ana@ejemplo.com", Role.USUARIO, 0)));
+        String token = jwtUtils.generateToken(user);
+
+        Authentication first = filter(token);
+        SecurityContextHolder.clearContext();
+        filter(token);
+
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, first.getPrincipal());
+        assertEquals(3L, principal.getId());
+        assertEquals(Role.USUARIO, principal.getRole());
+        assertEquals(List.of("ROLE_USUARIO"),
+                first.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verify(userRepository, times(1)).findPrincipalById(3L);
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void testTokenFromAnOlderVersionIsNotAuthenticated() throws Exception {
+        String token = jwtUtils.generateToken(user);
+        user.setRole(Role.ADMIN);
+        when(userRepository.findPrincipalById(3L))
+                .thenReturn(Optional.of(new AuthenticatedUser(3L, "ana@ejemplo.com", Role.ADMIN, user.getTokenVersion())));
+
+        assertNull(filter(token));
+        assertNotNull(filter(jwtUtils.generateToken(user)));
+    }
+}
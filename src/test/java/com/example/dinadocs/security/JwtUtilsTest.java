@@ -1,5 +1,7 @@
 package com.example.dinadocs.security;
 
+import com.example.dinadocs.models.Role;
+import com.example.dinadocs.models.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -62,4 +64,64 @@ class JwtUtilsTest {
         assertEquals(user1, jwtUtils.validateTokenAndGetUsername(token1));
         assertEquals(user2, jwtUtils.validateTokenAndGetUsername(token2));
     }
+
+    @Test
+    void testEachTokenHasItsOwnId() {
+        VerifiedToken first = jwtUtils.verify(jwtUtils.generateToken("test@ejemplo.com"));
+        VerifiedToken second = jwtUtils.verify(jwtUtils.generateToken("test@ejemplo.com"));
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotEquals(first.tokenId(), second.tokenId());
+        assertTrue(first.expiresAt() > System.currentTimeMillis());
+    }
+
+    @Test
+    void testTokenCarriesUserClaims() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("creador@ejemplo.com");
+        user.setRole(Role.USUARIO);
+        user.setRole(Role.CREADOR);
+
+        AuthenticatedUser claimed = jwtUtils.verify(jwtUtils.generateToken(user)).user();
+
+        assertEquals(new AuthenticatedUser(7L, "creador@ejemplo.com", Role.CREADOR, 1), claimed);
+        assertNull(jwtUtils.verify(jwtUtils.generateToken("creador@ejemplo.com")).user());
+    }
+
+    @Test
+    void testRepeatedValidationUsesVerifiedTokenCache() {
+        String token = jwtUtils.generateToken("prueba@ejemplo.com");
+
+        assertEquals("prueba@ejemplo.com", jwtUtils.validateTokenAndGetUsername(token));
+        assertEquals("prueba@ejemplo.com", jwtUtils.validateTokenAndGetUsername(token));
+
+        assertEquals(1, jwtUtils.getMissCount());
+        assertEquals(1, jwtUtils.getHitCount());
+        assertEquals(1, jwtUtils.getCachedTokenCount());
+    }
+
+    @Test
+    void testTamperedTokenIsRejectedAndNotCached() {
+        String token = jwtUtils.generateToken("prueba@ejemplo.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(jwtUtils.validateTokenAndGetUsername(tampered));
+        assertNull(jwtUtils.validateTokenAndGetUsername(tampered));
+        assertEquals(0, jwtUtils.getCachedTokenCount());
+        assertEquals(0, jwtUtils.getHitCount());
+    }
+
+    @Test
+    void testExpiredCacheEntryIsVerifiedAgain() {
+        JwtUtils noReuse = new JwtUtils(10, 0);
+        String token = noReuse.generateToken("prueba@ejemplo.com");
+
+        assertEquals("prueba@ejemplo.com", noReuse.validateTokenAndGetUsername(token));
+        assertEquals("prueba@ejemplo.com", noReuse.validateTokenAndGetUsername(token));
+
+        assertEquals(2, noReuse.getMissCount());
+        assertEquals(0, noReuse.getHitCount());
+    }
 }
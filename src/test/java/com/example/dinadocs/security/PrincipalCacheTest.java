@@ -0,0 +1,83 @@
+package com.example.dinadocs.security;
+
+import com.example.dinadocs.models.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private static AuthenticatedUser user(long id, Role role, int tokenVersion) {
+        return new AuthenticatedUser(id, "user" + id + "@test.com", role, tokenVersion);
+    }
+
+    private static Supplier<AuthenticatedUser> counting(AtomicInteger loads, AuthenticatedUser user) {
+        return () -> {
+            loads.incrementAndGet();
+            return user;
+        };
+    }
+
+    @Test
+    void testRepeatedLookupsAreServedFromCache() {
+        PrincipalCache cache = new PrincipalCache(10, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<AuthenticatedUser> loader = counting(loads, user(1L, Role.USUARIO, 0));
+
+        cache.get(1L, loader);
+        AuthenticatedUser second = cache.get(1L, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1L, second.getId());
+        assertEquals(Role.USUARIO, second.getRole());
+    }
+
+    @Test
+    void testExpiredEntriesAndMissingUsersAreReloaded() {
+        PrincipalCache expiring = new PrincipalCache(10, 0);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<AuthenticatedUser> loader = counting(loads, user(1L, Role.USUARIO, 0));
+        expiring.get(1L, loader);
+        expiring.get(1L, loader);
+        assertEquals(2, loads.get());
+
+        PrincipalCache cache = new PrincipalCache(10, 60_000);
+        AtomicInteger missingLoads = new AtomicInteger();
+        assertNull(cache.get(9L, counting(missingLoads, null)));
+        assertNull(cache.get(9L, counting(missingLoads, null)));
+        assertEquals(2, missingLoads.get());
+    }
+
+    @Test
+    void testInvalidateAppliesTokenVersionChangeOnNextLookup() {
+        PrincipalCache cache = new PrincipalCache(10, 60_000);
+        cache.get(1L, () -> user(1L, Role.USUARIO, 0));
+
+        cache.invalidate(1L);
+        assertEquals(0, cache.size());
+
+        AuthenticatedUser reloaded = cache.get(1L, () -> user(1L, Role.ADMIN, 1));
+        assertEquals(1, reloaded.getTokenVersion());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedAndCanBeDisabled() {
+        PrincipalCache cache = new PrincipalCache(1, 60_000);
+        cache.get(1L, () -> user(1L, Role.USUARIO, 0));
+        cache.get(2L, () -> user(2L, Role.USUARIO, 0));
+        assertEquals(1, cache.size());
+
+        PrincipalCache disabled = new PrincipalCache(0, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<AuthenticatedUser> loader = counting(loads, user(1L, Role.USUARIO, 0));
+        disabled.get(1L, loader);
+        disabled.get(1L, loader);
+        assertEquals(2, loads.get());
+        assertEquals(0, disabled.size());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.dinadocs.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testCreatesDirectoryAndStoresEachImageOnce() throws Exception {
+        Path directory = tempDir.resolve("assets");
+        AssetStore store = new AssetStore(directory.toString(), 1024, 4096);
+        assertTrue(Files.isDirectory(directory));
+
+        String id = store.store(image(100, (byte) 1));
+        assertEquals(id, store.store(image(100, (byte) 1)));
+
+        assertEquals(100, store.getStoredBytes());
+        assertArrayEquals(image(100, (byte) 1), store.read(id).orElseThrow());
+    }
+
+    @Test
+    void testRejectsUploadsOverTheTotalQuota() throws Exception {
+        AssetStore store = new AssetStore(tempDir.toString(), 1024, 250);
+        store.store(image(100, (byte) 1));
+        store.store(image(100, (byte) 2));
+
+        assertThrows(StorageQuotaExceededException.class, () -> store.store(image(100, (byte) 3)));
+        // Una imagen ya guardada no ocupa más espacio y se sigue aceptando.
+        store.store(image(100, (byte) 1));
+        assertEquals(200, store.getStoredBytes());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(2, files.count(), "No deben quedar temporales");
+        }
+    }
+
+    @Test
+    void testQuotaCountsImagesStoredBeforeRestart() throws Exception {
+        new AssetStore(tempDir.toString(), 1024, 250).store(image(200, (byte) 1));
+
+        AssetStore restarted = new AssetStore(tempDir.toString(), 1024, 250);
+
+        assertEquals(200, restarted.getStoredBytes());
+        assertThrows(StorageQuotaExceededException.class, () -> restarted.store(image(100, (byte) 2)));
+    }
+
+    /**
+     * Contenido mínimo que el almacén reconoce como PNG, relleno hasta el tamaño pedido.
+     */
+    private static byte[] image(int size, byte fill) {
+        byte[] content = new byte[size];
+        Arrays.fill(content, fill);
+        content[0] = (byte) 0x89;
+        content[1] = 'P';
+        content[2] = 'N';
+        content[3] = 'G';
+        return content;
+    }
+}
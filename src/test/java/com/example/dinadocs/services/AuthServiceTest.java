@@ -4,6 +4,8 @@ import com.example.dinadocs.models.Role;
 import com.example.dinadocs.models.User;
 import com.example.dinadocs.repositories.UserRepository;
 import com.example.dinadocs.security.JwtUtils;
+import com.example.dinadocs.security.UserPrincipal;
+import com.example.dinadocs.security.VerifiedToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -84,14 +86,28 @@ class AuthServiceTest {
     void testLoginSuccess() {
         when(userRepository.findByEmail("prueba@ejemplo.com")).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches("contrasena123", "contrasenaEncriptada")).thenReturn(true);
-        when(jwtUtils.generateToken("prueba@ejemplo.com")).thenReturn("tokenPrueba");
+        when(jwtUtils.generateToken(testUser)).thenReturn("tokenPrueba");
 
         Map<String, Object> result = authService.login("prueba@ejemplo.com", "contrasena123");
 
         assertNotNull(result);
         assertEquals("tokenPrueba", result.get("token"));
         assertEquals(Role.USUARIO, result.get("role"));
-        verify(jwtUtils, times(1)).generateToken("prueba@ejemplo.com");
+        verify(jwtUtils, times(1)).generateToken(testUser);
+    }
+
+    @Test
+    void testLoginRehashesPasswordWithOutdatedCost() {
+        when(userRepository.findByEmail("prueba@ejemplo.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("contrasena123", "contrasenaEncriptada")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("contrasenaEncriptada")).thenReturn(true);
+        when(passwordEncoder.encode("contrasena123")).thenReturn("hashNuevo");
+
+        authService.login("prueba@ejemplo.com", "contrasena123");
+
+        assertEquals("hashNuevo", testUser.getPassword());
+        assertEquals(0, testUser.getTokenVersion());
+        verify(userRepository, times(1)).save(testUser);
     }
 
     @Test
@@ -102,7 +118,7 @@ class AuthServiceTest {
             authService.login("noencontrado@ejemplo.com", "contrasena123");
         });
 
-        verify(jwtUtils, times(0)).generateToken(anyString());
+        verify(jwtUtils, times(0)).generateToken(any(UserPrincipal.class));
     }
 
     @Test
@@ -114,36 +130,48 @@ class AuthServiceTest {
             authService.login("prueba@ejemplo.com", "contrasenaIncorrecta");
         });
 
-        verify(jwtUtils, times(0)).generateToken(anyString());
+        verify(jwtUtils, times(0)).generateToken(any(UserPrincipal.class));
     }
 
     @Test
     void testLogout() {
-        doNothing().when(tokenBlacklistService).invalidateToken("tokenPrueba");
+        when(jwtUtils.verify("tokenPrueba")).thenReturn(new VerifiedToken("prueba@ejemplo.com", "jti-1", 5_000L, null));
 
         String result = authService.logout("Bearer tokenPrueba");
 
         assertEquals("Sesión cerrada correctamente", result);
-        verify(tokenBlacklistService, times(1)).invalidateToken("tokenPrueba");
+        verify(tokenBlacklistService, times(1)).revoke("jti-1", 5_000L);
+    }
+
+    @Test
+    void testLogoutInvalidTokenIsNotStored() {
+        when(jwtUtils.verify("tokenMalo")).thenReturn(null);
+
+        String result = authService.logout("Bearer tokenMalo");
+
+        assertEquals("Sesión cerrada correctamente", result);
+        verify(tokenBlacklistService, never()).revoke(anyString(), anyLong());
     }
 
     @Test
     void testIsTokenValidTrue() {
-        when(tokenBlacklistService.isTokenInvalidated("tokenValido")).thenReturn(false);
+        when(jwtUtils.verify("tokenValido")).thenReturn(new VerifiedToken("prueba@ejemplo.com", "jti-2", Long.MAX_VALUE, null));
+        when(tokenBlacklistService.isRevoked("jti-2")).thenReturn(false);
 
         boolean result = authService.isTokenValid("Bearer tokenValido");
 
         assertTrue(result);
-        verify(tokenBlacklistService, times(1)).isTokenInvalidated("tokenValido");
+        verify(tokenBlacklistService, times(1)).isRevoked("jti-2");
     }
 
     @Test
     void testIsTokenValidFalse() {
-        when(tokenBlacklistService.isTokenInvalidated("tokenInvalido")).thenReturn(true);
+        when(jwtUtils.verify("tokenInvalido")).thenReturn(new VerifiedToken("prueba@ejemplo.com", "jti-3", Long.MAX_VALUE, null));
+        when(tokenBlacklistService.isRevoked("jti-3")).thenReturn(true);
 
         boolean result = authService.isTokenValid("Bearer tokenInvalido");
 
         assertFalse(result);
-        verify(tokenBlacklistService, times(1)).isTokenInvalidated("tokenInvalido");
+        verify(tokenBlacklistService, times(1)).isRevoked("jti-3");
     }
 }
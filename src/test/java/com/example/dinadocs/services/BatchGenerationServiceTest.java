@@ -0,0 +1,117 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.Template;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BatchGenerationServiceTest {
+
+    @Mock
+    private PdfGenerationService pdfGenerationService;
+
+    private BatchGenerationService batchGenerationService;
+
+    private Template testTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        batchGenerationService = new BatchGenerationService(pdfGenerationService,
+                new SpillBufferFactory(8, System.getProperty("java.io.tmpdir")), new ObjectMapper(), 2);
+
+        testTemplate = new Template();
+        testTemplate.setId(1L);
+        testTemplate.setName("factura cliente");
+        testTemplate.setPlaceholders(List.of("nombre"));
+
+        doAnswer(invocation -> {
+            Map<String, Object> data = invocation.getArgument(1);
+            if (data.isEmpty()) {
+                throw new IllegalArgumentException("Los datos no pueden estar vacíos");
+            }
+            invocation.getArgument(2, OutputStream.class)
+                    .write(("PDF " + data.get("nombre")).getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(pdfGenerationService).renderPdfQueued(any(Template.class), anyMap(), any(OutputStream.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchGenerationService.shutdown();
+    }
+
+    @Test
+    void testWriteZipOneEntryPerRecord() throws IOException {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            records.add(Map.of("nombre", "Cliente " + i));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchGenerationService.writeZip(testTemplate, records.iterator(), out);
+
+        Map<String, String> entries = readZip(out.toByteArray());
+        assertEquals(10, entries.size());
+        assertEquals("PDF Cliente 1", entries.get("factura_cliente_00001.pdf"));
+        assertEquals("PDF Cliente 10", entries.get("factura_cliente_00010.pdf"));
+        verify(pdfGenerationService, times(10)).renderPdfQueued(same(testTemplate), anyMap(), any(OutputStream.class));
+    }
+
+    @Test
+    void testWriteZipReportsFailedRecords() throws IOException {
+        List<Map<String, Object>> records = List.of(Map.of("nombre", "Ana"), Map.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchGenerationService.writeZip(testTemplate, records.iterator(), out);
+
+        Map<String, String> entries = readZip(out.toByteArray());
+        assertEquals("PDF Ana", entries.get("factura_cliente_00001.pdf"));
+        assertEquals("Los datos no pueden estar vacíos", entries.get("factura_cliente_00002_error.txt"));
+    }
+
+    @Test
+    void testReadRecordsFromNdjson() throws IOException {
+        String ndjson = "{\"nombre\":\"Ana\"}\n{\"nombre\":\"Luis\"}\n";
+
+        Iterator<Map<String, Object>> records = batchGenerationService.readRecords(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("Ana", records.next().get("nombre"));
+        assertEquals("Luis", records.next().get("nombre"));
+        assertFalse(records.hasNext());
+    }
+
+    @Test
+    void testPrepareLoadsTemplate() {
+        when(pdfGenerationService.loadTemplateByType("factura")).thenReturn(testTemplate);
+
+        assertSame(testTemplate, batchGenerationService.prepare("factura"));
+    }
+
+    private static Map<String, String> readZip(byte[] zip) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+}
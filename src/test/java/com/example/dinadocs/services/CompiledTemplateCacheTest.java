@@ -0,0 +1,86 @@
+package com.example.dinadocs.services;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledTemplateCacheTest {
+
+    private CompiledTemplateCache cache;
+    private AtomicInteger compilations;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompiledTemplateCache(2);
+        compilations = new AtomicInteger();
+    }
+
+    private Supplier<Mustache> compiler(String content) {
+        return () -> {
+            compilations.incrementAndGet();
+            return new DefaultMustacheFactory().compile(new StringReader(content), "template");
+        };
+    }
+
+    @Test
+    void testSameVersionCompiledOnce() {
+        String content = "<p>{{nombre}}</p>";
+
+        Mustache first = cache.get(1L, content, compiler(content));
+        Mustache second = cache.get(1L, content, compiler(content));
+
+        assertSame(first, second);
+        assertEquals(1, compilations.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testContentChangeRecompiles() {
+        cache.get(1L, "<p>{{a}}</p>", compiler("<p>{{a}}</p>"));
+        cache.get(1L, "<p>{{b}}</p>", compiler("<p>{{b}}</p>"));
+
+        assertEquals(2, compilations.get());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        cache.get(1L, "uno", compiler("uno"));
+        cache.get(2L, "dos", compiler("dos"));
+        cache.get(1L, "uno", compiler("uno"));
+        cache.get(3L, "tres", compiler("tres"));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.get(1L, "uno", compiler("uno"));
+        assertEquals(3, compilations.get());
+
+        cache.get(2L, "dos", compiler("dos"));
+        assertEquals(4, compilations.get());
+    }
+
+    @Test
+    void testInvalidateRemovesAllVersions() {
+        cache.get(1L, "v1", compiler("v1"));
+        cache.get(2L, "otra", compiler("otra"));
+
+        cache.invalidate(1L);
+
+        assertEquals(1, cache.size());
+        cache.get(1L, "v1", compiler("v1"));
+        assertEquals(3, compilations.get());
+    }
+
+    @Test
+    void testInvalidSizeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new CompiledTemplateCache(0));
+    }
+}
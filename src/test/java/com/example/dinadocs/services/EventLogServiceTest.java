@@ -0,0 +1,109 @@
+package com.example.dinadocs.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogServiceTest {
+
+    private EventLogService eventLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        MDC.clear();
+        ServerTiming.close();
+        if (eventLog != null) {
+            eventLog.shutdown();
+        }
+    }
+
+    @Test
+    void testWritesOneJsonLinePerEventWithRequestContext() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        eventLog = new EventLogService(16, "INFO", "", "", lines::add);
+        MDC.put("requestId", "req-1");
+        ServerTiming.open();
+        ServerTiming.record("layout", 12_340_000);
+
+        eventLog.info("pdf.generated", "factura", "Generado");
+
+        assertTrue(eventLog.flush(1000));
+        assertEquals(1, lines.size());
+        String line = lines.get(0);
+        assertTrue(line.startsWith("{\"ts\":\""), line);
+        assertTrue(line.contains("\"level\":\"INFO\",\"type\":\"pdf.generated\",\"requestId\":\"req-1\""), line);
+        assertTrue(line.contains("\"template\":\"factura\""), line);
+        assertTrue(line.contains("\"timingsMs\":{\"layout\":12.3}"), line);
+    }
+
+    @Test
+    void testAppliesLevelsAndSamplingPerEventType() {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        eventLog = new EventLogService(16, "INFO", "auth.success:DEBUG", "pdf.generated:0.0", lines::add);
+
+        eventLog.debug("template.list", null, "descartado por nivel");
+        eventLog.debug("auth.success", null, "registrado");
+        eventLog.info("pdf.generated", "factura", "descartado por muestreo");
+        eventLog.warn("auth.invalid-token", null, "registrado");
+
+        assertTrue(eventLog.flush(1000));
+        assertEquals(2, lines.size());
+        assertTrue(eventLog.isEnabled(Level.DEBUG, "auth.success"));
+        assertFalse(eventLog.isEnabled(Level.DEBUG, "template.list"));
+    }
+
+    @Test
+    void testDropsEventsInsteadOfBlockingWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        eventLog = new EventLogService(4, "INFO", "", "", line -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        for (int i = 0; i < 20; i++) {
+            eventLog.info("pdf.generated", "factura", "evento " + i);
+        }
+
+        assertTrue(eventLog.getDroppedCount() >= 20 - 4 - 1);
+        release.countDown();
+        assertTrue(eventLog.flush(2000));
+        assertEquals(20 - eventLog.getDroppedCount(), eventLog.getWrittenCount());
+    }
+
+    @Test
+    void testIdleWriterParksWithoutTimerAndWakesOnPublish() throws InterruptedException {
+        List<String> lines = new CopyOnWriteArrayList<>();
+        eventLog = new EventLogService(16, "INFO", "", "", lines::add);
+        eventLog.info("pdf.generated", "factura", "primero");
+        assertTrue(eventLog.flush(1000));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (eventLog.getWriterState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.WAITING, eventLog.getWriterState());
+
+        eventLog.info("pdf.generated", "factura", "segundo");
+        assertTrue(eventLog.flush(1000));
+        assertEquals(2, lines.size());
+    }
+
+    @Test
+    void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventLogService(16, "INFO", "auth.success:VERBOSE", "", line -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventLogService(16, "INFO", "", "pdf.generated:2", line -> { }));
+    }
+}
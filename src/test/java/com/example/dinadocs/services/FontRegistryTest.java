@@ -0,0 +1,125 @@
+package com.example.dinadocs.services;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xhtmlrenderer.pdf.ITextFontResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FontRegistryTest {
+
+    private static final String FONT_RESOURCE = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+
+    @TempDir
+    Path fontsDirectory;
+
+    @Test
+    void testLoadsFontsFromDirectoryAndSkipsInvalidFiles() throws Exception {
+        copyFont();
+        Files.writeString(fontsDirectory.resolve("rota.ttf"), "no es una fuente");
+
+        FontRegistry registry = new FontRegistry(fontsDirectory.toString(), "");
+
+        assertTrue(registry.getFamilyNames().contains("Liberation Sans"));
+        ITextFontResolver resolver = new ITextFontResolver();
+        registry.registerWith(resolver);
+        assertTrue(resolver.getFonts().containsKey("Liberation Sans"));
+    }
+
+    @Test
+    void testAliasPointsToExistingFamilyWithoutHidingLoadedOnes() throws Exception {
+        copyFont();
+        FontRegistry registry = new FontRegistry(fontsDirectory.toString(),
+                "Helvetica Neue:Helvetica, Liberation Sans:Helvetica, Desconocida:NoExiste");
+
+        ITextFontResolver resolver = new ITextFontResolver();
+        registry.registerWith(resolver);
+
+        assertSame(resolver.getFonts().get("Helvetica"), resolver.getFonts().get("Helvetica Neue"));
+        assertNotSame(resolver.getFonts().get("Helvetica"), resolver.getFonts().get("Liberation Sans"));
+        assertFalse(resolver.getFonts().containsKey("Desconocida"));
+    }
+
+    @Test
+    void testInvalidAliasIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new FontRegistry("", "SinDestino"));
+    }
+
+    @Test
+    void testRegisteredFontIsEmbeddedAsSubset() throws Exception {
+        copyFont();
+        TemplateImageResolver imageResolver = new TemplateImageResolver(
+                new AssetStore(fontsDirectory.toString(), 1024, 1024 * 1024), 1024 * 1024, false, 0, 1000, 0, 0, 1);
+        PdfRendererPool pool = new PdfRendererPool(1, 100, imageResolver,
+                new FontRegistry(fontsDirectory.toString(), ""));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfRendererPool.Lease lease = pool.acquire()) {
+            lease.renderer().setDocumentFromString("<html><body style=\"font-family: 'Liberation Sans'\">"
+                    + "<p>Canción de año</p></body></html>");
+            lease.renderer().layout();
+            lease.renderer().createPDF(out);
+        }
+
+        String pdf = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(Pattern.compile("/[A-Z]{6}\\+LiberationSans").matcher(pdf).find(), "La fuente debe embeberse como subconjunto");
+        assertTrue(pdf.contains("/FontFile2"));
+    }
+
+    @Test
+    void testFullFontLeaseEmbedsTheSameProgramInEveryDocument() throws Exception {
+        copyFont();
+        TemplateImageResolver imageResolver = new TemplateImageResolver(
+                new AssetStore(fontsDirectory.toString(), 1024, 1024 * 1024), 1024 * 1024, false, 0, 1000, 0, 0, 1);
+        PdfRendererPool pool = new PdfRendererPool(1, 100, imageResolver,
+                new FontRegistry(fontsDirectory.toString(), ""));
+
+        byte[] first = fontProgram(render(pool.acquireWithFullFonts(), "Canción de año"));
+        byte[] second = fontProgram(render(pool.acquireWithFullFonts(), "Otro registro distinto"));
+        assertArrayEquals(first, second);
+
+        // El mismo hueco del pool sigue embebiendo subconjuntos en los renders normales.
+        String subset = new String(render(pool.acquire(), "Canción de año"), StandardCharsets.ISO_8859_1);
+        assertTrue(Pattern.compile("/[A-Z]{6}\\+LiberationSans").matcher(subset).find());
+        assertTrue(fontProgram(subset.getBytes(StandardCharsets.ISO_8859_1)).length < first.length);
+    }
+
+    private static byte[] render(PdfRendererPool.Lease lease, String text) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (lease) {
+            lease.renderer().setDocumentFromString("<html><body style=\"font-family: 'Liberation Sans'\">"
+                    + "<p>" + text + "</p></body></html>");
+            lease.renderer().layout();
+            lease.renderer().createPDF(out);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] fontProgram(byte[] pdf) throws Exception {
+        try (PDDocument document = PDDocument.load(pdf)) {
+            PDResources resources = document.getPage(0).getResources();
+            PDType0Font font = (PDType0Font) resources.getFont(resources.getFontNames().iterator().next());
+            try (InputStream in = font.getDescendantFont().getFontDescriptor().getFontFile2().getCOSObject()
+                    .createRawInputStream()) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    private void copyFont() throws Exception {
+        try (InputStream font = getClass().getResourceAsStream(FONT_RESOURCE)) {
+            assertNotNull(font);
+            Files.copy(font, fontsDirectory.resolve("LiberationSans-Regular.ttf"));
+        }
+    }
+}
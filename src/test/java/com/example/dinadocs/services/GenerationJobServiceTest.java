@@ -0,0 +1,219 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.GenerationJobStatus;
+import com.example.dinadocs.models.GenerationRequest;
+import com.example.dinadocs.models.JobStatus;
+import com.example.dinadocs.models.Template;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GenerationJobServiceTest {
+
+    @Mock
+    private PdfGenerationService pdfGenerationService;
+
+    private GenerationJobService jobService;
+
+    private GenerationRequest testRequest;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jobService = new GenerationJobService(pdfGenerationService,
+                new SpillBufferFactory(1024, System.getProperty("java.io.tmpdir")), 1, 1, 0, 100, 1024 * 1024);
+
+        Template template = new Template();
+        template.setName("factura");
+        when(pdfGenerationService.loadTemplateByType("factura")).thenReturn(template);
+
+        testRequest = new GenerationRequest();
+        testRequest.setTemplateType("factura");
+        testRequest.setData(Map.of("nombre", "Juan Pérez"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobService.shutdown();
+    }
+
+    @Test
+    void testJobCompletesAndResultCanBeDownloaded() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("PDF".getBytes());
+            return null;
+        }).when(pdfGenerationService).renderPdfQueued(any(Template.class), anyMap(), any(OutputStream.class));
+
+        GenerationJobStatus submitted = jobService.submit(testRequest, 7L);
+        GenerationJobStatus done = awaitFinished(submitted.getId(), 7L);
+
+        assertEquals(JobStatus.DONE, done.getStatus());
+        assertEquals(3L, done.getSizeBytes());
+        assertNotNull(done.getRenderMillis());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GenerationJobService.JobResult result = jobService.openResult(submitted.getId(), 7L).orElseThrow()) {
+            assertEquals(3L, result.getSize());
+            result.writeTo(out);
+        }
+        assertEquals("PDF", out.toString());
+    }
+
+    @Test
+    void testJobIsOnlyVisibleToItsOwner() {
+        GenerationJobStatus submitted = jobService.submit(testRequest, 7L);
+
+        assertTrue(jobService.getStatus(submitted.getId(), 8L).isEmpty());
+        assertTrue(jobService.openResult(submitted.getId(), 8L).isEmpty());
+    }
+
+    @Test
+    void testFailedJobReportsError() throws Exception {
+        doThrow(new IllegalStateException("No hay renderizadores de PDF disponibles"))
+                .when(pdfGenerationService).renderPdfQueued(any(Template.class), anyMap(), any(OutputStream.class));
+
+        GenerationJobStatus submitted = jobService.submit(testRequest, 7L);
+        GenerationJobStatus failed = awaitFinished(submitted.getId(), 7L);
+
+        assertEquals(JobStatus.FAILED, failed.getStatus());
+        assertEquals("No hay renderizadores de PDF disponibles", failed.getError());
+    }
+
+    @Test
+    void testJobFailsAndReleasesBufferOnError(@TempDir Path spillDirectory) throws Exception {
+        jobService.shutdown();
+        jobService = new GenerationJobService(pdfGenerationService,
+                new SpillBufferFactory(16, spillDirectory.toString()), 1, 1, 0, 100, 1024 * 1024);
+        doAnswer(invocation -> {
+            // Supera el umbral para que el buffer ya esté en un archivo temporal.
+            invocation.getArgument(2, OutputStream.class).write(new byte[64]);
+            throw new StackOverflowError();
+        }).when(pdfGenerationService).renderPdfQueued(any(Template.class), anyMap(), any(OutputStream.class));
+
+        GenerationJobStatus submitted = jobService.submit(testRequest, 7L);
+        GenerationJobStatus failed = awaitFinished(submitted.getId(), 7L);
+
+        assertEquals(JobStatus.FAILED, failed.getStatus());
+        assertEquals("StackOverflowError", failed.getError());
+        try (var files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count(), "El archivo temporal del trabajo debe borrarse");
+        }
+
+        // El pool sigue aceptando y ejecutando trabajos.
+        renderPdf("PDF");
+        assertEquals(JobStatus.DONE, awaitFinished(jobService.submit(testRequest, 7L).getId(), 7L).getStatus());
+    }
+
+    @Test
+    void testSubmitRejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(pdfGenerationService).renderPdfQueued(any(Template.class), anyMap(), any(OutputStream.class));
+
+        jobService.submit(testRequest, 7L);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        jobService.submit(testRequest, 7L);
+
+        CapacityExceededException exception = assertThrows(CapacityExceededException.class,
+                () -> jobService.submit(testRequest, 7L));
+        assertTrue(exception.getRetryAfterSeconds() >= 1);
+    }
+
+    @Test
+    void testPurgeExpiredRemovesFinishedJobs() throws Exception {
+        GenerationJobStatus submitted = jobService.submit(testRequest, 7L);
+        awaitFinished(submitted.getId(), 7L);
+
+        jobService.purgeExpired();
+
+        assertTrue(jobService.getStatus(submitted.getId(), 7L).isEmpty());
+    }
+
+    @Test
+    void testPurgeDuringDownloadKeepsResultUntilItIsClosed() throws Exception {
+        renderPdf("PDF");
+        GenerationJobStatus submitted = jobService.submit(testRequest, 7L);
+        awaitFinished(submitted.getId(), 7L);
+
+        GenerationJobService.JobResult result = jobService.openResult(submitted.getId(), 7L).orElseThrow();
+        jobService.purgeExpired();
+
+        assertTrue(jobService.openResult(submitted.getId(), 7L).isEmpty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        result.writeTo(out);
+        assertEquals("PDF", out.toString());
+        result.close();
+        assertThrows(IOException.class, () -> result.writeTo(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testOldestResultsAreEvictedByCountAndBytes() throws Exception {
+        jobService.shutdown();
+        jobService = new GenerationJobService(pdfGenerationService,
+                new SpillBufferFactory(1024, System.getProperty("java.io.tmpdir")), 1, 10, 60_000, 3, 10);
+        renderPdf("1234");
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String id = jobService.submit(testRequest, 7L).getId();
+            awaitFinished(id, 7L);
+            ids.add(id);
+        }
+
+        // 4 bytes por resultado y 10 como máximo: solo caben los dos últimos.
+        assertTrue(jobService.getStatus(ids.get(0), 7L).isEmpty());
+        assertTrue(jobService.getStatus(ids.get(1), 7L).isEmpty());
+        assertTrue(jobService.openResult(ids.get(2), 7L).isPresent());
+        assertTrue(jobService.openResult(ids.get(3), 7L).isPresent());
+        assertEquals(8L, jobService.getRetainedBytes());
+    }
+
+    @Test
+    void testSubmitValidatesBeforeQueueing() {
+        doThrow(new IllegalArgumentException("Los datos no pueden estar vacíos"))
+                .when(pdfGenerationService).validateData(testRequest);
+
+        assertThrows(IllegalArgumentException.class, () -> jobService.submit(testRequest, 7L));
+        verify(pdfGenerationService, never()).loadTemplateByType(anyString());
+    }
+
+    private void renderPdf(String content) {
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write(content.getBytes());
+            return null;
+        }).when(pdfGenerationService).renderPdfQueued(any(Template.class), anyMap(), any(OutputStream.class));
+    }
+
+    private GenerationJobStatus awaitFinished(String id, Long ownerId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            GenerationJobStatus status = jobService.getStatus(id, ownerId).orElseThrow();
+            if (status.getStatus() == JobStatus.DONE || status.getStatus() == JobStatus.FAILED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("El trabajo no terminó a tiempo");
+        return null;
+    }
+}
@@ -3,13 +3,22 @@ package com.example.dinadocs.services;
 import com.example.dinadocs.models.GenerationRequest;
 import com.example.dinadocs.models.Template;
 import com.example.dinadocs.repositories.TemplateRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayOutputStream;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,8 +31,9 @@ class PdfGenerationServiceTest {
     @Mock
     private TemplateProcessor templateProcessor;
 
-    @InjectMocks
     private PdfGenerationService pdfGenerationService;
+    private RenderBulkhead bulkhead;
+    private SimpleMeterRegistry meterRegistry;
 
     private Template testTemplate;
     private GenerationRequest testRequest;
@@ -31,6 +41,15 @@ class PdfGenerationServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        PdfGenerationMetrics metrics = new PdfGenerationMetrics(2, false);
+        metrics.bindTo(meterRegistry);
+        TemplateImageResolver imageResolver = new TemplateImageResolver(
+                new AssetStore(System.getProperty("java.io.tmpdir"), 1024, 1024 * 1024), 1024 * 1024, false, 0, 1000, 0, 0, 1);
+        bulkhead = new RenderBulkhead(1, 1, 0, 0, 2.0);
+        pdfGenerationService = new PdfGenerationService(templateRepository, templateProcessor,
+                new PdfRendererPool(1, 1000, imageResolver, new FontRegistry("", "")), bulkhead,
+                new RenderedPdfCache(1024 * 1024, 1024 * 1024, false), metrics, mock(EventLogService.class));
         
         testTemplate = new Template();
         testTemplate.setId(1L);
@@ -48,7 +67,7 @@ class PdfGenerationServiceTest {
     @Test
     void testGeneratePdfSuccess() {
         when(templateRepository.findByName("factura")).thenReturn(Optional.of(testTemplate));
-        when(templateProcessor.processTemplate(anyString(), anyMap()))
+        when(templateProcessor.processTemplate(any(Template.class), anyMap()))
                 .thenReturn("<html><body>Juan Pérez</body></html>");
 
         byte[] result = pdfGenerationService.generatePdf(testRequest);
@@ -56,7 +75,32 @@ class PdfGenerationServiceTest {
         assertNotNull(result);
         assertTrue(result.length > 0);
         verify(templateRepository, times(1)).findByName("factura");
-        verify(templateProcessor, times(1)).processTemplate(anyString(), anyMap());
+        verify(templateProcessor, times(1)).processTemplate(any(Template.class), anyMap());
+    }
+
+    @Test
+    void testGeneratePdfServesRepeatedRequestFromCache() {
+        when(templateRepository.findByName("factura")).thenReturn(Optional.of(testTemplate));
+        when(templateProcessor.processTemplate(any(Template.class), anyMap()))
+                .thenReturn("<html><body>Juan Pérez</body></html>");
+
+        byte[] first = pdfGenerationService.generatePdf(testRequest);
+        byte[] second = pdfGenerationService.generatePdf(testRequest);
+
+        assertArrayEquals(first, second);
+        verify(templateProcessor, times(1)).processTemplate(any(Template.class), anyMap());
+    }
+
+    @Test
+    void testGeneratePdfWithNonXhtmlMarkup() {
+        when(templateRepository.findByName("factura")).thenReturn(Optional.of(testTemplate));
+        when(templateProcessor.processTemplate(any(Template.class), anyMap()))
+                .thenReturn("<html><body><p>Juan&nbsp;Pérez<br><table><tr><td>1<td>2</table></body></html>");
+
+        byte[] result = pdfGenerationService.generatePdf(testRequest);
+
+        assertNotNull(result);
+        assertEquals("%PDF", new String(result, 0, 4));
     }
 
     @Test
@@ -104,6 +148,96 @@ class PdfGenerationServiceTest {
         verify(templateRepository, times(1)).findByName("noexistente");
     }
 
+    @Test
+    void testEveryRenderPathGoesThroughTheBulkhead() throws Exception {
+        when(templateProcessor.processTemplate(any(Template.class), anyMap()))
+                .thenReturn("<html><body>Juan Pérez</body></html>");
+
+        CompletableFuture<byte[]> queued;
+        try (RenderBulkhead.Permit ignored = bulkhead.acquire()) {
+            // Con el único permiso ocupado, los renders de una petición se rechazan...
+            assertThrows(CapacityExceededException.class, () ->
+                    pdfGenerationService.renderPdfForMerge(testTemplate, testRequest.getData(), new ByteArrayOutputStream()));
+
+            // ...y los de lotes y trabajos esperan su turno.
+            queued = CompletableFuture.supplyAsync(() -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                pdfGenerationService.renderPdfQueued(testTemplate, testRequest.getData(), out);
+                return out.toByteArray();
+            });
+            while (bulkhead.getWaiting() == 0) {
+                Thread.sleep(5);
+            }
+            assertFalse(queued.isDone());
+        }
+
+        assertTrue(queued.get(30, TimeUnit.SECONDS).length > 0);
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    void testGeneratePdfRecordsStageTimersAndOutputByTemplate() {
+        when(templateRepository.findByName("factura")).thenReturn(Optional.of(testTemplate));
+        when(templateProcessor.processTemplate(any(Template.class), anyMap()))
+                .thenReturn("<html><body>Juan Pérez</body></html>");
+
+        Set<String> histograms = ConcurrentHashMap.newKeySet();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (Boolean.TRUE.equals(config.isPercentileHistogram())) {
+                    histograms.add(id.getName());
+                }
+                return config;
+            }
+        });
+
+        byte[] result = pdfGenerationService.generatePdf(testRequest);
+
+        for (String stage : List.of(PdfGenerationMetrics.STAGE_VALIDATE, PdfGenerationMetrics.STAGE_TEMPLATE_LOAD,
+                PdfGenerationMetrics.STAGE_PLACEHOLDERS, PdfGenerationMetrics.STAGE_MUSTACHE,
+                PdfGenerationMetrics.STAGE_NORMALIZE, PdfGenerationMetrics.STAGE_LAYOUT,
+                PdfGenerationMetrics.STAGE_WRITE)) {
+            Timer timer = meterRegistry.find("dynadocs.pdf.generation.stage")
+                    .tags("stage", stage, "template", "factura").timer();
+            assertNotNull(timer, stage);
+            assertEquals(1, timer.count(), stage);
+            assertEquals(1, meterRegistry.get("dynadocs.pdf.generation.stage.all").tag("stage", stage).timer().count(), stage);
+        }
+        // Histograma solo en los agregados, no por plantilla.
+        assertEquals(Set.of("dynadocs.pdf.generation.stage.all", "dynadocs.pdf.generation.size.all",
+                "dynadocs.pdf.generation.pages.all"), histograms);
+        DistributionSummary size = meterRegistry.get("dynadocs.pdf.generation.size")
+                .tag("template", "factura").summary();
+        DistributionSummary pages = meterRegistry.get("dynadocs.pdf.generation.pages")
+                .tag("template", "factura").summary();
+        assertEquals(result.length, size.totalAmount());
+        assertEquals(1, pages.totalAmount());
+        assertEquals(result.length, meterRegistry.get("dynadocs.pdf.generation.size.all").summary().totalAmount());
+
+        // Otros datos, para que no se sirva desde la caché de PDFs.
+        testRequest.setData(Map.of("nombre", "Ana López"));
+        pdfGenerationService.generatePdf(testRequest);
+        assertEquals(2, meterRegistry.get("dynadocs.pdf.generation.stage")
+                .tags("stage", PdfGenerationMetrics.STAGE_LAYOUT, "template", "factura").timer().count());
+    }
+
+    @Test
+    void testGeneratePdfDoesNotTagMetricsWithUnknownTemplateNames() {
+        when(templateRepository.findByName(anyString())).thenReturn(Optional.empty());
+
+        for (String name : List.of("a", "b", "c")) {
+            testRequest.setTemplateType(name);
+            assertThrows(NoSuchElementException.class, () -> pdfGenerationService.generatePdf(testRequest));
+        }
+
+        Timer load = meterRegistry.get("dynadocs.pdf.generation.stage")
+                .tags("stage", PdfGenerationMetrics.STAGE_TEMPLATE_LOAD, "template", "desconocida").timer();
+        assertEquals(3, load.count());
+        assertEquals(1, meterRegistry.find("dynadocs.pdf.generation.stage")
+                .tag("stage", PdfGenerationMetrics.STAGE_TEMPLATE_LOAD).timers().size());
+    }
+
     @Test
     void testLoadTemplateByTypeSuccess() {
         when(templateRepository.findByName("factura")).thenReturn(Optional.of(testTemplate));
@@ -0,0 +1,165 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.Template;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PdfMergeServiceTest {
+
+    @Mock
+    private PdfGenerationService pdfGenerationService;
+
+    private PdfMergeService pdfMergeService;
+
+    private static final String FONT_RESOURCE = "/org/apache/pdfbox/resources/ttf/LiberationSans-Regular.ttf";
+
+    private BufferedImage logo;
+
+    /** Si cada registro embebe la fuente completa, igual que el render para combinar con FontRegistry. */
+    private boolean embedFullFont;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        String tmp = System.getProperty("java.io.tmpdir");
+        pdfMergeService = new PdfMergeService(pdfGenerationService, new SpillBufferFactory(1024, tmp), 64 * 1024, tmp);
+
+        // Imagen con ruido para que no se comprima: su tamaño domina el del PDF.
+        Random random = new Random(42);
+        logo = new BufferedImage(120, 120, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < logo.getWidth(); x++) {
+            for (int y = 0; y < logo.getHeight(); y++) {
+                logo.setRGB(x, y, random.nextInt());
+            }
+        }
+
+        Template template = new Template();
+        template.setId(1L);
+        template.setName("factura");
+        when(pdfGenerationService.loadTemplateByType("factura")).thenReturn(template);
+        doAnswer(invocation -> {
+            Map<String, Object> data = invocation.getArgument(1);
+            if (data.isEmpty()) {
+                throw new IllegalArgumentException("Los datos no pueden estar vacíos");
+            }
+            writeRecordPdf(String.valueOf(data.get("nombre")), invocation.getArgument(2, OutputStream.class));
+            return null;
+        }).when(pdfGenerationService).renderPdfForMerge(same(template), anyMap(), any(OutputStream.class));
+    }
+
+    @Test
+    void testMergeKeepsRecordOrderAndSharesResources() throws IOException {
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        pdfMergeService.mergeTo("factura", List.<Map<String, Object>>of(Map.of("nombre", "Cliente 1")).iterator(), single);
+
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            records.add(Map.of("nombre", "Cliente " + i));
+        }
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        pdfMergeService.mergeTo("factura", records.iterator(), merged);
+
+        try (PDDocument document = PDDocument.load(merged.toByteArray())) {
+            assertEquals(5, document.getNumberOfPages());
+            PDPage first = document.getPage(0);
+            PDPage last = document.getPage(4);
+            assertSame(first.getResources().getXObject(first.getResources().getXObjectNames().iterator().next()).getCOSObject(),
+                    last.getResources().getXObject(last.getResources().getXObjectNames().iterator().next()).getCOSObject());
+        }
+        assertTrue(merged.size() < single.size() * 2,
+                "El logo debería guardarse una sola vez: " + merged.size() + " vs " + single.size());
+    }
+
+    @Test
+    void testEmbeddedFontProgramIsStoredOnce() throws IOException {
+        embedFullFont = true;
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        pdfMergeService.mergeTo("factura", List.<Map<String, Object>>of(Map.of("nombre", "Cliente 1")).iterator(), single);
+
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            records.add(Map.of("nombre", "Cliente " + i));
+        }
+        ByteArrayOutputStream merged = new ByteArrayOutputStream();
+        pdfMergeService.mergeTo("factura", records.iterator(), merged);
+
+        int fontBytes;
+        try (PDDocument document = PDDocument.load(merged.toByteArray())) {
+            Set<Object> programs = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (PDPage page : document.getPages()) {
+                for (var name : page.getResources().getFontNames()) {
+                    PDType0Font font = (PDType0Font) page.getResources().getFont(name);
+                    programs.add(font.getDescendantFont().getFontDescriptor().getFontFile2().getCOSObject());
+                }
+            }
+            assertEquals(1, programs.size());
+            PDPage first = document.getPage(0);
+            PDType0Font font = (PDType0Font) first.getResources().getFont(first.getResources().getFontNames().iterator().next());
+            fontBytes = (int) font.getDescendantFont().getFontDescriptor().getFontFile2().getCOSObject().getLength();
+        }
+        assertTrue(merged.size() - single.size() < fontBytes,
+                "La fuente debería guardarse una sola vez: " + merged.size() + " vs " + single.size());
+    }
+
+    @Test
+    void testMergeReportsInvalidRecord() {
+        List<Map<String, Object>> records = List.of(Map.of("nombre", "Ana"), Map.of());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> pdfMergeService.mergeTo("factura", records.iterator(), new ByteArrayOutputStream()));
+
+        assertTrue(exception.getMessage().startsWith("Registro 2"));
+    }
+
+    @Test
+    void testMergeRejectsEmptyBatch() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pdfMergeService.mergeTo("factura", Collections.emptyIterator(), new ByteArrayOutputStream()));
+    }
+
+    private void writeRecordPdf(String text, OutputStream out) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            PDImageXObject image = LosslessFactory.createFromImage(document, logo);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.drawImage(image, 50, 600);
+                content.beginText();
+                content.setFont(font(document), 12);
+                content.newLineAtOffset(50, 500);
+                content.showText(text);
+                content.endText();
+            }
+            document.save(out);
+        }
+    }
+
+    private PDFont font(PDDocument document) throws IOException {
+        if (!embedFullFont) {
+            return PDType1Font.HELVETICA;
+        }
+        try (InputStream in = getClass().getResourceAsStream(FONT_RESOURCE)) {
+            return PDType0Font.load(document, in, false);
+        }
+    }
+}
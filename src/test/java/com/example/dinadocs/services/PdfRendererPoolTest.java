@@ -0,0 +1,72 @@
+package com.example.dinadocs.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfRendererPoolTest {
+
+    @Test
+    void testFontResolverIsReusedBetweenLeases() {
+        PdfRendererPool pool = newPool(1, 100);
+
+        Object firstResolver;
+        try (PdfRendererPool.Lease lease = pool.acquire()) {
+            firstResolver = lease.renderer().getFontResolver();
+        }
+        try (PdfRendererPool.Lease lease = pool.acquire()) {
+            assertSame(firstResolver, lease.renderer().getFontResolver());
+        }
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void testSaturatedPoolRejectsAfterTimeout() {
+        PdfRendererPool pool = newPool(1, 50);
+
+        try (PdfRendererPool.Lease ignored = pool.acquire()) {
+            assertEquals(1, pool.getActiveCount());
+            assertThrows(CapacityExceededException.class, pool::acquire);
+        }
+        assertEquals(0, pool.getWaitingCount());
+    }
+
+    @Test
+    void testRendererResolvesImagesThroughSharedResolver() throws Exception {
+        PdfRendererPool pool = newPool(1, 100);
+        String png = "data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8BQDwAEhQGAhKmMIQAAAABJRU5ErkJggg==";
+
+        try (PdfRendererPool.Lease lease = pool.acquire()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            lease.renderer().setDocumentFromString("<html><body><img src=\"" + png + "\"/></body></html>");
+            lease.renderer().layout();
+            lease.renderer().createPDF(out);
+            assertTrue(out.size() > 0);
+            assertFalse(lease.userAgent().isMissingPendingImages());
+        }
+    }
+
+    @Test
+    void testRendererProducesPdf() throws Exception {
+        PdfRendererPool pool = newPool(1, 100);
+
+        for (int i = 0; i < 2; i++) {
+            try (PdfRendererPool.Lease lease = pool.acquire()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                lease.renderer().setDocumentFromString("<html><body><p>Documento " + i + "</p></body></html>");
+                lease.renderer().layout();
+                lease.renderer().createPDF(out);
+                assertTrue(out.size() > 0);
+            }
+        }
+    }
+
+    private static PdfRendererPool newPool(int size, long timeoutMillis) {
+        String tmp = System.getProperty("java.io.tmpdir");
+        TemplateImageResolver imageResolver = new TemplateImageResolver(new AssetStore(tmp, 1024, 1024 * 1024),
+                1024 * 1024, false, 0, 1000, 0, 0, 1);
+        return new PdfRendererPool(size, timeoutMillis, imageResolver, new FontRegistry("", ""));
+    }
+}
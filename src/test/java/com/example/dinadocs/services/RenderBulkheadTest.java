@@ -0,0 +1,90 @@
+package com.example.dinadocs.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderBulkheadTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testRejectsImmediatelyWhenQueueIsFull() {
+        RenderBulkhead bulkhead = new RenderBulkhead(1, 1, 0, 1000, 2.0);
+
+        try (RenderBulkhead.Permit ignored = bulkhead.acquire()) {
+            CapacityExceededException exception = assertThrows(CapacityExceededException.class, bulkhead::acquire);
+            assertTrue(exception.getRetryAfterSeconds() >= 1);
+        }
+        assertEquals(0, bulkhead.getInFlight());
+    }
+
+    @Test
+    void testWaitingCallerGetsReleasedPermit() throws Exception {
+        RenderBulkhead bulkhead = new RenderBulkhead(1, 1, 1, 5000, 2.0);
+        RenderBulkhead.Permit first = bulkhead.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            try (RenderBulkhead.Permit ignored = bulkhead.acquire()) {
+                acquired.countDown();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+
+        while (bulkhead.getWaiting() == 0) {
+            Thread.sleep(5);
+        }
+        first.close();
+
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertNull(failure.get());
+    }
+
+    @Test
+    void testWaitTimesOutWithRejection() {
+        RenderBulkhead bulkhead = new RenderBulkhead(1, 1, 1, 20, 2.0);
+
+        try (RenderBulkhead.Permit ignored = bulkhead.acquire()) {
+            assertThrows(CapacityExceededException.class, bulkhead::acquire);
+        }
+        assertEquals(0, bulkhead.getWaiting());
+    }
+
+    @Test
+    void testLimitShrinksWhenLatencyRisesAndRecoversAfterwards() {
+        RenderBulkhead bulkhead = new RenderBulkhead(1, 8, 0, 0, 2.0);
+        for (int i = 0; i < 50; i++) {
+            bulkhead.recordLatency(100 * MILLIS, 1);
+        }
+        assertEquals(8, bulkhead.getLimit());
+
+        for (int i = 0; i < 20; i++) {
+            bulkhead.recordLatency(1000 * MILLIS, 8);
+        }
+        int reduced = bulkhead.getLimit();
+        assertTrue(reduced < 8, "El límite debería bajar con latencias altas: " + reduced);
+
+        for (int i = 0; i < 500; i++) {
+            bulkhead.recordLatency(100 * MILLIS, bulkhead.getLimit());
+        }
+        assertEquals(8, bulkhead.getLimit());
+    }
+
+    @Test
+    void testFailedRendersDoNotAffectLimit() {
+        RenderBulkhead bulkhead = new RenderBulkhead(1, 4, 0, 0, 2.0);
+        try (RenderBulkhead.Permit permit = bulkhead.acquire()) {
+            assertEquals(1, bulkhead.getInFlight());
+        }
+        assertEquals(4, bulkhead.getLimit());
+        assertEquals(0, bulkhead.getInFlight());
+    }
+}
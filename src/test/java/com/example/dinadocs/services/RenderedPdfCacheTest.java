@@ -0,0 +1,104 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.Template;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderedPdfCacheTest {
+
+    private Template template;
+
+    @BeforeEach
+    void setUp() {
+        template = new Template();
+        template.setId(1L);
+        template.setContent("<html><body>{{nombre}}</body></html>");
+    }
+
+    @Test
+    void testKeyIgnoresMapOrderButTracksTemplateVersion() {
+        RenderedPdfCache cache = new RenderedPdfCache(1024, 1024, false);
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("nombre", "Ana");
+        first.put("items", List.of(Map.of("b", 2, "a", 1)));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("items", List.of(Map.of("a", 1, "b", 2)));
+        second.put("nombre", "Ana");
+
+        String key = cache.key(template, first);
+        assertEquals(key, cache.key(template, second));
+
+        template.setContent("<html><body>Hola {{nombre}}</body></html>");
+        assertNotEquals(key, cache.key(template, first));
+    }
+
+    @Test
+    void testRecordedPdfIsServedOnNextRequest() throws IOException {
+        assertRoundTrip(new RenderedPdfCache(1024, 1024, false));
+    }
+
+    @Test
+    void testRecordedPdfIsServedFromOffHeapStorage() throws IOException {
+        assertRoundTrip(new RenderedPdfCache(1024, 1024, true));
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedWhenOverByteBudget() throws IOException {
+        RenderedPdfCache cache = new RenderedPdfCache(100, 100, false);
+        store(cache, "a", new byte[40]);
+        store(cache, "b", new byte[40]);
+        assertTrue(cache.copyTo("a", new ByteArrayOutputStream()));
+
+        store(cache, "c", new byte[40]);
+
+        assertEquals(80, cache.getTotalBytes());
+        assertEquals(1, cache.getEvictionCount());
+        assertTrue(cache.copyTo("a", new ByteArrayOutputStream()));
+        assertFalse(cache.copyTo("b", new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testSkipsPdfLargerThanEntryLimit() throws IOException {
+        RenderedPdfCache cache = new RenderedPdfCache(1024, 16, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RenderedPdfCache.Recorder recorder = cache.record("grande", out);
+        recorder.write(new byte[32]);
+        recorder.commit();
+
+        assertEquals(32, out.size());
+        assertEquals(0, cache.size());
+    }
+
+    private void assertRoundTrip(RenderedPdfCache cache) throws IOException {
+        byte[] pdf = "%PDF-1.4 contenido".getBytes();
+        String key = cache.key(template, Map.of("nombre", "Ana"));
+        assertFalse(cache.copyTo(key, new ByteArrayOutputStream()));
+
+        ByteArrayOutputStream firstResponse = new ByteArrayOutputStream();
+        RenderedPdfCache.Recorder recorder = cache.record(key, firstResponse);
+        recorder.write(pdf);
+        recorder.commit();
+
+        ByteArrayOutputStream secondResponse = new ByteArrayOutputStream();
+        assertTrue(cache.copyTo(key, secondResponse));
+        assertArrayEquals(pdf, firstResponse.toByteArray());
+        assertArrayEquals(pdf, secondResponse.toByteArray());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(pdf.length, cache.getTotalBytes());
+    }
+
+    private static void store(RenderedPdfCache cache, String key, byte[] pdf) throws IOException {
+        RenderedPdfCache.Recorder recorder = cache.record(key, new ByteArrayOutputStream());
+        recorder.write(pdf);
+        recorder.commit();
+    }
+}
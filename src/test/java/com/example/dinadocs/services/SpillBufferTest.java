@@ -0,0 +1,57 @@
+package com.example.dinadocs.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillBufferTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSmallContentStaysInMemory() throws Exception {
+        try (SpillBuffer buffer = new SpillBuffer(16, tempDir)) {
+            buffer.outputStream().write("hola".getBytes());
+
+            assertFalse(buffer.isSpilled());
+            assertEquals(4, buffer.size());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            buffer.writeTo(out);
+            assertEquals("hola", out.toString());
+        }
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testLargeContentSpillsToDiskAndIsDeletedOnClose() throws Exception {
+        SpillBuffer buffer = new SpillBuffer(8, tempDir);
+        buffer.outputStream().write("0123".getBytes());
+        buffer.outputStream().write("456789abcdef".getBytes());
+        buffer.outputStream().write('g');
+
+        assertTrue(buffer.isSpilled());
+        assertEquals(17, buffer.size());
+        try (InputStream in = buffer.openInputStream()) {
+            assertEquals("0123456789abcdefg", new String(in.readAllBytes()));
+        }
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+
+        buffer.close();
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(java.io.IOException.class, () -> buffer.writeTo(new ByteArrayOutputStream()));
+    }
+}
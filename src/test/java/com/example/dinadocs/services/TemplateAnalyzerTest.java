@@ -0,0 +1,54 @@
+package com.example.dinadocs.services;
+
+import com.example.dinadocs.models.PlaceholderSchema;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateAnalyzerTest {
+
+    private final TemplateAnalyzer analyzer = new TemplateAnalyzer();
+
+    @Test
+    void testBuildsTypedNestedStructure() {
+        PlaceholderSchema schema = analyzer.analyze("<h1>{{titulo}}</h1>"
+                + "{{#experiencia}}<h2>{{puesto}}</h2>{{#logros}}<li>{{.}}</li>{{/logros}}{{^logros}}{{sin_logros}}{{/logros}}{{/experiencia}}"
+                + "{{^experiencia}}Sin experiencia{{/experiencia}}{{&firma}}{{! nota interna }}");
+
+        assertEquals(Set.of("titulo", "firma"), schema.getFields());
+        assertEquals(Set.of("experiencia"), schema.getInvertedSections());
+        PlaceholderSchema experiencia = schema.getSections().get("experiencia");
+        assertEquals(Set.of("puesto", "sin_logros"), experiencia.getFields());
+        assertEquals(Set.of("logros"), experiencia.getInvertedSections());
+        assertTrue(experiencia.getSections().get("logros").getFields().isEmpty());
+    }
+
+    @Test
+    void testRecordsPartialsWithoutLoadingThem() {
+        PlaceholderSchema schema = analyzer.analyze("{{> encabezado}}<p>{{cuerpo}}</p>");
+
+        assertEquals(Set.of("encabezado"), schema.getPartials());
+        assertEquals(Set.of("cuerpo"), schema.getFields());
+    }
+
+    @Test
+    void testHonorsCustomDelimiters() {
+        PlaceholderSchema schema = analyzer.analyze("{{=<% %>=}}<p><% nombre %></p><%#items%><% precio %><%/items%>");
+
+        assertEquals(Set.of("nombre"), schema.getFields());
+        assertEquals(Set.of("precio"), schema.getSections().get("items").getFields());
+    }
+
+    @Test
+    void testRejectsUnclosedSection() {
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze("{{#items}}{{precio}}"));
+    }
+
+    @Test
+    void testEmptyContentProducesEmptySchema() {
+        assertTrue(analyzer.analyze("").flatten().isEmpty());
+        assertTrue(analyzer.analyze(null).flatten().isEmpty());
+    }
+}
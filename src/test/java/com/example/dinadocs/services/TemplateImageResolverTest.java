@@ -0,0 +1,186 @@
+package com.example.dinadocs.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateImageResolverTest {
+
+    private static final byte[] PNG = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mP8z8BQDwAEhQGAhKmMIQAAAABJRU5ErkJggg==");
+
+    @TempDir
+    Path tempDir;
+
+    private AssetStore assetStore;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void setUp() {
+        assetStore = new AssetStore(tempDir.toString(), 1024 * 1024, 64 * 1024 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (serverExecutor != null) {
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAssetIsDecodedOnceAndCopiedPerRender() throws IOException {
+        TemplateImageResolver resolver = newResolver(true, 1000);
+        String id = assetStore.store(PNG);
+
+        TemplateImageResolver.Resolution first = resolver.resolve(AssetStore.SCHEME + id);
+        TemplateImageResolver.Resolution second = resolver.resolve(AssetStore.SCHEME + id);
+
+        assertNotNull(first.image());
+        assertNotNull(second.image());
+        assertNotSame(first.image(), second.image());
+        assertEquals(1, resolver.getMissCount());
+        assertEquals(1, resolver.getHitCount());
+    }
+
+    @Test
+    void testEmbeddedBase64ImageIsCached() {
+        TemplateImageResolver resolver = newResolver(true, 1000);
+        String uri = "data:image/png;base64," + Base64.getEncoder().encodeToString(PNG);
+
+        assertNotNull(resolver.resolve(uri).image());
+        assertNotNull(resolver.resolve(uri).image());
+
+        assertEquals(1, resolver.size());
+        assertEquals(1, resolver.getHitCount());
+    }
+
+    @Test
+    void testUnknownAssetAndLocalFilesAreIgnored() throws IOException {
+        TemplateImageResolver resolver = newResolver(true, 1000);
+        Path local = Files.write(tempDir.resolve("logo.png"), PNG);
+
+        assertNull(resolver.resolve(AssetStore.SCHEME + "0".repeat(64)).image());
+        assertNull(resolver.resolve(AssetStore.SCHEME + "../logo.png").image());
+        assertNull(resolver.resolve(local.toUri().toString()).image());
+        assertEquals(0, resolver.size());
+    }
+
+    @Test
+    void testSlowRemoteImageDoesNotBlockRenderAndIsCachedForNextOne() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        String url = startServer(release);
+        TemplateImageResolver resolver = newResolver(true, 20);
+
+        TemplateImageResolver.Resolution first = resolver.resolve(url);
+        assertTrue(first.pending());
+        assertNull(first.image());
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (resolver.size() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        TemplateImageResolver.Resolution second = resolver.resolve(url);
+        assertFalse(second.pending());
+        assertNotNull(second.image());
+    }
+
+    @Test
+    void testRemoteImagesCanBeDisabled() throws Exception {
+        CountDownLatch release = new CountDownLatch(0);
+        String url = startServer(release);
+        TemplateImageResolver resolver = newResolver(false, 1000);
+
+        TemplateImageResolver.Resolution resolution = resolver.resolve(url);
+
+        assertNull(resolution.image());
+        assertFalse(resolution.pending());
+    }
+
+    @Test
+    void testConcurrentRemoteFetchesAreCapped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/logo.png", exchange -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            exchange.sendResponseHeaders(200, PNG.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PNG);
+            }
+        });
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/logo.png?n=";
+        TemplateImageResolver resolver = new TemplateImageResolver(assetStore, 1024 * 1024, true, 0,
+                5000, 1024 * 1024, 60000, 2);
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(resolver.resolve(url + i).pending());
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (active.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertEquals(2, maxActive.get());
+
+        release.countDown();
+        while (resolver.size() < 8 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(8, resolver.size());
+        assertEquals(2, maxActive.get());
+    }
+
+    private TemplateImageResolver newResolver(boolean remoteEnabled, long remoteWaitMillis) {
+        return new TemplateImageResolver(assetStore, 1024 * 1024, remoteEnabled, remoteWaitMillis,
+                5000, 1024 * 1024, 60000, 4);
+    }
+
+    private String startServer(CountDownLatch release) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/logo.png", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, PNG.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(PNG);
+            }
+        });
+        server.start();
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/logo.png";
+    }
+}
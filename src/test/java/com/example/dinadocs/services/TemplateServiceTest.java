@@ -1,7 +1,11 @@
 package com.example.dinadocs.services;
 
+import com.example.dinadocs.models.PlaceholderSchema;
 import com.example.dinadocs.models.Role;
 import com.example.dinadocs.models.Template;
+import com.example.dinadocs.models.TemplateSummary;
+import com.example.dinadocs.models.TemplateSummaryPage;
+import com.example.dinadocs.models.TemplateVersion;
 import com.example.dinadocs.models.User;
 import com.example.dinadocs.repositories.TemplateRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,7 +13,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.nio.file.AccessDeniedException;
 import java.util.*;
@@ -27,6 +33,15 @@ class TemplateServiceTest {
     @Mock
     private TemplateRepository templateRepository;
 
+    @Mock
+    private CompiledTemplateCache compiledTemplateCache;
+
+    @Mock
+    private EventLogService eventLog;
+
+    @Spy
+    private TemplateAnalyzer templateAnalyzer = new TemplateAnalyzer();
+
     @InjectMocks
     private TemplateService templateService;
 
@@ -117,6 +132,33 @@ class TemplateServiceTest {
         assertTrue(savedTemplate.getPlaceholders().contains("edad"));
     }
 
+    @Test
+    void testSave_PrecomputesPlaceholderSchema() {
+        Template newTemplate = new Template();
+        newTemplate.setName("Factura");
+        newTemplate.setContent("<html>{{cliente}}{{#conceptos}}{{descripcion}}{{/conceptos}}{{^conceptos}}Sin conceptos{{/conceptos}}</html>");
+
+        when(templateRepository.save(any(Template.class))).thenReturn(newTemplate);
+
+        PlaceholderSchema schema = templateService.save(newTemplate, standardUser).getPlaceholderSchema();
+
+        assertNotNull(schema);
+        assertEquals(Set.of("cliente"), schema.getFields());
+        assertEquals(Set.of("descripcion"), schema.getSections().get("conceptos").getFields());
+        assertEquals(Set.of("conceptos"), schema.getInvertedSections());
+        assertEquals(List.of("cliente", "conceptos", "conceptos.descripcion"), newTemplate.getPlaceholders());
+    }
+
+    @Test
+    void testSave_RejectsInvalidMustacheSyntax() {
+        Template newTemplate = new Template();
+        newTemplate.setName("Rota");
+        newTemplate.setContent("<html>{{#conceptos}}{{descripcion}}</html>");
+
+        assertThrows(IllegalArgumentException.class, () -> templateService.save(newTemplate, standardUser));
+        verify(templateRepository, never()).save(any(Template.class));
+    }
+
 
     @Test
     void testFindAllByRole_AdminSeesAll() {
@@ -152,6 +194,39 @@ class TemplateServiceTest {
         verify(templateRepository, times(1)).findByIsPublicTrueOrOwner(standardUser);
     }
 
+    @Test
+    void testFindSummaries_UsuarioGetsPublicAndOwnedWithNextCursor() {
+        List<TemplateSummary> summaries = List.of(
+                new TemplateSummary(101L, "Plantilla Pública", true, 2L, 1),
+                new TemplateSummary(102L, "Plantilla Privada", false, 3L, 1),
+                new TemplateSummary(103L, "Otra", true, 2L, 0));
+        when(templateRepository.findSummaries(100L, false, 3L, Limit.of(3))).thenReturn(summaries);
+
+        TemplateSummaryPage page = templateService.findSummaries(standardUser, 100L, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(102L, page.getNextCursor());
+    }
+
+    @Test
+    void testFindSummaries_AdminSeesAllAndLastPageHasNoCursor() {
+        when(templateRepository.findSummaries(0L, true, null, Limit.of(TemplateService.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(List.of(new TemplateSummary(101L, "Plantilla Pública", true, 2L, 1)));
+
+        TemplateSummaryPage page = templateService.findSummaries(adminUser, null, null);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testFindSummaries_RejectsPageSizeOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> templateService.findSummaries(creatorUser, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> templateService.findSummaries(creatorUser, null, TemplateService.MAX_PAGE_SIZE + 1));
+        verifyNoInteractions(templateRepository);
+    }
+
 
     @Test
     void testFindById_WhenUserIsOwner_ShouldReturnTemplate() throws AccessDeniedException {
@@ -201,6 +276,30 @@ class TemplateServiceTest {
         });
     }
 
+    @Test
+    void testFindETag_OnlyForReadableTemplates() {
+        when(templateRepository.findVersionById(102L)).thenReturn(Optional.of(new TemplateVersion(102L, 4L, false, 3L)));
+
+        assertEquals(Optional.of("t102-v4"), templateService.findETag(102L, standardUser));
+        assertEquals(Optional.of("t102-v4"), templateService.findETag(102L, adminUser));
+        assertEquals(Optional.empty(), templateService.findETag(102L, creatorUser));
+        verify(templateRepository, never()).findById(any());
+    }
+
+    @Test
+    void testListETag_ChangesWithVisibleTemplatesAndUser() {
+        when(templateRepository.findListVersion(false, 3L)).thenReturn("2:102:203:1", "2:102:203:2");
+        when(templateRepository.findListVersion(true, null)).thenReturn("2:102:203:1");
+
+        String first = templateService.listETag(standardUser);
+        String afterUpdate = templateService.listETag(standardUser);
+        String admin = templateService.listETag(adminUser);
+
+        assertNotEquals(first, afterUpdate);
+        assertNotEquals(first, admin);
+        assertTrue(first.startsWith("l-"));
+    }
+
     // === Tests para update() ===
 
     @Test
@@ -217,6 +316,7 @@ class TemplateServiceTest {
         assertEquals("Nombre Actualizado", result.getName());
         assertEquals("<html>{{actualizado}}</html>", result.getContent());
         verify(templateRepository, times(1)).save(any(Template.class));
+        verify(compiledTemplateCache, times(1)).invalidate(102L);
     }
 
     @Test
@@ -267,6 +367,7 @@ class TemplateServiceTest {
         templateService.delete(102L, standardUser);
 
         verify(templateRepository, times(1)).delete(privateTemplate);
+        verify(compiledTemplateCache, times(1)).invalidate(102L);
     }
 
     @Test
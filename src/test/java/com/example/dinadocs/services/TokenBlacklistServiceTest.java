@@ -1,41 +1,45 @@
 package com.example.dinadocs.services;
 
+import com.example.dinadocs.models.RevokedToken;
+import com.example.dinadocs.repositories.RevokedTokenRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 class TokenBlacklistServiceTest {
 
+    private RevokedTokenRepository revokedTokenRepository;
     private TokenBlacklistService tokenBlacklistService;
+    private long inOneHour;
 
     @BeforeEach
     void setUp() {
-        tokenBlacklistService = new TokenBlacklistService();
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        tokenBlacklistService = new TokenBlacklistService(revokedTokenRepository, 1 << 16);
+        inOneHour = System.currentTimeMillis() + 3_600_000;
     }
 
     @Test
     void testInvalidateToken() {
         String token = "tokenPrueba123";
 
-        tokenBlacklistService.invalidateToken(token);
+        tokenBlacklistService.revoke(token, inOneHour);
 
-        assertTrue(tokenBlacklistService.isTokenInvalidated(token));
+        assertTrue(tokenBlacklistService.isRevoked(token));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
     }
 
     @Test
     void testIsTokenInvalidatedFalse() {
         String token = "tokenValido";
 
-        assertFalse(tokenBlacklistService.isTokenInvalidated(token));
-    }
-
-    @Test
-    void testIsTokenInvalidatedTrue() {
-        String token = "tokenInvalido";
-        tokenBlacklistService.invalidateToken(token);
-
-        assertTrue(tokenBlacklistService.isTokenInvalidated(token));
+        assertFalse(tokenBlacklistService.isRevoked(token));
     }
 
     @Test
@@ -44,11 +48,38 @@ class TokenBlacklistServiceTest {
         String token2 = "token2";
         String token3 = "token3";
 
-        tokenBlacklistService.invalidateToken(token1);
-        tokenBlacklistService.invalidateToken(token2);
+        tokenBlacklistService.revoke(token1, inOneHour);
+        tokenBlacklistService.revoke(token2, inOneHour);
+
+        assertTrue(tokenBlacklistService.isRevoked(token1));
+        assertTrue(tokenBlacklistService.isRevoked(token2));
+        assertFalse(tokenBlacklistService.isRevoked(token3));
+    }
+
+    @Test
+    void testExpiredTokensAreRemoved() throws InterruptedException {
+        tokenBlacklistService.revoke("tokenCorto", System.currentTimeMillis() + 20);
+        tokenBlacklistService.revoke("tokenLargo", inOneHour);
+        Thread.sleep(40);
+
+        assertFalse(tokenBlacklistService.isRevoked("tokenCorto"));
+
+        tokenBlacklistService.removeExpired();
+
+        assertEquals(1, tokenBlacklistService.size());
+        assertTrue(tokenBlacklistService.isRevoked("tokenLargo"));
+        verify(revokedTokenRepository).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void testSynchronizeLoadsRevocationsFromOtherNodes() {
+        RevokedToken remote = new RevokedToken("tokenOtroNodo", Instant.ofEpochMilli(inOneHour), Instant.now());
+        when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(remote));
+
+        tokenBlacklistService.synchronize();
 
-        assertTrue(tokenBlacklistService.isTokenInvalidated(token1));
-        assertTrue(tokenBlacklistService.isTokenInvalidated(token2));
-        assertFalse(tokenBlacklistService.isTokenInvalidated(token3));
+        assertTrue(tokenBlacklistService.isRevoked("tokenOtroNodo"));
+        verify(revokedTokenRepository).findByRevokedAtAfterAndExpiresAtAfter(eq(Instant.EPOCH), any(Instant.class));
     }
 }